@@ -0,0 +1,653 @@
+/*
+ * @(#)AVICatalog.java
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A catalog of AVI files.
+ * <p>
+ * For each file the catalog holds the codec, the dimension, the frame count,
+ * the duration and the keyframe positions of the first video stream.
+ * <p>
+ * {@link #update} parses new and changed files concurrently on a thread pool
+ * of bounded size, with one {@link RIFFParser} per file. A file is parsed
+ * again only if its modification time or its size has changed. The parser
+ * only reads the headers and the index of a file. It seeks over the
+ * 'movi' list.
+ * <p>
+ * OpenDML files consist of a 'RIFF AVI ' part, followed by 'RIFF AVIX'
+ * parts. The idx1 chunk only covers the first part. If the video stream has
+ * an OpenDML super index, the catalog reads the frames of all parts from the
+ * standard indices, which the super index refers to. Otherwise the entry is
+ * marked as partial.
+ * <p>
+ * The catalog is stored in a compact binary file. Keyframe positions are
+ * delta encoded as variable-length integers.
+ * <p>
+ * The methods of this class are not synchronized.
+ *
+ * @version 1.2 2026-10-19 Files which can not be parsed get an error entry
+ * instead of failing the update.
+ * <br>1.1 2026-10-19 Reads the OpenDML indices. Files which are deleted
+ * during an update are skipped.
+ * <br>1.0 2026-10-19 Created.
+ */
+public class AVICatalog {
+
+    private final static int MAGIC = 0x41564943;// "AVIC"
+    private final static int VERSION = 2;
+    private final static int AVI_ID = RIFFParser.stringToID("AVI ");
+    private final static int LIST_ID = RIFFParser.LIST_ID;
+    private final static int HDRL_ID = RIFFParser.stringToID("hdrl");
+    private final static int STRL_ID = RIFFParser.stringToID("strl");
+    private final static int MOVI_ID = RIFFParser.stringToID("movi");
+    private final static int STRH_ID = RIFFParser.stringToID("strh");
+    private final static int STRF_ID = RIFFParser.stringToID("strf");
+    private final static int IDX1_ID = RIFFParser.stringToID("idx1");
+    private final static int INDX_ID = RIFFParser.stringToID("indx");
+    private final static int VIDS_ID = RIFFParser.stringToID("vids");
+    /** idx1 flag of a keyframe. */
+    private final static int AVIIF_KEYFRAME = 0x10;
+    /** idx1 flag of a chunk which does not affect the timing, for example
+     * a palette change. */
+    private final static int AVIIF_NO_TIME = 0x100;
+    /** bIndexType of an OpenDML super index. */
+    private final static int AVI_INDEX_OF_INDEXES = 0x00;
+    /** bIndexType of an OpenDML standard index. */
+    private final static int AVI_INDEX_OF_CHUNKS = 0x01;
+    /** Size flag of a standard index entry, which is not a keyframe. */
+    private final static int AVISTDINDEX_DELTAFRAME = 0x80000000;
+    /** The largest standard index, which is read. This is enough for
+     * 8 million frames per index. */
+    private final static int MAX_INDEX_SIZE = 64 << 20;
+
+    /** Catalog entries by absolute file path. */
+    private final TreeMap<String, Entry> entries = new TreeMap<String, Entry>();
+
+    /** Describes a single AVI file. */
+    public static class Entry {
+
+        private String path;
+        private long lastModified;
+        private long size;
+        /** Parser message if the file could not be parsed, null otherwise. */
+        private String error;
+        /** True if the index does not cover all RIFF parts of the file. */
+        private boolean partial;
+        /** FourCC of the video codec. */
+        private String codec = "";
+        private int width;
+        private int height;
+        /** Time scale and rate of the video stream. */
+        private long scale;
+        private long rate;
+        private int frameCount;
+        /** Frame numbers of the keyframes. */
+        private int[] keyframes = new int[0];
+        /** File offsets of the chunk headers of the keyframes. */
+        private long[] keyframeOffsets = new long[0];
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /** Returns the parser message if the file could not be parsed,
+         * null otherwise. */
+        public String getError() {
+            return error;
+        }
+
+        /** Returns true if the file has RIFF parts which are not covered by
+         * the index. The frame count and the keyframes then only describe
+         * the indexed parts. */
+        public boolean isPartial() {
+            return partial;
+        }
+
+        public String getCodec() {
+            return codec;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public int getFrameCount() {
+            return frameCount;
+        }
+
+        /** Returns the duration of the video stream in seconds. */
+        public double getDuration() {
+            return rate == 0 ? 0 : (double) frameCount * scale / rate;
+        }
+
+        /** Returns the frame numbers of the keyframes. The array will not
+         * be cloned. */
+        public int[] getKeyframes() {
+            return keyframes;
+        }
+
+        /** Returns the file offsets of the chunk headers of the keyframes.
+         * The array will not be cloned. */
+        public long[] getKeyframeOffsets() {
+            return keyframeOffsets;
+        }
+
+        @Override
+        public String toString() {
+            return path + (error != null ? " error:" + error
+                    : " " + codec + " " + width + "x" + height + " " + frameCount + " frames "
+                    + getDuration() + " s " + keyframes.length + " keyframes"
+                    + (partial ? " partial" : ""));
+        }
+    }
+
+    /** Creates an empty catalog. */
+    public AVICatalog() {
+    }
+
+    /** Returns the entries of the catalog ordered by path. */
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /** Returns the entry of the specified file, or null. */
+    public Entry getEntry(Path file) {
+        return entries.get(file.toAbsolutePath().toString());
+    }
+
+    /**
+     * Updates the catalog with all AVI files in the specified directory and
+     * its subdirectories. Entries of files which do not exist anymore are
+     * removed.
+     *
+     * @param dir The directory.
+     * @param nThreads The maximal number of files which are parsed concurrently.
+     * @return The number of files which have been parsed.
+     */
+    public int update(Path dir, int nThreads) throws IOException, InterruptedException {
+        final ArrayList<Path> files = new ArrayList<Path>();
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && file.getFileName().toString().toLowerCase().endsWith(".avi")) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        String prefix = dir.toAbsolutePath().toString();
+        ArrayList<String> removed = new ArrayList<String>();
+        for (String path : entries.keySet()) {
+            if (path.startsWith(prefix) && !Files.exists(Paths.get(path))) {
+                removed.add(path);
+            }
+        }
+        for (String path : removed) {
+            entries.remove(path);
+        }
+        return update(files, nThreads);
+    }
+
+    /**
+     * Updates the catalog with the specified files. Only files which are not
+     * in the catalog, or whose modification time or size has changed, are
+     * parsed.
+     *
+     * @param files The files.
+     * @param nThreads The maximal number of files which are parsed concurrently.
+     * @return The number of files which have been parsed.
+     */
+    public int update(List<Path> files, int nThreads) throws IOException, InterruptedException {
+        ArrayList<Future<Entry>> futures = new ArrayList<Future<Entry>>();
+        ArrayList<String> paths = new ArrayList<String>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, nThreads));
+        try {
+            for (final Path file : files) {
+                String path = file.toAbsolutePath().toString();
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException ex) {
+                    // => the file has been deleted after it had been listed
+                    entries.remove(path);
+                    continue;
+                }
+                Entry old = entries.get(path);
+                if (old != null && old.lastModified == attrs.lastModifiedTime().toMillis()
+                        && old.size == attrs.size()) {
+                    continue;
+                }
+                futures.add(executor.submit(new Callable<Entry>() {
+
+                    public Entry call() throws IOException {
+                        return parse(file);
+                    }
+                }));
+                paths.add(path);
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Entry e;
+                try {
+                    e = futures.get(i).get();
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof NoSuchFileException) {
+                        // => the file has been deleted while we were parsing
+                        entries.remove(paths.get(i));
+                        continue;
+                    }
+                    IOException ioe = new IOException("Could not parse file.");
+                    ioe.initCause(ex.getCause());
+                    throw ioe;
+                }
+                entries.put(e.path, e);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return futures.size();
+    }
+
+    /**
+     * Parses the headers and the index of an AVI file.
+     * If the file is not a valid AVI file, or if it can not be read, the
+     * returned entry holds the error message.
+     *
+     * @throws IOException if the attributes of the file can not be read, or
+     * if the file can not be opened.
+     */
+    public static Entry parse(Path file) throws IOException {
+        final Entry e = new Entry();
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        e.path = file.toAbsolutePath().toString();
+        e.lastModified = attrs.lastModifiedTime().toMillis();
+        e.size = attrs.size();
+
+        RIFFParser p = new RIFFParser();
+        p.declareGroupChunk(AVI_ID, RIFFParser.RIFF_ID);
+        p.declareGroupChunk(HDRL_ID, LIST_ID);
+        p.declareGroupChunk(STRL_ID, LIST_ID);
+        p.declareGroupChunk(MOVI_ID, LIST_ID);
+        p.declareDataChunk(STRL_ID, STRH_ID);
+        p.declareDataChunk(STRL_ID, STRF_ID);
+        p.declareDataChunk(STRL_ID, INDX_ID);
+        p.declareDataChunk(AVI_ID, IDX1_ID);
+        final long[] moviPosition = {-1};
+        final ByteBuffer[] idx1 = new ByteBuffer[1];
+        final ByteBuffer[] superIndex = new ByteBuffer[1];
+        // Index of the first video stream.
+        final int[] videoStream = {-1};
+        RIFFVisitor v = new RIFFVisitor() {
+
+            /** Index of the current stream. */
+            private int stream = -1;
+
+            public boolean enteringGroup(RIFFChunk group) {
+                if (group.getType() == MOVI_ID) {
+                    // the frames are located through the index
+                    moviPosition[0] = group.getScan();
+                    return false;
+                }
+                if (group.getType() == STRL_ID) {
+                    stream++;
+                }
+                return true;
+            }
+
+            public void enterGroup(RIFFChunk group) {
+            }
+
+            public void leaveGroup(RIFFChunk group) {
+            }
+
+            public void visitChunk(RIFFChunk group, RIFFChunk chunk) {
+                ByteBuffer b = chunk.getBuffer();
+                if (chunk.getID() == STRH_ID) {
+                    if (videoStream[0] == -1 && b.remaining() >= 36
+                            && Integer.reverseBytes(b.getInt(0)) == VIDS_ID) {
+                        videoStream[0] = stream;
+                        e.codec = fourCCToString(b.getInt(4));
+                        e.scale = b.getInt(20) & 0xffffffffL;
+                        e.rate = b.getInt(24) & 0xffffffffL;
+                        e.frameCount = b.getInt(32);
+                    }
+                } else if (chunk.getID() == STRF_ID) {
+                    if (stream == videoStream[0] && b.remaining() >= 20) {
+                        e.width = b.getInt(4);
+                        e.height = Math.abs(b.getInt(8));
+                        String compression = fourCCToString(b.getInt(16));
+                        if (e.codec.trim().length() == 0 && compression.trim().length() > 0) {
+                            e.codec = compression;
+                        }
+                    }
+                } else if (chunk.getID() == INDX_ID) {
+                    if (stream == videoStream[0]) {
+                        superIndex[0] = b;
+                    }
+                } else if (chunk.getID() == IDX1_ID) {
+                    idx1[0] = b;
+                }
+            }
+        };
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long end = p.parse(channel, v);
+            if (videoStream[0] != -1) {
+                if (superIndex[0] == null || !readSuperIndex(e, superIndex[0], channel)) {
+                    if (idx1[0] != null) {
+                        readIndex(e, idx1[0], videoStream[0], moviPosition[0]);
+                    }
+                    e.partial = hasMoreParts(channel, end);
+                }
+            }
+        } catch (ParseException ex) {
+            e.error = ex.getMessage();
+        } catch (AbortException ex) {
+            e.error = ex.getMessage();
+        } catch (IOException ex) {
+            // e.g. a file which is still being written
+            e.error = ex.toString();
+        } catch (RuntimeException ex) {
+            e.error = ex.toString();
+        } finally {
+            channel.close();
+        }
+        return e;
+    }
+
+    /** Returns true if a further RIFF part starts at the specified position
+     * of the channel. */
+    private static boolean hasMoreParts(FileChannel channel, long position) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(4);
+        while (b.hasRemaining() && channel.read(b, position + b.position()) > 0) {
+        }
+        return !b.hasRemaining() && b.getInt(0) == RIFFParser.RIFF_ID;
+    }
+
+    /**
+     * Reads the frames and the keyframes of the video stream from the
+     * standard indices, which the OpenDML super index refers to. The
+     * standard indices are located in all RIFF parts of the file.
+     *
+     * @return False if the super index is not supported. The entry is not
+     * changed in this case.
+     */
+    private static boolean readSuperIndex(Entry e, ByteBuffer indx, FileChannel channel) throws IOException, ParseException {
+        int p = indx.position();
+        if (indx.remaining() < 24 || (indx.get(p + 3) & 0xff) != AVI_INDEX_OF_INDEXES
+                || indx.getShort(p) != 4) {
+            return false;
+        }
+        int n = Math.min(indx.getInt(p + 4), (indx.remaining() - 24) / 16);
+        int[] keyframes = new int[16];
+        long[] offsets = new long[16];
+        int keyframeCount = 0;
+        int frame = 0;
+        long fileSize = channel.size();
+        for (int i = 0, q = p + 24; i < n; i++, q += 16) {
+            long ixOffset = indx.getLong(q);
+            long ixSize = indx.getInt(q + 8) & 0xffffffffL;
+            if (ixOffset < 0 || ixSize < 32 || ixSize > MAX_INDEX_SIZE || ixOffset + ixSize > fileSize) {
+                throw new ParseException("Illegal super index entry " + i);
+            }
+            ByteBuffer ix = ByteBuffer.allocate((int) ixSize).order(ByteOrder.LITTLE_ENDIAN);
+            while (ix.hasRemaining()) {
+                if (channel.read(ix, ixOffset + ix.position()) < 0) {
+                    throw new ParseException("Unexpected end of file in standard index " + i);
+                }
+            }
+            int longsPerEntry = ix.getShort(8);
+            if ((ix.get(11) & 0xff) != AVI_INDEX_OF_CHUNKS || longsPerEntry < 2) {
+                throw new ParseException("Illegal standard index " + i);
+            }
+            int m = Math.min(ix.getInt(12), (ix.limit() - 32) / (longsPerEntry * 4));
+            long baseOffset = ix.getLong(20);
+            for (int j = 0, r = 32; j < m; j++, r += longsPerEntry * 4) {
+                if ((ix.getInt(r + 4) & AVISTDINDEX_DELTAFRAME) == 0) {
+                    if (keyframeCount == keyframes.length) {
+                        keyframes = Arrays.copyOf(keyframes, keyframeCount * 2);
+                        offsets = Arrays.copyOf(offsets, keyframeCount * 2);
+                    }
+                    keyframes[keyframeCount] = frame;
+                    // the index points to the chunk data, behind the header
+                    offsets[keyframeCount] = baseOffset + (ix.getInt(r) & 0xffffffffL) - 8;
+                    keyframeCount++;
+                }
+                frame++;
+            }
+        }
+        e.frameCount = frame;
+        e.keyframes = Arrays.copyOf(keyframes, keyframeCount);
+        e.keyframeOffsets = Arrays.copyOf(offsets, keyframeCount);
+        return true;
+    }
+
+    /** Reads the keyframes of the video stream from the idx1 chunk.
+     * The stream number is encoded in the first two characters of the
+     * chunk IDs. */
+    private static void readIndex(Entry e, ByteBuffer idx1, int videoStream, long moviPosition) {
+        int ckid0 = '0' + videoStream / 10;
+        int ckid1 = '0' + videoStream % 10;
+        int n = idx1.remaining() / 16;
+        int[] keyframes = new int[16];
+        long[] offsets = new long[16];
+        int keyframeCount = 0;
+        int frame = 0;
+        // Offsets are relative to the 'movi' FourCC, unless the first
+        // offset points behind it, in which case they are file offsets.
+        long base = -1;
+        for (int i = 0, p = idx1.position(); i < n; i++, p += 16) {
+            if ((idx1.get(p) & 0xff) != ckid0 || (idx1.get(p + 1) & 0xff) != ckid1
+                    || idx1.get(p + 2) != 'd') {
+                continue;
+            }
+            int flags = idx1.getInt(p + 4);
+            if ((flags & AVIIF_NO_TIME) != 0) {
+                continue;
+            }
+            long offset = idx1.getInt(p + 8) & 0xffffffffL;
+            if (base == -1) {
+                base = (moviPosition >= 0 && offset < moviPosition) ? moviPosition : 0;
+            }
+            if ((flags & AVIIF_KEYFRAME) != 0) {
+                if (keyframeCount == keyframes.length) {
+                    keyframes = Arrays.copyOf(keyframes, keyframeCount * 2);
+                    offsets = Arrays.copyOf(offsets, keyframeCount * 2);
+                }
+                keyframes[keyframeCount] = frame;
+                offsets[keyframeCount] = base + offset;
+                keyframeCount++;
+            }
+            frame++;
+        }
+        e.frameCount = frame;
+        e.keyframes = Arrays.copyOf(keyframes, keyframeCount);
+        e.keyframeOffsets = Arrays.copyOf(offsets, keyframeCount);
+    }
+
+    /** Converts a little-endian FourCC to a String. */
+    private static String fourCCToString(int fourCC) {
+        return RIFFParser.idToString(Integer.reverseBytes(fourCC));
+    }
+
+    /**
+     * Reads a catalog from the specified file.
+     * Returns an empty catalog if the file does not exist.
+     */
+    public static AVICatalog read(Path catalogFile) throws IOException {
+        AVICatalog c = new AVICatalog();
+        if (!Files.exists(catalogFile)) {
+            return c;
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(catalogFile)));
+        try {
+            int version;
+            if (in.readInt() != MAGIC || (version = in.readInt()) < 1 || version > VERSION) {
+                throw new IOException("Not a catalog file: " + catalogFile);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Entry e = new Entry();
+                e.path = in.readUTF();
+                e.lastModified = in.readLong();
+                e.size = in.readLong();
+                if (in.readBoolean()) {
+                    e.error = in.readUTF();
+                }
+                if (version >= 2) {
+                    e.partial = in.readBoolean();
+                }
+                e.codec = in.readUTF();
+                e.width = readVarInt(in);
+                e.height = readVarInt(in);
+                e.scale = readVarLong(in);
+                e.rate = readVarLong(in);
+                e.frameCount = readVarInt(in);
+                int n = readVarInt(in);
+                e.keyframes = new int[n];
+                e.keyframeOffsets = new long[n];
+                int frame = 0;
+                long offset = 0;
+                for (int j = 0; j < n; j++) {
+                    e.keyframes[j] = frame += readVarInt(in);
+                    e.keyframeOffsets[j] = offset += readVarLong(in);
+                }
+                c.entries.put(e.path, e);
+            }
+        } finally {
+            in.close();
+        }
+        return c;
+    }
+
+    /**
+     * Writes the catalog to the specified file. The catalog is written to a
+     * temporary file first, which then replaces the specified file.
+     */
+    public void write(Path catalogFile) throws IOException {
+        Path tmp = catalogFile.resolveSibling(catalogFile.getFileName() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Entry e : entries.values()) {
+                out.writeUTF(e.path);
+                out.writeLong(e.lastModified);
+                out.writeLong(e.size);
+                out.writeBoolean(e.error != null);
+                if (e.error != null) {
+                    out.writeUTF(e.error);
+                }
+                out.writeBoolean(e.partial);
+                out.writeUTF(e.codec);
+                writeVarLong(out, e.width);
+                writeVarLong(out, e.height);
+                writeVarLong(out, e.scale);
+                writeVarLong(out, e.rate);
+                writeVarLong(out, e.frameCount);
+                writeVarLong(out, e.keyframes.length);
+                int frame = 0;
+                long offset = 0;
+                for (int j = 0; j < e.keyframes.length; j++) {
+                    writeVarLong(out, e.keyframes[j] - frame);
+                    writeVarLong(out, e.keyframeOffsets[j] - offset);
+                    frame = e.keyframes[j];
+                    offset = e.keyframeOffsets[j];
+                }
+            }
+        } finally {
+            out.close();
+        }
+        Files.move(tmp, catalogFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Writes an unsigned variable-length integer with 7 bits per byte. */
+    private static void writeVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7fL) != 0) {
+            out.write((int) ((v & 0x7f) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    /**
+     * Updates a catalog file with the AVI files in a directory.
+     * <p>
+     * Usage: {@code AVICatalog catalogFile directory [threads]}
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: AVICatalog catalogFile directory [threads]");
+            return;
+        }
+        try {
+            Path catalogFile = Paths.get(args[0]);
+            int nThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            long start = System.currentTimeMillis();
+            AVICatalog c = read(catalogFile);
+            int parsed = c.update(Paths.get(args[1]), nThreads);
+            c.write(catalogFile);
+            System.out.println(c.entries.size() + " files, " + parsed + " parsed in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.awt.Dimension;
 import java.awt.image.IndexColorModel;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import javax.imageio.stream.*;
 import static java.lang.Math.*;
@@ -69,7 +70,9 @@ public class AVIOutputStream extends AbstractAVIStream {
         if (file.exists()) {
             file.delete();
         }
-        this.out = new FileImageOutputStream(file);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        this.out = new FileImageOutputStream(raf);
+        this.channel = raf.getChannel();
         out.setByteOrder(ByteOrder.LITTLE_ENDIAN);
         this.streamOffset = 0;
     }
@@ -476,6 +479,53 @@ public class AVIOutputStream extends AbstractAVIStream {
         }
     }
 
+    /**
+     * Writes an already encoded sample from a sequence of buffers into a
+     * track. The sample data is the concatenation of the remaining bytes of
+     * the buffers. The positions of the buffers are not changed.
+     * <p>
+     * If this stream has been created for a file, the chunk header, the
+     * sample data and the pad byte are written with a single gathering write,
+     * without copying the data.
+     * <p>
+     * This method does not inspect the contents of the samples. The contents
+     * has to match the format and dimensions of the media in this track.
+     *
+     * @param track The track index.
+     * @param parts The encoded sample data.
+     * @param isKeyframe Whether the sample is a sync sample (keyframe).
+     *
+     * @throws IOException if writing the sample data failed.
+     */
+    public void writeSample(int track, ByteBuffer[] parts, boolean isKeyframe) throws IOException {
+        ensureStarted();
+        Track tr = tracks.get(track);
+
+        // The first sample in a track is always a key frame
+        if (!isKeyframe && tr.samples.isEmpty()) {
+            throw new IllegalStateException("The first sample in a track must be a keyframe.");
+        }
+
+        // If a stream has palette changes, then only palette change samples can
+        // be marked as keyframe.
+        if (isKeyframe && 0 != (tr.flags & STRH_FLAG_VIDEO_PALETTE_CHANGES)) {
+            throw new IllegalStateException("Only palette changes can be marked as keyframe.");
+        }
+
+        // The previous chunk must write its pad byte before we write ours
+        if (!moviChunk.children.isEmpty()) {
+            moviChunk.children.getLast().finish();
+        }
+        GatheringDataChunk dc = new GatheringDataChunk(tr.getSampleChunkFourCC(isKeyframe), parts);
+        moviChunk.add(dc);
+        Sample s = new Sample(dc.chunkType, 1, dc.offset + 8, dc.dataSize, isKeyframe);
+        tr.addSample(s);
+        idx1.add(s);
+        if (getRelativeStreamPosition() > 1L << 32) {
+            throw new IOException("AVI file is larger than 4 GB");
+        }
+    }
+
     /**
      * Writes multiple already encoded samples from a byte array into a track.
      * <p>
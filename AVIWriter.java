@@ -214,18 +214,16 @@ public class AVIWriter extends AVIOutputStream implements MovieWriter {
                 vt.outputBuffer = new Buffer();
             }
 
-            boolean isKeyframe = vt.syncInterval == 0 ? false : vt.samples.size() % vt.syncInterval == 0;
-
             Buffer inputBuffer = new Buffer();
-            inputBuffer.flags = (isKeyframe) ? EnumSet.of(BufferFlag.KEYFRAME) : EnumSet.noneOf(BufferFlag.class);
+            inputBuffer.flags = EnumSet.noneOf(BufferFlag.class);
             inputBuffer.data = image;
             vt.codec.process(inputBuffer, vt.outputBuffer);
             if (vt.outputBuffer.flags.contains(BufferFlag.DISCARD)) {
                 return;
             }
 
-            // Encode palette data
-            isKeyframe = vt.outputBuffer.flags.contains(BufferFlag.KEYFRAME);
+            // Encode palette data. The codec decides where key frames are placed.
+            boolean isKeyframe = vt.outputBuffer.flags.contains(BufferFlag.KEYFRAME);
             boolean paletteChange = writePalette(track, image, isKeyframe);
             writeSample(track, (byte[])vt.outputBuffer.data,vt.outputBuffer.offset,vt.outputBuffer.length, isKeyframe&&!paletteChange);
 /*
@@ -264,24 +262,13 @@ public class AVIWriter extends AVIOutputStream implements MovieWriter {
         
         Track tr = tracks.get(track);
 
-        boolean isKeyframe = buf.flags.contains(BufferFlag.KEYFRAME);
-        if (buf.data instanceof BufferedImage) {
-            if (tr.syncInterval != 0) {
-                isKeyframe = buf.flags.contains(BufferFlag.KEYFRAME) | (tr.samples.size() % tr.syncInterval == 0);
-            }
-        }
-        // Encode palette data
-        boolean paletteChange = false;
-        if (buf.data instanceof BufferedImage && tr instanceof VideoTrack) {
-            paletteChange = writePalette(track, (BufferedImage) buf.data, isKeyframe);
-        } else if (buf.header instanceof IndexColorModel) {
-            paletteChange = writePalette(track, (IndexColorModel) buf.header, isKeyframe);
-        }
         // Encode sample data
         {
             if (buf.format.removeKeys(VideoFormatKeys.FrameRateKey).matches(tr.format) && buf.data instanceof byte[]) {
+                boolean isKeyframe = buf.isFlag(BufferFlag.KEYFRAME);
+                boolean paletteChange = writePalette(track, buf, isKeyframe);
                 writeSamples(track, buf.sampleCount, (byte[]) buf.data, buf.offset, buf.length,
-                        buf.isFlag(BufferFlag.KEYFRAME) && !paletteChange);
+                        isKeyframe && !paletteChange);
                 return;
             }
             
@@ -306,9 +293,42 @@ public class AVIWriter extends AVIOutputStream implements MovieWriter {
             if (outBuf.isFlag(BufferFlag.DISCARD)) {
                 return;
             }
+            // Encode palette data. The codec decides where key frames are placed.
+            boolean isKeyframe = outBuf.isFlag(BufferFlag.KEYFRAME);
+            boolean paletteChange = writePalette(track, buf, isKeyframe);
             writeSamples(track, outBuf.sampleCount, (byte[]) outBuf.data, outBuf.offset, outBuf.length,
-                    isKeyframe&&!paletteChange);
+                    isKeyframe && !paletteChange);
+        }
+    }
+
+    /**
+     * Closes the writer. The output arrays, which the codecs have acquired
+     * from the {@link ByteArrayPool}, are handed back to the pool.
+     *
+     * @exception IOException if an I/O error has occurred
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            for (Track tr : tracks) {
+                if (tr.codec instanceof AbstractVideoCodec) {
+                    ((AbstractVideoCodec) tr.codec).releasePooledOutput(tr.outputBuffer);
+                }
+            }
+        }
+    }
+
+    /** Writes the palette of the image or of the color model in the header
+     * of the buffer, if it has changed. */
+    private boolean writePalette(int track, Buffer buf, boolean isKeyframe) throws IOException {
+        if (buf.data instanceof BufferedImage && tracks.get(track) instanceof VideoTrack) {
+            return writePalette(track, (BufferedImage) buf.data, isKeyframe);
+        } else if (buf.header instanceof IndexColorModel) {
+            return writePalette(track, (IndexColorModel) buf.header, isKeyframe);
         }
+        return false;
     }
 
     private boolean writePalette(int track, BufferedImage image, boolean isKeyframe) throws IOException {
@@ -366,7 +386,7 @@ public class AVIWriter extends AVIOutputStream implements MovieWriter {
                     BYTE peFlags;
                     } PALETTEENTRY;
                      */
-                    tmp = new ByteArrayImageOutputStream(ByteOrder.LITTLE_ENDIAN);
+                    tmp = new ByteArrayImageOutputStream(ByteArrayPool.getInstance(), 4 + 256 * 4, ByteOrder.LITTLE_ENDIAN);
                     tmp.writeByte(first);//bFirstEntry
                     tmp.writeByte(last - first + 1);//bNumEntries
                     tmp.writeShort(0);//wFlags
@@ -420,7 +440,7 @@ public class AVIWriter extends AVIOutputStream implements MovieWriter {
                     BYTE peFlags;
                     } PALETTEENTRY;
                      */
-                    tmp = new ByteArrayImageOutputStream(ByteOrder.LITTLE_ENDIAN);
+                    tmp = new ByteArrayImageOutputStream(ByteArrayPool.getInstance(), 4 + 256 * 4, ByteOrder.LITTLE_ENDIAN);
                     tmp.writeByte(first);//bFirstEntry
                     tmp.writeByte(last - first + 1);//bNumEntries
                     tmp.writeShort(0);//wFlags
@@ -436,8 +456,12 @@ public class AVIWriter extends AVIOutputStream implements MovieWriter {
             }
         }
         if (tmp != null) {
-            tmp.close();
-            writePalette(track, tmp.toByteArray(), 0, (int) tmp.length(), isKeyframe);
+            try {
+                tmp.close();
+                writePalette(track, tmp.getBuffer(), 0, (int) tmp.length(), isKeyframe);
+            } finally {
+                ByteArrayPool.getInstance().release(tmp.getBuffer());
+            }
         }
         return paletteChange;
     }
@@ -14,7 +14,9 @@ import java.awt.Dimension;
 import java.awt.image.IndexColorModel;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import javax.imageio.stream.ImageOutputStream;
@@ -76,6 +78,12 @@ public abstract class AbstractAVIStream {
      * when it was passed to the constructor.
      */
     protected long streamOffset;
+    /** The file channel of the underlying output stream, or null if the
+     * output stream does not write into a file. If this is not null,
+     * the position of the channel must always be the position of the
+     * output stream.
+     */
+    protected FileChannel channel;
 
     /**
      * Supported media types.
@@ -1331,6 +1339,86 @@ public abstract class AbstractAVIStream {
         }
     }
 
+    /**
+     * A DataChunk which is completely written when it is created. The data
+     * is taken from a sequence of buffers.
+     * <p>
+     * If the underlying stream writes into a file channel, the chunk header,
+     * the data and the pad byte are written with a single gathering write on
+     * the channel.
+     */
+    protected class GatheringDataChunk extends Chunk {
+
+        protected long dataSize;
+
+        /**
+         * Writes a new DataChunk at the current position of the
+         * ImageOutputStream. The positions of the buffers are not changed.
+         * @param chunkType The chunkType of the chunk.
+         * @param parts The data of the chunk.
+         */
+        public GatheringDataChunk(String chunkType, ByteBuffer... parts) throws IOException {
+            super(chunkType);
+            for (ByteBuffer part : parts) {
+                dataSize += part.remaining();
+            }
+            if (dataSize > 0xffffffffL - 8) {
+                throw new IOException("DataChunk \"" + chunkType + "\" is too large: " + dataSize);
+            }
+            ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(typeToInt(chunkType)).putInt((int) dataSize).flip();
+            boolean pad = dataSize % 2 == 1;
+
+            if (channel != null) {
+                ByteBuffer[] srcs = new ByteBuffer[parts.length + (pad ? 2 : 1)];
+                srcs[0] = header;
+                for (int i = 0; i < parts.length; i++) {
+                    srcs[i + 1] = parts[i].duplicate();
+                }
+                if (pad) {
+                    srcs[srcs.length - 1] = ByteBuffer.allocate(1);
+                }
+                long end = out.getStreamPosition() + 8 + dataSize + (pad ? 1 : 0);
+                channel.position(out.getStreamPosition());
+                while (channel.position() < end) {
+                    channel.write(srcs);
+                }
+                out.seek(end);
+            } else {
+                out.write(header.array(), 0, 8);
+                byte[] buf = null;
+                for (ByteBuffer part : parts) {
+                    if (part.hasArray()) {
+                        out.write(part.array(), part.arrayOffset() + part.position(), part.remaining());
+                    } else {
+                        ByteBuffer src = part.duplicate();
+                        if (buf == null) {
+                            buf = new byte[(int) Math.min(8192, dataSize)];
+                        }
+                        while (src.hasRemaining()) {
+                            int len = Math.min(buf.length, src.remaining());
+                            src.get(buf, 0, len);
+                            out.write(buf, 0, len);
+                        }
+                    }
+                }
+                if (pad) {
+                    out.writeByte(0); // write pad byte
+                }
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // the chunk has been written by the constructor
+        }
+
+        @Override
+        public long size() {
+            return 8 + dataSize;
+        }
+    }
+
     /**
      * A DataChunk with a fixed size.
      */
@@ -29,11 +29,53 @@ import javax.imageio.stream.ImageOutputStream;
 public abstract class AbstractVideoCodec extends AbstractCodec {
 
     private BufferedImage imgConverter;
+    /** The output array, which this codec has acquired from the
+     * {@link ByteArrayPool} and handed out in {@code Buffer.data}. */
+    private byte[] pooledOutput;
 
     public AbstractVideoCodec(Format[] supportedInputFormats, Format[] supportedOutputFormats) {
         super(supportedInputFormats, supportedOutputFormats);
     }
 
+    /** Takes the output array of the buffer for reuse, and sets the data of
+     * the buffer to null.
+     * <p>
+     * The array is only reused if this codec has acquired it from the pool
+     * and handed it out with {@link #putPooledOutput}. An array which belongs
+     * to the caller must never end up in the pool. In this case, and if the
+     * buffer holds no array, an array with at least the specified length is
+     * acquired from the pool.
+     */
+    protected byte[] takePooledOutput(Buffer out, int minLength) {
+        byte[] b = pooledOutput != null && out.data == pooledOutput
+                ? pooledOutput : ByteArrayPool.getInstance().acquire(minLength);
+        out.data = null;
+        pooledOutput = null;
+        return b;
+    }
+
+    /** Hands an array, which has been acquired from the pool, out as the
+     * data of the buffer. */
+    protected void putPooledOutput(Buffer out, byte[] b) {
+        out.data = pooledOutput = b;
+    }
+
+    /** Hands the output array, which this codec has acquired from the pool,
+     * back to the pool. Does nothing if the codec does not hold such an
+     * array. If the buffer holds the array, its data is set to null.
+     *
+     * @param out The output buffer of the codec, or null.
+     */
+    public void releasePooledOutput(Buffer out) {
+        if (pooledOutput != null) {
+            if (out != null && out.data == pooledOutput) {
+                out.data = null;
+            }
+            ByteArrayPool.getInstance().release(pooledOutput);
+            pooledOutput = null;
+        }
+    }
+
     /** Gets 8-bit indexed pixels from a buffer. Returns null if conversion failed. */
     protected byte[] getIndexed8(Buffer buf) {
         if (buf.data instanceof byte[]) {
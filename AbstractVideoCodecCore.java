@@ -31,6 +31,10 @@ public class AbstractVideoCodecCore {
     }
 
     protected void writeInt24LE(ImageOutputStream out, int v) throws IOException {
+        if (out instanceof ByteBufferImageOutputStream) {
+            ((ByteBufferImageOutputStream) out).writeInt24LE(v);
+            return;
+        }
         byteBuf[2] = (byte) (v >>> 16);
         byteBuf[1] = (byte) (v >>> 8);
         byteBuf[0] = (byte) (v >>> 0);
@@ -41,6 +45,10 @@ public class AbstractVideoCodecCore {
         if (off < 0 || len < 0 || off + len > i.length || off + len < 0) {
             throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > i.length!");
         }
+        if (out instanceof ByteBufferImageOutputStream) {
+            ((ByteBufferImageOutputStream) out).writeInts24(i, off, len);
+            return;
+        }
 
         byte[] b = byteBuf;
         for (int j = 0; j < len; j++) {
@@ -58,6 +66,10 @@ public class AbstractVideoCodecCore {
         if (off < 0 || len < 0 || off + len > i.length || off + len < 0) {
             throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > i.length!");
         }
+        if (out instanceof ByteBufferImageOutputStream) {
+            ((ByteBufferImageOutputStream) out).writeInts24LE(i, off, len);
+            return;
+        }
 
         byte[] b = byteBuf;
         for (int j = 0; j < len; j++) {
@@ -74,6 +86,10 @@ public class AbstractVideoCodecCore {
         if (off < 0 || len < 0 || off + len > i.length || off + len < 0) {
             throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > i.length!, off=" + off + ", len=" + len);
         }
+        if (in instanceof ByteBufferImageInputStream) {
+            ((ByteBufferImageInputStream) in).readInts24LE(i, off, len);
+            return;
+        }
 
         byte[] b = byteBuf;
         for (int j = off, end = off + len; j < end; j++) {
@@ -85,6 +101,9 @@ public class AbstractVideoCodecCore {
     }
 
     protected int readInt24LE(ImageInputStream in) throws IOException {
+        if (in instanceof ByteBufferImageInputStream) {
+            return ((ByteBufferImageInputStream) in).readInt24LE();
+        }
         in.readFully(byteBuf, 0, 3);
         return ((byteBuf[2] & 0xff) << 16) | ((byteBuf[1] & 0xff) << 8) | ((byteBuf[0] & 0xff) << 0);
     }
@@ -152,7 +152,7 @@ import static java.lang.Math.*;
 public class AnimationCodec extends AbstractVideoCodec {
 
     private Object previousPixels;
-    private int frameCounter;
+    private KeyFramePolicy keyFramePolicy;
 
     public AnimationCodec() {
         super(new Format[]{
@@ -182,7 +182,21 @@ public class AnimationCodec extends AbstractVideoCodec {
     
     @Override
     public void reset() {
-        frameCounter = 0;
+        if (keyFramePolicy != null) {
+            keyFramePolicy.reset();
+        }
+    }
+
+    /** Returns the key frame policy of the encoder. Returns null if the
+     * encoder has not encoded a frame yet and no policy has been set. */
+    public KeyFramePolicy getKeyFramePolicy() {
+        return keyFramePolicy;
+    }
+
+    /** Sets the key frame policy of the encoder. If no policy is set, the
+     * encoder creates one with {@link KeyFramePolicy#forFormat}. */
+    public void setKeyFramePolicy(KeyFramePolicy newValue) {
+        this.keyFramePolicy = newValue;
     }
 
     @Override
@@ -215,9 +229,11 @@ public class AnimationCodec extends AbstractVideoCodec {
             r = new Rectangle(0, 0, vf.get(VideoFormatKeys.WidthKey), vf.get(VideoFormatKeys.HeightKey));
             scanlineStride = vf.get(VideoFormatKeys.WidthKey);
         }
-        boolean isKeyframe = frameCounter== 0
-                || frameCounter % outputFormat.get(VideoFormatKeys.KeyFrameIntervalKey,outputFormat.get(VideoFormatKeys.FrameRateKey).intValue()) == 0;
-        frameCounter++;
+        int offset = r.x + r.y * scanlineStride;
+        if (keyFramePolicy == null) {
+            keyFramePolicy = KeyFramePolicy.forFormat(outputFormat);
+        }
+        boolean isKeyframe = keyFramePolicy.isKeyFrameRequired();
 
         try {
             switch (vf.get(VideoFormatKeys.DepthKey)) {
@@ -228,14 +244,17 @@ public class AnimationCodec extends AbstractVideoCodec {
                         //throw new UnsupportedOperationException("Unable to process buffer " + in);
                     }
 
-                    if (isKeyframe ||//
-                            previousPixels == null) {
-
-                        encodeKey8(tmp, pixels, r.width, r.height, r.x + r.y * scanlineStride, scanlineStride);
-                        out.setFlag(BufferFlag.KEYFRAME, true);
-                    } else {
-                        encodeDelta8(tmp, pixels, (byte[]) previousPixels, r.width, r.height, r.x + r.y * scanlineStride, scanlineStride);
-                        out.setFlag(BufferFlag.KEYFRAME, false);
+                    isKeyframe = isKeyframe || previousPixels == null
+                            || keyFramePolicy.isSceneChange(pixels, (byte[]) previousPixels, r.width, r.height, offset, scanlineStride);
+                    if (!isKeyframe) {
+                        encodeDelta8(tmp, pixels, (byte[]) previousPixels, r.width, r.height, offset, scanlineStride);
+                        if (keyFramePolicy.isDeltaTooLarge(tmp.getStreamPosition())) {
+                            tmp.clear();
+                            isKeyframe = true;
+                        }
+                    }
+                    if (isKeyframe) {
+                        encodeKey8(tmp, pixels, r.width, r.height, offset, scanlineStride);
                     }
                     if (previousPixels == null) {
                         previousPixels = pixels.clone();
@@ -252,13 +271,14 @@ public class AnimationCodec extends AbstractVideoCodec {
                     }
 
                     // FIXME - Support sub-images
-                    if (isKeyframe//
-                            || previousPixels == null) {
-                        encodeKey16(tmp, pixels, r.width, r.height, r.x + r.y * scanlineStride, scanlineStride);
-                        out.setFlag(BufferFlag.KEYFRAME, true);
-                    } else {
-                        encodeDelta16(tmp, pixels, (short[]) previousPixels, r.width, r.height, r.x + r.y * scanlineStride, scanlineStride);
-                        out.setFlag(BufferFlag.KEYFRAME, false);
+                    isKeyframe = isKeyframe || previousPixels == null
+                            || keyFramePolicy.isSceneChange(pixels, (short[]) previousPixels, r.width, r.height, offset, scanlineStride);
+                    if (!isKeyframe) {
+                        encodeDelta16(tmp, pixels, (short[]) previousPixels, r.width, r.height, offset, scanlineStride);
+                        if (keyFramePolicy.isDeltaTooLarge(tmp.getStreamPosition())) {
+                            tmp.clear();
+                            isKeyframe = true;
+                        }
 
                         /*
                         if (test == null) {
@@ -270,6 +290,9 @@ public class AnimationCodec extends AbstractVideoCodec {
                         test, (short[]) previousPixels, r.width, r.height, r.x + r.y * scanlineStride, scanlineStride);
                          */
                     }
+                    if (isKeyframe) {
+                        encodeKey16(tmp, pixels, r.width, r.height, offset, scanlineStride);
+                    }
                     if (previousPixels == null) {
                         previousPixels = pixels.clone();
                     } else {
@@ -285,13 +308,17 @@ public class AnimationCodec extends AbstractVideoCodec {
                     }
 
                     // FIXME - Support sub-images
-                    if (isKeyframe //
-                            || previousPixels == null) {
-                        encodeKey24(tmp, pixels, r.width, r.height, r.x + r.y * scanlineStride, scanlineStride);
-                        out.setFlag(BufferFlag.KEYFRAME, true);
-                    } else {
-                        encodeDelta24(tmp, pixels, (int[]) previousPixels, r.width, r.height, r.x + r.y * scanlineStride, scanlineStride);
-                        out.setFlag(BufferFlag.KEYFRAME, false);
+                    isKeyframe = isKeyframe || previousPixels == null
+                            || keyFramePolicy.isSceneChange(pixels, (int[]) previousPixels, r.width, r.height, offset, scanlineStride);
+                    if (!isKeyframe) {
+                        encodeDelta24(tmp, pixels, (int[]) previousPixels, r.width, r.height, offset, scanlineStride);
+                        if (keyFramePolicy.isDeltaTooLarge(tmp.getStreamPosition())) {
+                            tmp.clear();
+                            isKeyframe = true;
+                        }
+                    }
+                    if (isKeyframe) {
+                        encodeKey24(tmp, pixels, r.width, r.height, offset, scanlineStride);
                     }
                     if (previousPixels == null) {
                         previousPixels = pixels.clone();
@@ -309,13 +336,17 @@ public class AnimationCodec extends AbstractVideoCodec {
                     }
 
                     // FIXME - Support sub-images
-                    if (in.isFlag(BufferFlag.KEYFRAME) //
-                            || previousPixels == null) {
-                        encodeKey32(tmp, pixels, r.width, r.height, r.x + r.y * scanlineStride, scanlineStride);
-                        out.setFlag(BufferFlag.KEYFRAME, true);
-                    } else {
-                        encodeDelta32(tmp, pixels, (int[]) previousPixels, r.width, r.height, r.x + r.y * scanlineStride, scanlineStride);
-                        out.setFlag(BufferFlag.KEYFRAME, false);
+                    isKeyframe = isKeyframe || previousPixels == null
+                            || keyFramePolicy.isSceneChange(pixels, (int[]) previousPixels, r.width, r.height, offset, scanlineStride);
+                    if (!isKeyframe) {
+                        encodeDelta32(tmp, pixels, (int[]) previousPixels, r.width, r.height, offset, scanlineStride);
+                        if (keyFramePolicy.isDeltaTooLarge(tmp.getStreamPosition())) {
+                            tmp.clear();
+                            isKeyframe = true;
+                        }
+                    }
+                    if (isKeyframe) {
+                        encodeKey32(tmp, pixels, r.width, r.height, offset, scanlineStride);
                     }
                     if (previousPixels == null) {
                         previousPixels = pixels.clone();
@@ -330,6 +361,8 @@ public class AnimationCodec extends AbstractVideoCodec {
                 }
 
             }
+            keyFramePolicy.frameEncoded(isKeyframe, tmp.getStreamPosition());
+            out.setFlag(BufferFlag.KEYFRAME, isKeyframe);
             out.format = outputFormat;
             out.data = tmp.getBuffer();
             out.sampleCount = 1;
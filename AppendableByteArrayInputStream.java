@@ -1,5 +1,5 @@
 /*
- * @(#)AppendableByteArrayInputStream.java  1.0  2011-08-28
+ * @(#)AppendableByteArrayInputStream.java  1.1  2026-10-19
  * 
  * Copyright (c) 2011 Werner Randelshofer, Immensee, Switzerland.
  * All rights reserved.
@@ -9,55 +9,158 @@
  * For details see accompanying license terms.
  */ 
 
-import java.io.ByteArrayInputStream;
-import java.util.zip.Adler32;
+import java.io.InputStream;
+
 /**
- * A {@code ByteArrayInputStream} which allows to replace the byte buffer underneath.
+ * An input stream which reads from a circular byte buffer, to which new data
+ * can be appended while the stream is being read.
+ * <p>
+ * Appending data never moves the unread data in the buffer. The buffer
+ * only grows if the unread data and the new data do not fit into it. It
+ * grows geometrically, so that a streaming decoder reaches a steady state
+ * in which no arrays are allocated anymore. Bulk reads copy the data with at
+ * most two {@code System.arraycopy} calls, one for each side of the wrap
+ * around point.
+ * <p>
+ * Data which has already been read is retained until it is discarded by
+ * {@link #appendBuffer} or by {@link #mark}, so that the stream can be
+ * {@link #reset} to it.
+ * <p>
+ * The methods of this class are not synchronized. A stream is intended to be
+ * used by a single decoder.
  *
  * @author Werner Randelshofer
- * @version 1.0 2011-08-28 Created.
+ * @version 1.1 2026-10-19 Reimplemented as a circular buffer.
+ * <br>1.0 2011-08-28 Created.
  */
-public class AppendableByteArrayInputStream extends ByteArrayInputStream {
+public class AppendableByteArrayInputStream extends InputStream {
+
+    /** The circular buffer. Its length is a power of two. */
+    private byte[] buf;
+    /** {@code buf.length - 1}. */
+    private int mask;
+    /** Index of the next byte to be read. */
+    private int head;
+    /** Number of bytes which have not been read yet. */
+    private int size;
+    /** Number of bytes before {@code head} which have already been read,
+     * but which are retained for {@link #reset}. */
+    private int retained;
 
     public AppendableByteArrayInputStream(byte[] buf, int offset, int length) {
-        super(buf, offset, length);
-        //  System.out.println("AppendableByteArrayInputStream   pos="+pos+" count="+count);
+        this.buf = new byte[capacityFor(length)];
+        this.mask = this.buf.length - 1;
+        System.arraycopy(buf, offset, this.buf, 0, length);
+        this.size = length;
     }
 
     public AppendableByteArrayInputStream(byte[] buf) {
-        super(buf);
-        // System.out.println("AppendableByteArrayInputStream   pos="+pos+" count="+count);
+        this(buf, 0, buf.length);
+    }
+
+    /** Returns the smallest power of two which is at least
+     * {@code max(32, n)}. */
+    private static int capacityFor(int n) {
+        int c = 32;
+        while (c < n) {
+            c <<= 1;
+        }
+        return c;
     }
 
     @Override
-    public synchronized int read() {
-        int b = super.read();
-        /*
-        if (b!=-1) {
-        String hex="0"+Integer.toHexString(b);
-        System.out.println(hex.substring(hex.length()-2));
-        }*/
+    public int read() {
+        if (size == 0) {
+            return -1;
+        }
+        int b = buf[head] & 0xff;
+        head = (head + 1) & mask;
+        size--;
+        retained++;
         return b;
     }
 
     @Override
-    public synchronized int read(byte[] b, int off, int len) {
-        // System.out.println("AppendableByteArrayInputStream.read...   pos="+pos+" count="+count);
-        int count = super.read(b, off, len);
-        /*
-        if (count>0) {
-        for (int i=0;i<count;i++) {
-        if (i%16==15) System.out.println();
-        String hex="0"+Integer.toHexString(b[i]);
-        System.out.print(hex.substring(hex.length()-2));
+    public int read(byte[] b, int off, int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (size == 0) {
+            return len == 0 ? 0 : -1;
+        }
+        int n = Math.min(len, size);
+        int first = Math.min(n, buf.length - head);
+        System.arraycopy(buf, head, b, off, first);
+        if (n > first) {
+            // => the data wraps around the end of the buffer
+            System.arraycopy(buf, 0, b, off + first, n - first);
+        }
+        head = (head + n) & mask;
+        size -= n;
+        retained += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        if (n <= 0) {
+            return 0;
         }
-        System.out.println("   pos="+pos+" count="+this.count);
-        }*/
-        return count;
+        int k = (int) Math.min(n, size);
+        head = (head + k) & mask;
+        size -= k;
+        retained += k;
+        return k;
     }
 
-    /** Appends new data to the buffer. 
-     * 
+    @Override
+    public int available() {
+        return size;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /** Marks the current position. The data which has been read so far is
+     * discarded. */
+    @Override
+    public void mark(int readlimit) {
+        retained = 0;
+    }
+
+    /** Moves the stream position back to the mark, or to the oldest retained
+     * byte, if no mark has been set since data was last discarded. */
+    @Override
+    public void reset() {
+        head = (head - retained) & mask;
+        size += retained;
+        retained = 0;
+    }
+
+    /** Ensures that the buffer can hold the specified number of retained and
+     * unread bytes. The retained and unread bytes are moved to the start of
+     * the new buffer. */
+    private void ensureCapacity(int n) {
+        if (n <= buf.length) {
+            return;
+        }
+        byte[] newBuf = new byte[Math.max(buf.length << 1, capacityFor(n))];
+        int start = (head - retained) & mask;
+        int total = retained + size;
+        int first = Math.min(total, buf.length - start);
+        System.arraycopy(buf, start, newBuf, 0, first);
+        System.arraycopy(buf, 0, newBuf, first, total - first);
+        buf = newBuf;
+        mask = buf.length - 1;
+        head = retained;
+    }
+
+    /** Appends new data to the buffer.
+     *
      * @param buf Data.
      * @param offset Offset in the data.
      * @param length Length of the data.
@@ -65,66 +168,34 @@ public class AppendableByteArrayInputStream extends ByteArrayInputStream {
      */
     public void appendBuffer(byte[] buf, int offset, int length, boolean discard) {
         if (discard) {
-            if (this.buf.length >= count - pos + length) {
-                // => the buffer has enough space for the existing data and the new data
-                System.arraycopy(this.buf, pos, this.buf, 0, count - pos);
-                System.arraycopy(buf, offset, this.buf, count - pos, length);
-                this.count = count - pos + length;
-                this.pos = 0;
-                this.mark = 0;
-            } else {
-                // => the buffer does not have enough space for the new data
-                byte[] newBuf = new byte[(count - pos + length + 31) / 32 * 32];
-                System.arraycopy(this.buf, pos, newBuf, 0, count - pos);
-                System.arraycopy(buf, offset, newBuf, count - pos, length);
-                this.buf = newBuf;
-                this.count = count - pos + length;
-                this.pos = 0;
-                this.mark = 0;
-            }
-        } else {
-            if (this.buf.length >= count + length) {
-                // => the buffer has enough space for the existing data and the new data
-                System.arraycopy(buf, offset, this.buf, count, length);
-                this.count = count + length;
-            } else {
-                // => the buffer does not have enough space for the new data
-                byte[] newBuf = new byte[(this.buf.length + length + 31) / 32 * 32];
-                System.arraycopy(this.buf, 0, newBuf, 0, count);
-                System.arraycopy(buf, offset, newBuf, count, length);
-                this.buf = newBuf;
-                this.count = count + length;
-            }
+            retained = 0;
         }
-
-        //System.out.println("AppendableByteArrayInputStream.appendBuffer   pos="+pos+" count="+count);
+        ensureCapacity(retained + size + length);
+        int tail = (head + size) & mask;
+        int first = Math.min(length, this.buf.length - tail);
+        System.arraycopy(buf, offset, this.buf, tail, first);
+        if (length > first) {
+            // => the new data wraps around the end of the buffer
+            System.arraycopy(buf, offset + first, this.buf, 0, length - first);
+        }
+        size += length;
     }
 
-    /** Sets the buffer and resets the stream. 
+    /** Sets the buffer and resets the stream.
      * This will overwrite the data array in the buffer, if it is large enough.
      * Otherwise it will create a new data array and copy the data into it.
-     * 
+     *
      * @param buf Data.
      * @param offset Offset in the data.
      * @param length Length of the data.
      */
     public void setBuffer(byte[] buf, int offset, int length) {
-        if (this.buf.length >= length) {
-            // => the buffer has enough space for the existing data and the new data
-            System.arraycopy(buf, offset, this.buf, 0, length);
-            this.count = length;
-            this.pos = 0;
-            this.mark = 0;
-        } else {
-            // => the buffer may not be overwritten or does not have enough space for the new data
-            this.buf = null;
-            this.buf = new byte[(length + 31) & ~31];
-            System.arraycopy(buf, offset, this.buf, 0, length);
-            this.count = length;
-            this.pos = 0;
-            this.mark = 0;
-
-        }
+        head = 0;
+        size = 0;
+        retained = 0;
+        ensureCapacity(length);
+        System.arraycopy(buf, offset, this.buf, 0, length);
+        size = length;
     }
 
     public static void main(String[] args) {
@@ -1,5 +1,5 @@
 /*
- * @(#)BitmapImage.java  1.5  2011-01-05
+ * @(#)BitmapImage.java  1.10  2026-10-19
  *
  * Copyright (c) 2004-2011 Werner Randelshofer, Immensee, Switzerland.
  * All rights reserved.
@@ -9,12 +9,15 @@
  * For details see accompanying license terms.
  */
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.DataBufferByte;
 import java.awt.image.IndexColorModel;
 import java.awt.image.DirectColorModel;
 import java.awt.image.Raster;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.zip.Adler32;
 import javax.swing.JFrame;
 
@@ -82,7 +85,18 @@ import javax.swing.JFrame;
  * Supports indexed color model, direct color model, 6 and 8 bit HAM color model.
  *
  * @author  Werner Randelshofer, Hausmatt 10, CH-6405 Immensee, Switzerland
- * @version 1.5 2011-01-05 Adds support for RGB555.
+ * @version 1.10 2026-10-19 Decodes HAM6 and HAM8 with the decode tables
+ * of HAMColorModel.
+ * <br>1.9 2026-10-19 Converts chunky pixels of all depths up to 8
+ * into bitplanes, and converts from byte and int pixel arrays.
+ * <br>1.8 2026-10-19 Tracks dirty regions of the bitmap, and
+ * converts only the dirty regions into chunky pixels, if requested.
+ * <br>1.7 2026-10-19 Converts bands of scanlines in parallel, if
+ * requested. Fixed direct and HAM conversion of areas, which do not start
+ * at a byte boundary.
+ * <br>1.6 2026-10-19 Converts index planes with depths up to 8 into
+ * chunky pixels through a bit transpose table.
+ * <br>1.5 2011-01-05 Adds support for RGB555.
  * <br>1.4 2011-01-03 Adds method setIntPixels().
  * <br>1.3 2010-10-25 Removed suffixes in instance variable names.
  * <br>1.2.1 2005-07-16 Setting a preferredColorModel is now better
@@ -150,6 +164,54 @@ public class BitmapImage
      * chunky pixels using a DirectColorModel.
      */
     private boolean enforceDirectColors_ = false;
+    /**
+     * If this boolean is set to true, then the conversions between planar
+     * and chunky data are split into bands of scanlines, which are converted
+     * in parallel.
+     */
+    private boolean parallel;
+    /** The pool for parallel conversions. */
+    private static ForkJoinPool pool;
+    /** A band of a parallel conversion holds at least this number of pixels. */
+    private final static int MIN_BAND_PIXELS = 32 * 1024;
+    /** The source of the chunky pixels for convertFromChunky. This is a
+     * byte array or an int array. If this is null, the source is bytePixels. */
+    private Object planesSource;
+    /** The index of the first pixel in planesSource. */
+    private int planesSourceOffset;
+    /** The number of array elements between two scanlines in planesSource. */
+    private int planesSourceStride;
+    /** Tags for the conversion routines. */
+    private final static int INDEX_TO_INDEX = 0;
+    private final static int INDEX_TO_DIRECT = 1;
+    private final static int INDEX_TO_555 = 2;
+    private final static int DIRECT_TO_DIRECT = 3;
+    private final static int DIRECT_TO_555 = 4;
+    private final static int HAM_TO_DIRECT = 5;
+    private final static int INDEX_TO_PLANES = 7;
+    /** Tag for no change tracking. convertToChunky() always converts the
+     * whole bitmap. */
+    public final static int TRACK_NONE = 0;
+    /** Tag for tracking of the regions marked with markDirty(). */
+    public final static int TRACK_MARKED = 1;
+    /** Tag for tracking of the regions marked with markDirty() and of
+     * the writes into the bitmap data array. */
+    public final static int TRACK_WRITES = 2;
+    /** The change tracking mode. */
+    private int changeTracking = TRACK_NONE;
+    /** Indicates that the pixel data matches the bitmap outside of the dirty
+     * region, and that the pixel data can be updated incrementally. */
+    private boolean pixelsValid;
+    /** The dirty region of the bitmap. The region is empty if
+     * dirtyBottom is smaller than dirtyTop. */
+    private int dirtyTop, dirtyLeft, dirtyBottom = -1, dirtyRight = -1;
+    /** The region of the pixel data, which was updated by the last
+     * conversion. The region is empty if changedBottom is smaller than
+     * changedTop. */
+    private int changedTop, changedLeft, changedBottom = -1, changedRight = -1;
+    /** A copy of the bitmap data at the last conversion. Is only used by
+     * TRACK_WRITES. */
+    private byte[] shadowBitmap;
 
     /**
      * If you set this to true, then convertToChunky always generates
@@ -157,6 +219,7 @@ public class BitmapImage
      */
     public void setEnforceDirectColors(boolean b) {
         enforceDirectColors_ = b;
+        pixelsValid = false;
     }
 
     /**
@@ -167,6 +230,131 @@ public class BitmapImage
         return enforceDirectColors_;
     }
 
+    /**
+     * If you set this to true, then convertToChunky and convertFromChunky
+     * split the image into bands of scanlines, and convert the bands in
+     * parallel on a fork-join pool. Small images are always converted on
+     * the calling thread.
+     */
+    public void setParallel(boolean b) {
+        parallel = b;
+    }
+
+    /**
+     * If this returns true, then convertToChunky and convertFromChunky
+     * convert bands of scanlines in parallel.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets the change tracking mode.
+     * <p>
+     * With TRACK_NONE, convertToChunky() converts the whole bitmap.
+     * With TRACK_MARKED, convertToChunky() only converts the regions,
+     * which have been marked with markDirty() since the previous conversion.
+     * With TRACK_WRITES, convertToChunky() in addition converts the regions,
+     * in which the bitmap data array has been changed since the previous
+     * conversion. The changes are found by comparing the bitmap with a
+     * copy of it, which doubles the memory used by the bitmap.
+     * <p>
+     * In either mode, convertToChunky() converts the whole bitmap when
+     * the pixel data can not be reused.
+     *
+     * @param mode TRACK_NONE, TRACK_MARKED or TRACK_WRITES.
+     */
+    public void setChangeTracking(int mode) {
+        if (mode < TRACK_NONE || mode > TRACK_WRITES) {
+            throw new IllegalArgumentException("Illegal change tracking mode:" + mode);
+        }
+        if (mode != changeTracking) {
+            changeTracking = mode;
+            shadowBitmap = null;
+            pixelsValid = false;
+        }
+    }
+
+    /** Returns the change tracking mode. */
+    public int getChangeTracking() {
+        return changeTracking;
+    }
+
+    /**
+     * Marks the indicated area of the bitmap as dirty. The area is
+     * converted at the next call to convertToChunky().
+     */
+    public void markDirty(int top, int left, int bottom, int right) {
+        top = Math.max(0, top);
+        left = Math.max(0, left);
+        bottom = Math.min(getHeight() - 1, bottom);
+        right = Math.min(getWidth() - 1, right);
+        if (top > bottom || left > right) {
+            return;
+        }
+        if (dirtyBottom < dirtyTop) {
+            dirtyTop = top;
+            dirtyLeft = left;
+            dirtyBottom = bottom;
+            dirtyRight = right;
+        } else {
+            dirtyTop = Math.min(dirtyTop, top);
+            dirtyLeft = Math.min(dirtyLeft, left);
+            dirtyBottom = Math.max(dirtyBottom, bottom);
+            dirtyRight = Math.max(dirtyRight, right);
+        }
+    }
+
+    /** Marks the whole bitmap as dirty. */
+    public void markDirty() {
+        markDirty(0, 0, getHeight() - 1, getWidth() - 1);
+    }
+
+    /**
+     * Returns the region of the pixel data, which has been updated by the
+     * last conversion into chunky pixels. Consumers of the pixel data only
+     * need to refresh this region. Returns an empty rectangle if no pixels
+     * have been updated.
+     */
+    public Rectangle getChangedRegion() {
+        if (changedBottom < changedTop) {
+            return new Rectangle();
+        }
+        return new Rectangle(changedLeft, changedTop, changedRight - changedLeft + 1, changedBottom - changedTop + 1);
+    }
+
+    /**
+     * Compares the bitmap with the shadow bitmap, marks the changed
+     * regions as dirty, and updates the shadow bitmap.
+     */
+    private void markBitmapChanges() {
+        final byte[] bitmap = this.bitmap;
+        final byte[] shadow = shadowBitmap;
+        final int rowBytes = (getWidth() + 7) >>> 3;
+        for (int y = 0, iScanline = 0; y < height; y++, iScanline += scanlineStride) {
+            int first = rowBytes, last = -1;
+            for (int plane = 0, iRow = iScanline; plane < depth; plane++, iRow += bitplaneStride) {
+                int i = 0;
+                while (i < rowBytes && bitmap[iRow + i] == shadow[iRow + i]) {
+                    i++;
+                }
+                if (i == rowBytes) {
+                    continue;
+                }
+                int j = rowBytes - 1;
+                while (bitmap[iRow + j] == shadow[iRow + j]) {
+                    j--;
+                }
+                System.arraycopy(bitmap, iRow + i, shadow, iRow + i, j - i + 1);
+                first = Math.min(first, i);
+                last = Math.max(last, j);
+            }
+            if (last != -1) {
+                markDirty(y, first << 3, y, (last << 3) + 7);
+            }
+        }
+    }
+
     /**
      * Construct an interleaved bitmap with the specified size,
      * depth and color model.
@@ -357,6 +545,7 @@ public class BitmapImage
      */
     public void setPlanarColorModel(ColorModel colorModel) {
         planarColorModel = colorModel;
+        pixelsValid = false;
     }
 
     /**
@@ -387,6 +576,7 @@ public class BitmapImage
      */
     public void setPreferredChunkyColorModel(ColorModel colorModel) {
         preferredChunkyColorModel_ = colorModel;
+        pixelsValid = false;
     }
 
     /**
@@ -533,6 +723,9 @@ public class BitmapImage
         try {
             BitmapImage theClone = (BitmapImage) super.clone();
             theClone.bitmap = (byte[]) bitmap.clone();
+            if (shadowBitmap != null) {
+                theClone.shadowBitmap = (byte[]) shadowBitmap.clone();
+            }
             if (getPixelType() == BYTE_PIXEL) {
                 theClone.bytePixels = (byte[]) bytePixels.clone();
             }
@@ -555,6 +748,10 @@ public class BitmapImage
      * method will be reused when the image dimension and the color
      * model allows for it.
      * <p>
+     * If change tracking is enabled and the pixel array can be reused, only
+     * the dirty region of the bitmap is converted. The converted region is
+     * returned by getChangedRegion().
+     * <p>
      * Pre condition: -
      * <p>
      * Post condition: Chunky pixels generated.
@@ -564,7 +761,30 @@ public class BitmapImage
      * @return The type of generated pixel data.
      */
     public int convertToChunky() {
-        return convertToChunky(0, 0, getHeight() - 1, getWidth() - 1);
+        if (changeTracking == TRACK_NONE || !pixelsValid) {
+            if (changeTracking == TRACK_WRITES) {
+                shadowBitmap = bitmap.clone();
+            }
+            dirtyBottom = dirtyTop - 1;
+            convertToChunky(0, 0, getHeight() - 1, getWidth() - 1);
+            pixelsValid = true;
+            return pixelType;
+        }
+
+        if (changeTracking == TRACK_WRITES) {
+            markBitmapChanges();
+        }
+        if (dirtyBottom < dirtyTop) {
+            changedBottom = changedTop - 1;
+            return pixelType;
+        }
+
+        // A HAM pixel depends on the pixels to its left in the scanline
+        int right = (planarColorModel instanceof HAMColorModel) ? getWidth() - 1 : dirtyRight;
+        int top = dirtyTop, left = dirtyLeft, bottom = dirtyBottom;
+        dirtyBottom = dirtyTop - 1;
+        convertToChunky(top, left, bottom, right);
+        return pixelType;
     }
 
     /**
@@ -605,6 +825,10 @@ public class BitmapImage
         if (right > getWidth() - 1) {
             right = getWidth() - 1;
         }
+        changedTop = top;
+        changedLeft = left;
+        changedBottom = bottom;
+        changedRight = right;
 
         /* */
         if (planarColorModel instanceof HAMColorModel) {
@@ -612,12 +836,12 @@ public class BitmapImage
                 bytePixels = null;
                 shortPixels = null;
                 intPixels = new int[getWidth() * getHeight()];
+                pixelsValid = false;
             }
             currentChunkyColorModel_ = planarColorModel;
-            if (((HAMColorModel) planarColorModel).getHAMType() == HAMColorModel.HAM6) {
-                ham6PlanesToDirectPixels(top, left, bottom, right);
-            } else if (((HAMColorModel) planarColorModel).getHAMType() == HAMColorModel.HAM8) {
-                ham8PlanesToDirectPixels(top, left, bottom, right);
+            if (((HAMColorModel) planarColorModel).getHAMType() == HAMColorModel.HAM6
+                    || ((HAMColorModel) planarColorModel).getHAMType() == HAMColorModel.HAM8) {
+                convert(HAM_TO_DIRECT, top, left, bottom, right);
             } else {
                 throw new InternalError("unsupported ham model:" + planarColorModel);
             }
@@ -632,19 +856,21 @@ public class BitmapImage
                             intPixels = null;
                             shortPixels = null;
                             shortPixels = new short[getWidth() * getHeight()];
+                            pixelsValid = false;
                         }
                         currentChunkyColorModel_ =
                                 (preferredChunkyColorModel_ != null && (preferredChunkyColorModel_ instanceof DirectColorModel))
                                 ? preferredChunkyColorModel_
                                 : new DirectColorModel(16, 0x7c00, 0x3e0, 0x1f);
 
-                        indexPlanesTo555(top, left, bottom, right);
+                        convert(INDEX_TO_555, top, left, bottom, right);
                         pixelType = SHORT_PIXEL;
                     } else {
                         if (intPixels == null || intPixels.length != getWidth() * getHeight()) {
                             bytePixels = null;
                             shortPixels = null;
                             intPixels = new int[getWidth() * getHeight()];
+                            pixelsValid = false;
                         }
 
                         currentChunkyColorModel_ =
@@ -653,7 +879,7 @@ public class BitmapImage
                                 : ColorModel.getRGBdefault();
 
                         currentChunkyColorModel_ = new DirectColorModel(24, 0xff0000, 0xff00, 0xff);
-                        indexPlanesToDirectPixels(top, left, bottom, right);
+                        convert(INDEX_TO_DIRECT, top, left, bottom, right);
                         pixelType = INT_PIXEL;
                     }
                 } else {
@@ -661,9 +887,10 @@ public class BitmapImage
                         intPixels = null;
                         shortPixels = null;
                         bytePixels = new byte[getWidth() * getHeight()];
+                        pixelsValid = false;
                     }
                     currentChunkyColorModel_ = planarColorModel;
-                    indexPlanesToIndexPixels(top, left, bottom, right);
+                    convert(INDEX_TO_INDEX, top, left, bottom, right);
                     pixelType = BYTE_PIXEL;
                 }
             } else if (planarColorModel instanceof DirectColorModel) {
@@ -673,9 +900,10 @@ public class BitmapImage
                         intPixels = null;
                         shortPixels = null;
                         shortPixels = new short[getWidth() * getHeight()];
+                        pixelsValid = false;
                     }
                     currentChunkyColorModel_ = planarColorModel;
-                    directPlanesTo555(top, left, bottom, right);
+                    convert(DIRECT_TO_555, top, left, bottom, right);
                     pixelType = SHORT_PIXEL;
                 } else {
                     if (intPixels == null || intPixels.length != getWidth() * getHeight()) {
@@ -683,9 +911,10 @@ public class BitmapImage
                         shortPixels = null;
                         shortPixels = null;
                         intPixels = new int[getWidth() * getHeight()];
+                        pixelsValid = false;
                     }
                     currentChunkyColorModel_ = planarColorModel;
-                    directPlanesToDirectPixels(top, left, bottom, right);
+                    convert(DIRECT_TO_DIRECT, top, left, bottom, right);
                     pixelType = INT_PIXEL;
                 }
             } else {
@@ -716,6 +945,7 @@ public class BitmapImage
      * Obligation: -
      */
     public void convertFromChunky(BufferedImage image) {
+        pixelsValid = false;
         /* */
         if (planarColorModel instanceof HAMColorModel) {
 
@@ -744,7 +974,8 @@ public class BitmapImage
                     for (int y=0;y<height;y++) {
                         System.arraycopy(inb,dx+(y+dy)*inScanlineStride,bytePixels,y*width,width);
                     }
-                    indexPixelsToIndexPlanes(0, 0, getHeight() - 1, getWidth() - 1);
+                    planesSource = null;
+                    convert(INDEX_TO_PLANES, 0, 0, getHeight() - 1, getWidth() - 1);
                 } else {
                 
                 throw new UnsupportedOperationException("index color model not implemented:" + planarColorModel);
@@ -757,6 +988,49 @@ public class BitmapImage
         }
     }
 
+    /**
+     * Converts chunky index pixels into the bitmap data.
+     * <p>
+     * The values of the pixels are used as the color indices. The color
+     * model of the bitmap is not changed.
+     *
+     * @param pixels The index pixels.
+     * @param offset The index of the top left pixel in the array.
+     * @param scanlineStride The number of array elements between a pixel
+     * and the pixel in the same column of the next scanline.
+     */
+    public void convertFromChunky(byte[] pixels, int offset, int scanlineStride) {
+        convertFromChunky((Object) pixels, offset, scanlineStride);
+    }
+
+    /**
+     * Converts chunky index pixels into the bitmap data. Unlike
+     * with byte pixels, the depth of the bitmap can be larger than 8.
+     * <p>
+     * The values of the pixels are used as the color indices. The color
+     * model of the bitmap is not changed.
+     *
+     * @param pixels The index pixels.
+     * @param offset The index of the top left pixel in the array.
+     * @param scanlineStride The number of array elements between a pixel
+     * and the pixel in the same column of the next scanline.
+     */
+    public void convertFromChunky(int[] pixels, int offset, int scanlineStride) {
+        convertFromChunky((Object) pixels, offset, scanlineStride);
+    }
+
+    private void convertFromChunky(Object pixels, int offset, int scanlineStride) {
+        pixelsValid = false;
+        planesSource = pixels;
+        planesSourceOffset = offset;
+        planesSourceStride = scanlineStride;
+        try {
+            convert(INDEX_TO_PLANES, 0, 0, getHeight() - 1, getWidth() - 1);
+        } finally {
+            planesSource = null;
+        }
+    }
+
     /**
      * Frees the memory allocated for the pixel data.
      *
@@ -771,11 +1045,156 @@ public class BitmapImage
      */
     public void flushPixels() {
         pixelType = NO_PIXEL;
+        pixelsValid = false;
         intPixels = null;
         shortPixels = null;
         bytePixels = null;
     }
 
+    /** Returns the shared pool for parallel conversions. */
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool();
+        }
+        return pool;
+    }
+
+    /**
+     * Converts the indicated area with the specified conversion routine.
+     * If parallel conversion is enabled, the area is split into bands of
+     * scanlines. The scanlines are independent of each other in all
+     * conversion routines, the HAM routines only carry state along a
+     * scanline.
+     */
+    private void convert(int routine, int top, int left, int bottom, int right) {
+        if (parallel && (long) (bottom - top + 1) * (right - left + 1) >= 2 * MIN_BAND_PIXELS
+                && top < bottom && Runtime.getRuntime().availableProcessors() > 1) {
+            getPool().invoke(new BandTask(routine, top, left, bottom, right));
+        } else {
+            convertBand(routine, top, left, bottom, right);
+        }
+    }
+
+    /** Converts a band of scanlines with the specified conversion routine. */
+    private void convertBand(int routine, int top, int left, int bottom, int right) {
+        switch (routine) {
+            case INDEX_TO_INDEX:
+                indexPlanesToIndexPixels(top, left, bottom, right);
+                break;
+            case INDEX_TO_DIRECT:
+                indexPlanesToDirectPixels(top, left, bottom, right);
+                break;
+            case INDEX_TO_555:
+                indexPlanesTo555(top, left, bottom, right);
+                break;
+            case DIRECT_TO_DIRECT:
+                directPlanesToDirectPixels(top, left, bottom, right);
+                break;
+            case DIRECT_TO_555:
+                directPlanesTo555(top, left, bottom, right);
+                break;
+            case HAM_TO_DIRECT:
+                hamPlanesToDirectPixels(top, left, bottom, right);
+                break;
+            case INDEX_TO_PLANES:
+                indexPixelsToIndexPlanes(top, left, bottom, right);
+                break;
+            default:
+                throw new InternalError("unsupported conversion:" + routine);
+        }
+    }
+
+    /**
+     * Converts a band of scanlines. Splits the band in two halves, until
+     * the band is small enough.
+     */
+    private class BandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int routine, top, left, bottom, right;
+
+        public BandTask(int routine, int top, int left, int bottom, int right) {
+            this.routine = routine;
+            this.top = top;
+            this.left = left;
+            this.bottom = bottom;
+            this.right = right;
+        }
+
+        @Override
+        protected void compute() {
+            if (top == bottom || (long) (bottom - top + 1) * (right - left + 1) < 2 * MIN_BAND_PIXELS) {
+                convertBand(routine, top, left, bottom, right);
+            } else {
+                int middle = (top + bottom) >>> 1;
+                invokeAll(new BandTask(routine, top, left, middle, right),
+                        new BandTask(routine, middle + 1, left, bottom, right));
+            }
+        }
+    }
+
+    /**
+     * Transposes a bitplane byte into a long. Bit 7-i of the byte goes into
+     * bit 0 of byte i of the long, so that byte i holds the bit of the i-th
+     * pixel of the bitplane byte.
+     */
+    private final static long[] TRANSPOSE_LUT = new long[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            long v = 0;
+            for (int i = 0; i < 8; i++) {
+                if ((b & (128 >>> i)) != 0) {
+                    v |= 1L << (i << 3);
+                }
+            }
+            TRANSPOSE_LUT[b] = v;
+        }
+    }
+
+    /**
+     * Converts a scanline of the bitplanes into index pixels. The depth must
+     * not be larger than 8.
+     * <p>
+     * The bitplane bytes of 8 pixels are transposed with TRANSPOSE_LUT and
+     * merged into a long, which holds the 8 index pixels.
+     *
+     * @param iScanline The index of the scanline in the bitmap.
+     * @param left The first pixel.
+     * @param right The pixel after the last pixel.
+     * @param out The output array.
+     * @param outOffset The index of pixel 0 of the scanline in the output array.
+     */
+    private void planesToIndexRow(int iScanline, int left, int right, byte[] out, int outOffset) {
+        final byte[] bitmap = this.bitmap;
+        final int depth = this.depth;
+        final int bitplaneStride = this.bitplaneStride;
+        for (int x = left; x < right;) {
+            int iBitmap = iScanline + (x >>> 3);
+            long v = 0;
+            for (int plane = 0; plane < depth; plane++, iBitmap += bitplaneStride) {
+                v |= TRANSPOSE_LUT[bitmap[iBitmap] & 0xff] << plane;
+            }
+            int end = Math.min(right, (x & ~7) + 8);
+            if (end - x == 8) {
+                int i = outOffset + x;
+                out[i] = (byte) v;
+                out[i + 1] = (byte) (v >>> 8);
+                out[i + 2] = (byte) (v >>> 16);
+                out[i + 3] = (byte) (v >>> 24);
+                out[i + 4] = (byte) (v >>> 32);
+                out[i + 5] = (byte) (v >>> 40);
+                out[i + 6] = (byte) (v >>> 48);
+                out[i + 7] = (byte) (v >>> 56);
+            } else {
+                for (int i = x; i < end; i++) {
+                    out[outOffset + i] = (byte) (v >>> ((i & 7) << 3));
+                }
+            }
+            x = end;
+        }
+    }
+
     /**
      * Converts the planar image data into chunky pixels.
      *
@@ -816,629 +1235,139 @@ public class BitmapImage
         int iBitmap;
         int iScanline;
         int iDepth;
-        int b0, b1, b2, b3, b4, b5, b6, b7;
-        b0 = b1 = b2 = b3 = b4 = b5 = b6 = b7 = 0;
-        final int bitplaneStride1 = bitplaneStride;
-        final int bitplaneStride2 = bitplaneStride * 2;
-        final int bitplaneStride3 = bitplaneStride * 3;
-        final int bitplaneStride4 = bitplaneStride * 4;
-        final int bitplaneStride5 = bitplaneStride * 5;
-        final int bitplaneStride6 = bitplaneStride * 6;
-        final int bitplaneStride7 = bitplaneStride * 7;
 
         int iBit; // the index of the bit inside the byte at the current x-position
         int bitMask; // the mask for the bit inside the byte at the current x-position
 
-        switch (depth) {
-            case 1:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                bytePixels_[iPixel++] = (byte) (((bitmap_[iBitmap] << bitShift) & 128) >>> 7);
-                }
-                iPixel += pixelLineStride;
-                }
-                 */
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        bytePixels[iPixel++] = (byte) (((bitmap[iScanline + (x >>> 3)] << (x & 7)) & 128) >>> 7);
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 2:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x & 7;
-                iBitmap = iScanline + x >>> 3;
-                bytePixels_[iPixel++] = (byte) (
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                );
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        bytePixels[iPixel++] = (byte) (((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 3:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x & 7;
-                iBitmap = iScanline + x >>> 3;
-                bytePixels_[iPixel++] = (byte) (
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                );
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        bytePixels[iPixel++] = (byte) (((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1
-                                | (bitmap[iBitmap + bitplaneStride2] & bitMask) << 2) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 4:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                int bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                bytePixels_[iPixel++] = (byte) (
-                ((bitmap[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                );
-                }
-                iPixel += pixelLineStride;
-                }*/
-
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        bytePixels[iPixel++] = (byte) (((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1
-                                | (bitmap[iBitmap + bitplaneStride2] & bitMask) << 2
-                                | (bitmap[iBitmap + bitplaneStride3] & bitMask) << 3) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 5:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                bytePixels_[iPixel++] = (byte) (
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                );
-                }
-                iPixel += pixelLineStride;
-                }*/
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                iBit = x & 7;
-                bitMask = 128 >>> (iBit);
-                iBitmap = iScanline + (x >>> 3);
-                
-                bytePixels_[iPixel++] = (byte) ((
-                (bitmap_[iBitmap] & bitMask)
-                | (bitmap_[iBitmap+bitplaneStride1] & bitMask) << 1
-                | (bitmap_[iBitmap+bitplaneStride2] & bitMask) << 2
-                | (bitmap_[iBitmap+bitplaneStride3] & bitMask) << 3
-                | (bitmap_[iBitmap+bitplaneStride4] & bitMask) << 4
-                ) >>> (7 - iBit));
-                }
-                iPixel += pixelLineStride;
-                }
-                iPixel=0;
-                 */
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                        }
-                        bytePixels[iPixel++] = (byte) (((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 6:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                bytePixels_[iPixel++] = (byte) (
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 2
-                );
-                }
-                iPixel += pixelLineStride;
-                }*/
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                iBit = x & 7;
-                bitMask = 128 >>> (iBit);
-                iBitmap = iScanline + (x >>> 3);
-                
-                bytePixels_[iPixel++] = (byte) ((
-                (bitmap_[iBitmap] & bitMask)
-                | (bitmap_[iBitmap+bitplaneStride1] & bitMask) << 1
-                | (bitmap_[iBitmap+bitplaneStride2] & bitMask) << 2
-                | (bitmap_[iBitmap+bitplaneStride3] & bitMask) << 3
-                | (bitmap_[iBitmap+bitplaneStride4] & bitMask) << 4
-                | (bitmap_[iBitmap+bitplaneStride5] & bitMask) << 5
-                ) >>> (7 - iBit));
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                        }
-                        bytePixels[iPixel++] = (byte) (((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 7:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                bytePixels_[iPixel++] = (byte) (
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 2
-                | ((bitmap_[iBitmap+bitplaneStride6] << bitShift) & 128) >>> 1
-                );
-                }
-                iPixel += pixelLineStride;
-                }*/
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                iBit = x & 7;
-                bitMask = 128 >>> (iBit);
-                iBitmap = iScanline + (x >>> 3);
-                
-                bytePixels_[iPixel++] = (byte) ((
-                (bitmap_[iBitmap] & bitMask)
-                | (bitmap_[iBitmap+bitplaneStride1] & bitMask) << 1
-                | (bitmap_[iBitmap+bitplaneStride2] & bitMask) << 2
-                | (bitmap_[iBitmap+bitplaneStride3] & bitMask) << 3
-                | (bitmap_[iBitmap+bitplaneStride4] & bitMask) << 4
-                | (bitmap_[iBitmap+bitplaneStride5] & bitMask) << 5
-                | (bitmap_[iBitmap+bitplaneStride6] & bitMask) << 6
-                ) >>> (7 - iBit));
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                            b6 = bitmap[iBitmap + bitplaneStride6];
-                        }
-                        bytePixels[iPixel++] = (byte) (((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5
-                                | (b6 & bitMask) << 6) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
+        if (depth <= 8) {
+            for (int y = top; y < bottom; y++) {
+                planesToIndexRow(y * scanlineStride, left, right, bytePixels, y * width);
+            }
+            return;
+        }
 
-            case 8:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                bytePixels_[iPixel++] = (byte) (
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 2
-                | ((bitmap_[iBitmap+bitplaneStride6] << bitShift) & 128) >>> 1
-                | ((bitmap_[iBitmap+bitplaneStride7] << bitShift) & 128)
-                );
-                }
-                iPixel += pixelLineStride;
-                }*/
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
+        /*
+        for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
+        for (x = left; x < right; x++) {
+        bitShift = x % 8;
+        iBitmap = iScanline + x / 8;
+        for (iDepth = depth; iDepth > 0; iDepth--) {
+        pixel = (pixel >>> 1) | ((bitmap_[iBitmap] << bitShift)  & 128);
+        iBitmap += bitplaneStride;
+        }
+        //bytePixels_[iPixel++] = (byte)(pixel >>> bitCorrection);
+        bytePixels_[iPixel++] = (byte)(pixel);
+        }
+        iPixel += pixelLineStride;
+        }*/
+        for (iScanline = top * scanlineStride + scanlineStride; iScanline <= bottomScanline; iScanline += scanlineStride) {
+            for (x = left; x < right; x++) {
                 iBit = x & 7;
                 bitMask = 128 >>> (iBit);
                 iBitmap = iScanline + (x >>> 3);
-                
-                bytePixels_[iPixel++] = (byte) ((
-                (bitmap_[iBitmap] & bitMask)
-                | (bitmap_[iBitmap+bitplaneStride1] & bitMask) << 1
-                | (bitmap_[iBitmap+bitplaneStride2] & bitMask) << 2
-                | (bitmap_[iBitmap+bitplaneStride3] & bitMask) << 3
-                | (bitmap_[iBitmap+bitplaneStride4] & bitMask) << 4
-                | (bitmap_[iBitmap+bitplaneStride5] & bitMask) << 5
-                | (bitmap_[iBitmap+bitplaneStride6] & bitMask) << 6
-                | (bitmap_[iBitmap+bitplaneStride7] & bitMask) << 7
-                ) >>> (7 - iBit));
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                            b6 = bitmap[iBitmap + bitplaneStride6];
-                            b7 = bitmap[iBitmap + bitplaneStride7];
-                        }
-                        bytePixels[iPixel++] = (byte) (((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5
-                                | (b6 & bitMask) << 6
-                                | (b7 & bitMask) << 7) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            default:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                for (iDepth = depth; iDepth > 0; iDepth--) {
-                pixel = (pixel >>> 1) | ((bitmap_[iBitmap] << bitShift)  & 128);
-                iBitmap += bitplaneStride;
-                }
-                //bytePixels_[iPixel++] = (byte)(pixel >>> bitCorrection);
-                bytePixels_[iPixel++] = (byte)(pixel);
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride + scanlineStride; iScanline <= bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-                        pixel = 0;
-                        for (iDepth = 0; iDepth < depth; iDepth++) {
-                            iBitmap -= bitplaneStride;
-                            pixel = (pixel << 1) | bitmap[iBitmap] & bitMask;
-                        }
-                        bytePixels[iPixel++] = (byte) (pixel >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
+                pixel = 0;
+                for (iDepth = 0; iDepth < depth; iDepth++) {
+                    iBitmap -= bitplaneStride;
+                    pixel = (pixel << 1) | bitmap[iBitmap] & bitMask;
                 }
+                bytePixels[iPixel++] = (byte) (pixel >>> (7 - iBit));
+            }
+            iPixel += pixelLineStride;
         }
     }
+    /**
+     * Gathers bit 0 of each byte of a long into a byte. Bit 0 of byte i of
+     * the long goes into bit 7-i of the byte. This is the inverse of
+     * TRANSPOSE_LUT.
+     */
+    private static int gatherBits(long v) {
+        return (int) (((v & 0x0101010101010101L) * 0x8040201008040201L) >>> 56);
+    }
+
+    /**
+     * Converts the chunky index pixels into planar image data.
+     * <p>
+     * The pixels are taken from planesSource, if it is not null, and from
+     * bytePixels otherwise. The index pixels of 8 pixels are merged into a
+     * long, from which all bitplane bytes are gathered with a multiplication.
+     * Bits of the bitplanes outside of the indicated area are preserved.
+     *
+     * Pre condition
+     *   0 <= topBound <= bottomBound <= height.
+     *   0 <= leftBound <= rightBound <= width.
+     */
     private void indexPixelsToIndexPlanes(int top, int left, int bottom, int right) {
 
         /* Add one to bottom and right to facilitate computations. */
         bottom++;
         right++;
 
+        final byte[] bitmap = this.bitmap;
         final int scanlineStride = getScanlineStride();
         final int bitplaneStride = getBitplaneStride();
         final int depth = getDepth();
-        final int width = getWidth();
-        final int pixelLineStride = width - right + left;
-        final int bottomScanline = bottom * scanlineStride;
-        //final int bitCorrection = depth - 8;
-        //final int bitCorrection = 8 - depth;
-        int x;
-        int iPixel = top * width + left;
-        int pixel = 0;
-        //int bitShift;
-        int iBitmap;
-        int iScanline;
-        int iDepth;
-        int b0, b1, b2, b3, b4, b5, b6, b7;
-        b0 = b1 = b2 = b3 = b4 = b5 = b6 = b7 = 0;
-        final int bitplaneStride1 = bitplaneStride;
-        final int bitplaneStride2 = bitplaneStride * 2;
-        final int bitplaneStride3 = bitplaneStride * 3;
-        final int bitplaneStride4 = bitplaneStride * 4;
-        final int bitplaneStride5 = bitplaneStride * 5;
-        final int bitplaneStride6 = bitplaneStride * 6;
-        final int bitplaneStride7 = bitplaneStride * 7;
-
-        int iBit; // the index of the bit inside the byte at the current x-position
-        int bitMask; // the mask for the bit inside the byte at the current x-position
-
-        switch (depth) {
-            case 1:
-                if (true) throw new UnsupportedOperationException(depth +" not yet implemented");
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        bytePixels[iPixel++] = (byte) (((bitmap[iScanline + (x >>> 3)] << (x & 7)) & 128) >>> 7);
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 2:
-                if (true) throw new UnsupportedOperationException(depth +" not yet implemented");
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        bytePixels[iPixel++] = (byte) (((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 3:
-                if (true) throw new UnsupportedOperationException(depth +" not yet implemented");
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        bytePixels[iPixel++] = (byte) (((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1
-                                | (bitmap[iBitmap + bitplaneStride2] & bitMask) << 2) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 4:
-                if (true) throw new UnsupportedOperationException(depth +" not yet implemented");
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        bytePixels[iPixel++] = (byte) (((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1
-                                | (bitmap[iBitmap + bitplaneStride2] & bitMask) << 2
-                                | (bitmap[iBitmap + bitplaneStride3] & bitMask) << 3) >>> (7 - iBit));
+        final byte[] bytes;
+        final int[] ints;
+        final int offset, stride;
+        if (planesSource == null) {
+            bytes = bytePixels;
+            ints = null;
+            offset = 0;
+            stride = getWidth();
+        } else {
+            bytes = (planesSource instanceof byte[]) ? (byte[]) planesSource : null;
+            ints = (planesSource instanceof int[]) ? (int[]) planesSource : null;
+            offset = planesSourceOffset;
+            stride = planesSourceStride;
+        }
+        final int byteDepth = (ints == null) ? Math.min(depth, 8) : depth;
+
+        for (int y = top; y < bottom; y++) {
+            final int iScanline = y * scanlineStride;
+            final int iRow = offset + y * stride;
+            for (int x = left; x < right;) {
+                int x0 = x & ~7;
+                int end = Math.min(right, x0 + 8);
+                int mask = (0xff >>> (x - x0)) & (0xff00 >>> (end - x0));
+                int iBitmap = iScanline + (x >>> 3);
+                for (int g = 0; g < depth; g += 8) {
+                    long v = 0;
+                    if (g < byteDepth) {
+                        if (mask == 0xff && ints == null) {
+                            int i = iRow + x;
+                            v = (bytes[i] & 0xffL)
+                                    | (bytes[i + 1] & 0xffL) << 8
+                                    | (bytes[i + 2] & 0xffL) << 16
+                                    | (bytes[i + 3] & 0xffL) << 24
+                                    | (bytes[i + 4] & 0xffL) << 32
+                                    | (bytes[i + 5] & 0xffL) << 40
+                                    | (bytes[i + 6] & 0xffL) << 48
+                                    | (bytes[i + 7] & 0xffL) << 56;
+                        } else if (ints == null) {
+                            for (int i = x; i < end; i++) {
+                                v |= (bytes[iRow + i] & 0xffL) << ((i & 7) << 3);
+                            }
+                        } else {
+                            for (int i = x; i < end; i++) {
+                                v |= ((ints[iRow + i] >>> g) & 0xffL) << ((i & 7) << 3);
+                            }
+                        }
                     }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 5:
-                if (true) throw new UnsupportedOperationException(depth +" not yet implemented");
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
+                    int planes = Math.min(8, depth - g);
+                    for (int plane = 0, iPlane = iBitmap + g * bitplaneStride; plane < planes; plane++, iPlane += bitplaneStride) {
+                        int b = gatherBits(v >>> plane);
+                        if (mask == 0xff) {
+                            bitmap[iPlane] = (byte) b;
+                        } else {
+                            bitmap[iPlane] = (byte) ((bitmap[iPlane] & ~mask) | (b & mask));
                         }
-                        bytePixels[iPixel++] = (byte) (((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4) >>> (7 - iBit));
                     }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 6:
-                if (true) throw new UnsupportedOperationException(depth +" not yet implemented");
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                        }
-                        bytePixels[iPixel++] = (byte) (((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 7:
-                if (true) throw new UnsupportedOperationException(depth +" not yet implemented");
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                            b6 = bitmap[iBitmap + bitplaneStride6];
-                        }
-                        bytePixels[iPixel++] = (byte) (((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5
-                                | (b6 & bitMask) << 6) >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 8:
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        int px=bytePixels[iPixel++];
-                        b7=(b7<<1)|((px>>>7)&1);
-                        b6=(b6<<1)|((px>>>6)&1);
-                        b5=(b5<<1)|((px>>>5)&1);
-                        b4=(b4<<1)|((px>>>4)&1);
-                        b3=(b3<<1)|((px>>>3)&1);
-                        b2=(b2<<1)|((px>>>2)&1);
-                        b1=(b1<<1)|((px>>>1)&1);
-                        b0=(b0<<1)|((px>>>0)&1);
-                        
-                        if (iBit == 7) {
-                             bitmap[iBitmap]=(byte)b0;
-                             bitmap[iBitmap + bitplaneStride]=(byte)b1;
-                             bitmap[iBitmap + bitplaneStride2]=(byte)b2;
-                             bitmap[iBitmap + bitplaneStride3]=(byte)b3;
-                             bitmap[iBitmap + bitplaneStride4]=(byte)b4;
-                             bitmap[iBitmap + bitplaneStride5]=(byte)b5;
-                             bitmap[iBitmap + bitplaneStride6]=(byte)b6;
-                             bitmap[iBitmap + bitplaneStride7]=(byte)b7;
-                        }
-                    }
-                    // FIXME - Add special treatment here when width is not a multiple of 8
-                    
-                    iPixel += pixelLineStride; 
-                }
-                break;
-
-            default:
-                if (true) throw new UnsupportedOperationException(depth +" not yet implemented");
-                for (iScanline = top * scanlineStride + scanlineStride; iScanline <= bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-                        pixel = 0;
-                        for (iDepth = 0; iDepth < depth; iDepth++) {
-                            iBitmap -= bitplaneStride;
-                            pixel = (pixel << 1) | bitmap[iBitmap] & bitMask;
-                        }
-                        bytePixels[iPixel++] = (byte) (pixel >>> (7 - iBit));
-                    }
-                    iPixel += pixelLineStride;
                 }
+                x = end;
+            }
         }
     }
+
     /**
      * Converts the planar image data into chunky pixels.
      *
@@ -1504,343 +1433,48 @@ public class BitmapImage
         int iBit; // the index of the bit inside the byte at the current x-position
         int bitMask; // the mask for the bit inside the byte at the current x-position
 
-        final int bitplaneStride1 = bitplaneStride;
-        final int bitplaneStride2 = bitplaneStride * 2;
-        final int bitplaneStride3 = bitplaneStride * 3;
-        final int bitplaneStride4 = bitplaneStride * 4;
-        final int bitplaneStride5 = bitplaneStride * 5;
-        final int bitplaneStride6 = bitplaneStride * 6;
-        final int bitplaneStride7 = bitplaneStride * 7;
 
         int iBitmap;
-        int b0, b1, b2, b3, b4, b5, b6, b7;
-        b0 = b1 = b2 = b3 = b4 = b5 = b6 = b7 = 0;
-
-        switch (depth) {
-            case 1:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(((bitmap_[iBitmap] << bitShift) & 128) >>> 7)];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        intPixels[iPixel++] = clut[(((bitmap[iScanline + (x >>> 3)] << (x & 7)) & 128) >>> 7)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 2:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        intPixels[iPixel++] = clut[((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
 
-            case 3:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                )];
+        if (depth <= 8) {
+            byte[] row = new byte[width];
+            for (int y = top; y < bottom; y++) {
+                planesToIndexRow(y * scanlineStride, left, right, row, 0);
+                for (x = left, iPixel = y * width + left; x < right; x++, iPixel++) {
+                    intPixels[iPixel] = clut[row[x] & 0xff];
                 }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        intPixels[iPixel++] = clut[((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1
-                                | (bitmap[iBitmap + bitplaneStride2] & bitMask) << 2) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 4:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        intPixels[iPixel++] = clut[((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1
-                                | (bitmap[iBitmap + bitplaneStride2] & bitMask) << 2
-                                | (bitmap[iBitmap + bitplaneStride3] & bitMask) << 3) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
+            }
+            return;
+        }
 
-            case 5:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
+        /*
+        for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
+        for (x = left; x < right; x++) {
+        bitShift = x % 8;
+        iBitmap = iScanline + x / 8;
+        
+        for (iDepth = 0; iDepth < depth; iDepth++) {
+        pixel = (pixel >>> 1) | ((bitmap_[iBitmap] << bitShift)  & 128);
+        iBitmap += bitplaneStride;
+        }
+        intPixels_[iPixel++] = clut[(pixel >>> bitCorrection)];
+        }
+        iPixel += pixelLineStride;
+        }*/
+        for (iScanline = top * scanlineStride + scanlineStride; iScanline <= bottomScanline; iScanline += scanlineStride) {
+            for (x = left; x < right; x++) {
                 iBit = x & 7;
                 bitMask = 128 >>> (iBit);
                 iBitmap = iScanline + (x >>> 3);
-                
-                intPixels_[iPixel++] = clut[(
-                (bitmap_[iBitmap] & bitMask)
-                | (bitmap_[iBitmap+bitplaneStride1] & bitMask) << 1
-                | (bitmap_[iBitmap+bitplaneStride2] & bitMask) << 2
-                | (bitmap_[iBitmap+bitplaneStride3] & bitMask) << 3
-                | (bitmap_[iBitmap+bitplaneStride4] & bitMask) << 4
-                ) >>> (7 - iBit)];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                        }
-                        intPixels[iPixel++] = clut[((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-
-                break;
-
-            case 6:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 2
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                        }
-                        intPixels[iPixel++] = clut[((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 7:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 2
-                | ((bitmap_[iBitmap+bitplaneStride6] << bitShift) & 128) >>> 1
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                            b6 = bitmap[iBitmap + bitplaneStride6];
-                        }
-                        intPixels[iPixel++] = clut[((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5
-                                | (b6 & bitMask) << 6) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 8:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 2
-                | ((bitmap_[iBitmap+bitplaneStride6] << bitShift) & 128) >>> 1
-                | ((bitmap_[iBitmap+bitplaneStride7] << bitShift) & 128)
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                            b6 = bitmap[iBitmap + bitplaneStride6];
-                            b7 = bitmap[iBitmap + bitplaneStride7];
-                        }
-                        intPixels[iPixel++] = clut[((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5
-                                | (b6 & bitMask) << 6
-                                | (b7 & bitMask) << 7) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            default:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                
+                pixel = 0;
                 for (iDepth = 0; iDepth < depth; iDepth++) {
-                pixel = (pixel >>> 1) | ((bitmap_[iBitmap] << bitShift)  & 128);
-                iBitmap += bitplaneStride;
-                }
-                intPixels_[iPixel++] = clut[(pixel >>> bitCorrection)];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride + scanlineStride; iScanline <= bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-                        pixel = 0;
-                        for (iDepth = 0; iDepth < depth; iDepth++) {
-                            iBitmap -= bitplaneStride;
-                            pixel = (pixel << 1) | bitmap[iBitmap] & bitMask;
-                        }
-                        intPixels[iPixel++] =
-                                clut[pixel >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
+                    iBitmap -= bitplaneStride;
+                    pixel = (pixel << 1) | bitmap[iBitmap] & bitMask;
                 }
+                intPixels[iPixel++] =
+                        clut[pixel >>> (7 - iBit)];
+            }
+            iPixel += pixelLineStride;
         }
     }
 
@@ -1909,343 +1543,48 @@ public class BitmapImage
         int iBit; // the index of the bit inside the byte at the current x-position
         int bitMask; // the mask for the bit inside the byte at the current x-position
 
-        final int bitplaneStride1 = bitplaneStride;
-        final int bitplaneStride2 = bitplaneStride * 2;
-        final int bitplaneStride3 = bitplaneStride * 3;
-        final int bitplaneStride4 = bitplaneStride * 4;
-        final int bitplaneStride5 = bitplaneStride * 5;
-        final int bitplaneStride6 = bitplaneStride * 6;
-        final int bitplaneStride7 = bitplaneStride * 7;
 
         int iBitmap;
-        int b0, b1, b2, b3, b4, b5, b6, b7;
-        b0 = b1 = b2 = b3 = b4 = b5 = b6 = b7 = 0;
-
-        switch (depth) {
-            case 1:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(((bitmap_[iBitmap] << bitShift) & 128) >>> 7)];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        shortPixels[iPixel++] = clut[(((bitmap[iScanline + (x >>> 3)] << (x & 7)) & 128) >>> 7)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 2:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        shortPixels[iPixel++] = clut[((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 3:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        shortPixels[iPixel++] = clut[((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1
-                                | (bitmap[iBitmap + bitplaneStride2] & bitMask) << 2) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
 
-            case 4:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                )];
+        if (depth <= 8) {
+            byte[] row = new byte[width];
+            for (int y = top; y < bottom; y++) {
+                planesToIndexRow(y * scanlineStride, left, right, row, 0);
+                for (x = left, iPixel = y * width + left; x < right; x++, iPixel++) {
+                    shortPixels[iPixel] = clut[row[x] & 0xff];
                 }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        shortPixels[iPixel++] = clut[((bitmap[iBitmap] & bitMask)
-                                | (bitmap[iBitmap + bitplaneStride1] & bitMask) << 1
-                                | (bitmap[iBitmap + bitplaneStride2] & bitMask) << 2
-                                | (bitmap[iBitmap + bitplaneStride3] & bitMask) << 3) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
+            }
+            return;
+        }
 
-            case 5:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
+        /*
+        for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
+        for (x = left; x < right; x++) {
+        bitShift = x % 8;
+        iBitmap = iScanline + x / 8;
+        
+        for (iDepth = 0; iDepth < depth; iDepth++) {
+        pixel = (pixel >>> 1) | ((bitmap_[iBitmap] << bitShift)  & 128);
+        iBitmap += bitplaneStride;
+        }
+        intPixels_[iPixel++] = clut[(pixel >>> bitCorrection)];
+        }
+        iPixel += pixelLineStride;
+        }*/
+        for (iScanline = top * scanlineStride + scanlineStride; iScanline <= bottomScanline; iScanline += scanlineStride) {
+            for (x = left; x < right; x++) {
                 iBit = x & 7;
                 bitMask = 128 >>> (iBit);
                 iBitmap = iScanline + (x >>> 3);
-                
-                intPixels_[iPixel++] = clut[(
-                (bitmap_[iBitmap] & bitMask)
-                | (bitmap_[iBitmap+bitplaneStride1] & bitMask) << 1
-                | (bitmap_[iBitmap+bitplaneStride2] & bitMask) << 2
-                | (bitmap_[iBitmap+bitplaneStride3] & bitMask) << 3
-                | (bitmap_[iBitmap+bitplaneStride4] & bitMask) << 4
-                ) >>> (7 - iBit)];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                        }
-                        shortPixels[iPixel++] = clut[((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-
-                break;
-
-            case 6:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 2
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                        }
-                        shortPixels[iPixel++] = clut[((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 7:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 2
-                | ((bitmap_[iBitmap+bitplaneStride6] << bitShift) & 128) >>> 1
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                            b6 = bitmap[iBitmap + bitplaneStride6];
-                        }
-                        shortPixels[iPixel++] = clut[((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5
-                                | (b6 & bitMask) << 6) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            case 8:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                intPixels_[iPixel++] = clut[(
-                ((bitmap_[iBitmap] << bitShift) & 128) >>> 7
-                | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 6
-                | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 5
-                | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 4
-                | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 3
-                | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 2
-                | ((bitmap_[iBitmap+bitplaneStride6] << bitShift) & 128) >>> 1
-                | ((bitmap_[iBitmap+bitplaneStride7] << bitShift) & 128)
-                )];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-
-                        if (iBit == 0) {
-                            b0 = bitmap[iBitmap];
-                            b1 = bitmap[iBitmap + bitplaneStride];
-                            b2 = bitmap[iBitmap + bitplaneStride2];
-                            b3 = bitmap[iBitmap + bitplaneStride3];
-                            b4 = bitmap[iBitmap + bitplaneStride4];
-                            b5 = bitmap[iBitmap + bitplaneStride5];
-                            b6 = bitmap[iBitmap + bitplaneStride6];
-                            b7 = bitmap[iBitmap + bitplaneStride7];
-                        }
-                        shortPixels[iPixel++] = clut[((b0 & bitMask)
-                                | (b1 & bitMask) << 1
-                                | (b2 & bitMask) << 2
-                                | (b3 & bitMask) << 3
-                                | (b4 & bitMask) << 4
-                                | (b5 & bitMask) << 5
-                                | (b6 & bitMask) << 6
-                                | (b7 & bitMask) << 7) >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
-                }
-                break;
-
-            default:
-                /*
-                for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-                for (x = left; x < right; x++) {
-                bitShift = x % 8;
-                iBitmap = iScanline + x / 8;
-                
+                pixel = 0;
                 for (iDepth = 0; iDepth < depth; iDepth++) {
-                pixel = (pixel >>> 1) | ((bitmap_[iBitmap] << bitShift)  & 128);
-                iBitmap += bitplaneStride;
-                }
-                intPixels_[iPixel++] = clut[(pixel >>> bitCorrection)];
-                }
-                iPixel += pixelLineStride;
-                }*/
-                for (iScanline = top * scanlineStride + scanlineStride; iScanline <= bottomScanline; iScanline += scanlineStride) {
-                    for (x = left; x < right; x++) {
-                        iBit = x & 7;
-                        bitMask = 128 >>> (iBit);
-                        iBitmap = iScanline + (x >>> 3);
-                        pixel = 0;
-                        for (iDepth = 0; iDepth < depth; iDepth++) {
-                            iBitmap -= bitplaneStride;
-                            pixel = (pixel << 1) | bitmap[iBitmap] & bitMask;
-                        }
-                        shortPixels[iPixel++] =
-                                clut[pixel >>> (7 - iBit)];
-                    }
-                    iPixel += pixelLineStride;
+                    iBitmap -= bitplaneStride;
+                    pixel = (pixel << 1) | bitmap[iBitmap] & bitMask;
                 }
+                shortPixels[iPixel++] =
+                        clut[pixel >>> (7 - iBit)];
+            }
+            iPixel += pixelLineStride;
         }
     }
 
@@ -2510,7 +1849,7 @@ public class BitmapImage
                 iBit = x & 7;
                 bitMask = 128 >>> (iBit);
                 iBitmap = iScanline + (x >>> 3);
-                if (iBit == 0) {
+                if (iBit == 0 || x == left) {
                     b0 = bitmap[iBitmap];
                     b1 = bitmap[iBitmap + bitplaneStride];
                     b2 = bitmap[iBitmap + bitplaneStride2];
@@ -2574,8 +1913,14 @@ public class BitmapImage
      * in conjunction with the HAMColorModel associated to
      * this instance.
      *
+     * The bitplanes of a scanline are converted into HAM values with
+     * planesToIndexRow. Each HAM value is then decoded with the decode tables
+     * of the HAMColorModel: pixel = lastPixel & keepMask | setBits.
+     * This works for HAM6 and for HAM8.
+     *
      * Pre condition
      *   The color model must be an instance of HAMColorModel.
+     *   The depth of the bitmap must not be larger than 8.
      *   0 <= topBound <= bottomBound <= height.
      *   0 <= leftBound <= rightBound <= width.
      * Post condition
@@ -2586,278 +1931,30 @@ public class BitmapImage
      * @author  Werner Randelshofer, Hausmatt 10, CH-6405 Immensee, Switzerland
      * @version  1997-10-16  Created.
      */
-    private void ham6PlanesToDirectPixels(int top, int left, int bottom, int right) {
+    private void hamPlanesToDirectPixels(int top, int left, int bottom, int right) {
         /* Add one to bottom and right to facilitate computations. */
         bottom++;
         right++;
 
-        final int[] HAMColors = new int[((HAMColorModel) planarColorModel).getMapSize()];
-        ((HAMColorModel) planarColorModel).getRGBs(HAMColors);
+        final HAMColorModel hcm = (HAMColorModel) planarColorModel;
+        final int size = 1 << hcm.getDepth();
+        final int[] keepMasks = new int[size];
+        final int[] setBits = new int[size];
+        hcm.getDecodeTables(keepMasks, setBits);
+        final int valueMask = size - 1;
         final int scanlineStride = getScanlineStride();
-        final int bitplaneStride = getBitplaneStride();
-        final int depth = getDepth();
         final int width = getWidth();
-        final int pixelLineStride = width - right + left;
-        final int bottomScanline = bottom * scanlineStride;
-        int x;
-        int iPixel = top * width + left;
-        int lastPixel, iLastPixel = top * width + left - 1;
-        int pixel = 0;
-        int bitShift;
-        int iScanline;
-        int iDepth;
-        final int bitplaneStride1 = bitplaneStride;
-        final int bitplaneStride2 = bitplaneStride * 2;
-        final int bitplaneStride3 = bitplaneStride * 3;
-        final int bitplaneStride4 = bitplaneStride * 4;
-        final int bitplaneStride5 = bitplaneStride * 5;
-        int iBitmap;
-        int b0, b1, b2, b3, b4, b5;
-        b0 = b1 = b2 = b3 = b4 = b5 = 0;
-        int iBit; // the index of the bit inside the byte at the current x-position
-        int bitMask; // the mask for the bit inside the byte at the current x-position
-        /*
-        
-        for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-        if (left == 0) {
-        lastPixel = 0xff000000;
-        } else {
-        lastPixel = intPixels_[iLastPixel];
-        iLastPixel += width;
-        }
-        for (x = left; x < right; x++) {
-        
-        bitShift = x % 8;
-        iBitmap = iScanline + x / 8;
-        pixel =
-        ((bitmap_[iBitmap] << bitShift) & 128) >>> 3
-        | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 2
-        | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 1
-        | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128)
-        ;
-        
-        switch (((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 7
-        | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128) >>> 6) {
-        
-        case 0: // use indexed color
-        intPixels_[iPixel++] = lastPixel = HAMColors[pixel >>> 4];
-        break;
-        
-        case 1: // modifie blue
-        intPixels_[iPixel++] = lastPixel = lastPixel & 0xffffff00 | pixel | pixel >>> 4;
-        break;
-        
-        case 2:  // modify red
-        intPixels_[iPixel++] = lastPixel = lastPixel & 0xff00ffff | pixel << 16 | pixel << 12 & 0x000f0000;
-        break;
-        
-        default: // modify green
-        intPixels_[iPixel++] = lastPixel = lastPixel & 0xffff00ff | pixel << 8 | pixel << 4 & 0x0f00;
-        break;
-        }
-        }
-        iPixel += pixelLineStride;
-        }
-        iPixel = 0;
-        iLastPixel = top*width + left - 1;
-         */
-        for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-            if (left == 0) {
-                lastPixel = 0xff000000;
-            } else {
-                lastPixel = intPixels[iLastPixel];
-                iLastPixel += width;
+        final int[] intPixels = this.intPixels;
+        final byte[] row = new byte[width];
+
+        for (int y = top; y < bottom; y++) {
+            planesToIndexRow(y * scanlineStride, left, right, row, 0);
+            int iPixel = y * width + left;
+            int lastPixel = (left == 0) ? 0xff000000 : intPixels[iPixel - 1];
+            for (int x = left; x < right; x++) {
+                int v = row[x] & valueMask;
+                intPixels[iPixel++] = lastPixel = (lastPixel & keepMasks[v]) | setBits[v];
             }
-            for (x = left; x < right; x++) {
-                iBit = x & 7;
-                bitMask = 128 >>> (iBit);
-                iBitmap = iScanline + (x >>> 3);
-
-                if (iBit == 0) {
-                    b0 = bitmap[iBitmap];
-                    b1 = bitmap[iBitmap + bitplaneStride];
-                    b2 = bitmap[iBitmap + bitplaneStride2];
-                    b3 = bitmap[iBitmap + bitplaneStride3];
-                    b4 = bitmap[iBitmap + bitplaneStride4];
-                    b5 = bitmap[iBitmap + bitplaneStride5];
-                }
-                pixel = ((b0 & bitMask)
-                        | (b1 & bitMask) << 1
-                        | (b2 & bitMask) << 2
-                        | (b3 & bitMask) << 3) >>> (7 - iBit);
-
-                switch (((b4 & bitMask)
-                        | (b5 & bitMask) << 1) >>> (7 - iBit)) {
-
-                    case 0: // use indexed color
-                        intPixels[iPixel++] = lastPixel = HAMColors[pixel];
-                        break;
-
-                    case 1: // modifie blue
-                        intPixels[iPixel++] = lastPixel = lastPixel & 0xffffff00 | pixel | pixel << 4;
-                        break;
-
-                    case 2:  // modify red
-                        intPixels[iPixel++] = lastPixel = lastPixel & 0xff00ffff | pixel << 16 | pixel << 20;
-                        break;
-
-                    default: // modify green
-                        intPixels[iPixel++] = lastPixel = lastPixel & 0xffff00ff | pixel << 8 | pixel << 12;
-                        break;
-                }
-            }
-            iPixel += pixelLineStride;
-        }
-    }
-
-    /**
-     * Converts the planar image data into chunky pixels.
-     *
-     * After successful completion the chunky pixels can by used
-     * in conjunction with the HAMColorModel associated to
-     * this instance.
-     *
-     * Pre condition
-     *   The color model must be an instance of HAMColorModel.
-     *   0 <= topBound <= bottomBound <= height.
-     *   0 <= leftBound <= rightBound <= width.
-     * Post condition
-     *   -
-     * Obligation
-     *   -
-     */
-    private void ham8PlanesToDirectPixels(int top, int left, int bottom, int right) {
-        /* Add one to bottom and right to facilitate computations. */
-        bottom++;
-        right++;
-
-        final int[] HAMColors = new int[((HAMColorModel) planarColorModel).getMapSize()];
-        ((HAMColorModel) planarColorModel).getRGBs(HAMColors);
-        final int scanlineStride = getScanlineStride();
-        final int bitplaneStride = getBitplaneStride();
-        final int depth = getDepth();
-        final int width = getWidth();
-        final int pixelLineStride = width - right + left;
-        final int bottomScanline = bottom * scanlineStride;
-        int x;
-        int iPixel = top * width + left;
-        int lastPixel, iLastPixel = top * width + left - 1;
-        int pixel = 0;
-        int bitShift;
-        //int iBitmap;
-        int iScanline;
-        int iDepth;
-        final int bitplaneStride1 = bitplaneStride;
-        final int bitplaneStride2 = bitplaneStride * 2;
-        final int bitplaneStride3 = bitplaneStride * 3;
-        final int bitplaneStride4 = bitplaneStride * 4;
-        final int bitplaneStride5 = bitplaneStride * 5;
-        final int bitplaneStride6 = bitplaneStride * 6;
-        final int bitplaneStride7 = bitplaneStride * 7;
-
-        int iBitmap = top * scanlineStride + left / 8;
-        int b0, b1, b2, b3, b4, b5, b6, b7;
-        b0 = b1 = b2 = b3 = b4 = b5 = b6 = b7 = 0;
-
-        int iBit; // the index of the bit inside the byte at the current x-position
-        int bitMask; // the mask for the bit inside the byte at the current x-position
-        /*
-        
-        for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-        if (left == 0) {
-        lastPixel = 0xff000000;
-        } else {
-        lastPixel = intPixels_[iLastPixel];
-        iLastPixel += width;
-        }
-        for (x = left; x < right; x++) {
-        bitShift = x % 8;
-        iBitmap = iScanline + x / 8;
-        pixel =
-        ((bitmap_[iBitmap] << bitShift) & 128) >>> 5
-        | ((bitmap_[iBitmap+bitplaneStride1] << bitShift) & 128) >>> 4
-        | ((bitmap_[iBitmap+bitplaneStride2] << bitShift) & 128) >>> 3
-        | ((bitmap_[iBitmap+bitplaneStride3] << bitShift) & 128) >>> 2
-        | ((bitmap_[iBitmap+bitplaneStride4] << bitShift) & 128) >>> 1
-        | ((bitmap_[iBitmap+bitplaneStride5] << bitShift) & 128)
-        ;
-        
-        switch (((bitmap_[iBitmap+bitplaneStride6] << bitShift) & 128) >>> 7
-        | ((bitmap_[iBitmap+bitplaneStride7] << bitShift) & 128) >>> 6) {
-        
-        case 0: // use indexed color
-        intPixels_[iPixel++] = lastPixel = HAMColors[pixel >>> 2];
-        break;
-        
-        case 1: // modifie blue
-        intPixels_[iPixel++] = lastPixel = lastPixel & 0xffffff00 | pixel | pixel >>> 6;
-        break;
-        
-        case 2: // modify red
-        intPixels_[iPixel++] = lastPixel = lastPixel & 0xff00ffff | pixel << 16 | pixel << 10 & 0x030000;
-        break;
-        
-        default: // modify green
-        intPixels_[iPixel++] = lastPixel = lastPixel & 0xffff00ff | pixel << 8 | pixel << 2 & 0x0300;
-        break;
-        
-        }
-        }
-        iPixel += pixelLineStride;
-        }
-        iPixel = 0;
-        iLastPixel = top*width + left - 1;
-         */
-        for (iScanline = top * scanlineStride; iScanline < bottomScanline; iScanline += scanlineStride) {
-            if (left == 0) {
-                lastPixel = 0xff000000;
-            } else {
-                lastPixel = intPixels[iLastPixel];
-                iLastPixel += width;
-            }
-            for (x = left; x < right; x++) {
-                iBit = x & 7;
-                bitMask = 128 >>> (iBit);
-                iBitmap = iScanline + (x >>> 3);
-
-                if (iBit == 0) {
-                    b0 = bitmap[iBitmap];
-                    b1 = bitmap[iBitmap + bitplaneStride];
-                    b2 = bitmap[iBitmap + bitplaneStride2];
-                    b3 = bitmap[iBitmap + bitplaneStride3];
-                    b4 = bitmap[iBitmap + bitplaneStride4];
-                    b5 = bitmap[iBitmap + bitplaneStride5];
-                    b6 = bitmap[iBitmap + bitplaneStride6];
-                    b7 = bitmap[iBitmap + bitplaneStride7];
-                }
-                pixel = ((b0 & bitMask)
-                        | (b1 & bitMask) << 1
-                        | (b2 & bitMask) << 2
-                        | (b3 & bitMask) << 3
-                        | (b4 & bitMask) << 4
-                        | (b5 & bitMask) << 5) >>> (7 - iBit);
-
-                switch (((b6 & bitMask)
-                        | (b7 & bitMask) << 1) >>> (7 - iBit)) {
-
-                    case 0: // use indexed color
-                        intPixels[iPixel++] = lastPixel = HAMColors[pixel];
-                        break;
-
-                    case 1: // modifie blue
-                        intPixels[iPixel++] = lastPixel = lastPixel & 0xffffff00 | pixel << 2 | pixel >>> 4;
-                        break;
-
-                    case 2:  // modify red
-                        intPixels[iPixel++] = lastPixel = lastPixel & 0xff00ffff | pixel << 18 | (pixel & 0x03) << 16;
-                        break;
-
-                    default: // modify green
-                        intPixels[iPixel++] = lastPixel = lastPixel & 0xffff00ff | pixel << 10 | (pixel & 0x03) << 8;
-                        break;
-                }
-            }
-            iPixel += pixelLineStride;
         }
     }
 
@@ -2866,6 +1963,7 @@ public class BitmapImage
             throw new IllegalArgumentException("Illegal size");
         }
         intPixels = buf;
+        pixelsValid = false;
     }
 
     public void setBytePixels(byte[] buf) {
@@ -2873,6 +1971,7 @@ public class BitmapImage
             throw new IllegalArgumentException("Illegal size");
         }
         bytePixels = buf;
+        pixelsValid = false;
     }
 
     public void setShortPixels(short[] buf) {
@@ -2880,6 +1979,7 @@ public class BitmapImage
             throw new IllegalArgumentException("Illegal size");
         }
         shortPixels = buf;
+        pixelsValid = false;
     }
 
     private void directPlanesTo555(int top, int left, int bottom, int right) {
@@ -0,0 +1,184 @@
+/*
+ * @(#)BulkRGBFilter.java
+ */
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@code BulkRGBFilter} transforms the colors of integer ARGB pixels.
+ * <p>
+ * Unlike {@code java.awt.image.RGBImageFilter}, which is called once for
+ * each pixel through the image producer and consumer pipeline, a bulk filter
+ * transforms whole scanlines of an {@code int[]} raster. Subclasses implement
+ * {@link #filterRow}.
+ * <p>
+ * If parallel filtering is enabled, large areas are split into bands of
+ * scanlines, which are filtered on a fork-join pool. Therefore
+ * {@code filterRow} must be thread-safe.
+ *
+ * @version 1.0 2026-10-19 Created.
+ */
+public abstract class BulkRGBFilter {
+
+    /** A band of a parallel filter operation holds at least this number of
+     * pixels. */
+    private final static int MIN_BAND_PIXELS = 32 * 1024;
+    /** The pool for parallel filter operations. */
+    private static ForkJoinPool pool;
+    private boolean parallel;
+
+    /**
+     * If you set this to true, then large areas are split into bands of
+     * scanlines, which are filtered in parallel.
+     */
+    public void setParallel(boolean b) {
+        parallel = b;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Filters a scanline.
+     *
+     * @param src The source pixels in the ARGB format.
+     * @param srcOffset The index of the first source pixel.
+     * @param dst The destination pixels. This can be the source array.
+     * @param dstOffset The index of the first destination pixel.
+     * @param width The number of pixels.
+     */
+    protected abstract void filterRow(int[] src, int srcOffset, int[] dst, int dstOffset, int width);
+
+    /**
+     * Filters an area of pixels. The source and the destination can be
+     * the same array.
+     *
+     * @param src The source pixels in the ARGB format.
+     * @param srcOffset The index of the top left source pixel.
+     * @param srcScanlineStride The number of array elements between a source
+     * pixel and the pixel in the same column of the next scanline.
+     * @param dst The destination pixels.
+     * @param dstOffset The index of the top left destination pixel.
+     * @param dstScanlineStride The number of array elements between a
+     * destination pixel and the pixel in the same column of the next scanline.
+     * @param width The width of the area.
+     * @param height The height of the area.
+     */
+    public void filter(int[] src, int srcOffset, int srcScanlineStride,
+            int[] dst, int dstOffset, int dstScanlineStride, int width, int height) {
+        if (parallel && height > 1 && (long) width * height >= 2 * MIN_BAND_PIXELS
+                && Runtime.getRuntime().availableProcessors() > 1) {
+            getPool().invoke(new BandTask(src, srcOffset, srcScanlineStride, dst, dstOffset, dstScanlineStride, width, height));
+        } else {
+            filterBand(src, srcOffset, srcScanlineStride, dst, dstOffset, dstScanlineStride, width, height);
+        }
+    }
+
+    /**
+     * Filters an image. The source image is converted into an integer
+     * ARGB image first, if it does not have an integer raster.
+     *
+     * @param src The source image.
+     * @param dst The destination image. If this is null or if it does not
+     * have the size of the source image, a TYPE_INT_ARGB image is created.
+     * The destination can be the source image.
+     * @return The destination image.
+     */
+    public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+        if (src.getType() != BufferedImage.TYPE_INT_RGB
+                && src.getType() != BufferedImage.TYPE_INT_ARGB) {
+            BufferedImage argb = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Images.toBufferedImage(src, argb);
+            src = argb;
+        }
+        if (dst == null || dst.getWidth() != width || dst.getHeight() != height
+                || (dst.getType() != BufferedImage.TYPE_INT_RGB
+                && dst.getType() != BufferedImage.TYPE_INT_ARGB)) {
+            dst = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        WritableRaster sr = src.getRaster();
+        WritableRaster dr = dst.getRaster();
+        int srcStride = ((SinglePixelPackedSampleModel) sr.getSampleModel()).getScanlineStride();
+        int dstStride = ((SinglePixelPackedSampleModel) dr.getSampleModel()).getScanlineStride();
+        filter(((DataBufferInt) sr.getDataBuffer()).getData(), getOffset(sr, srcStride), srcStride,
+                ((DataBufferInt) dr.getDataBuffer()).getData(), getOffset(dr, dstStride), dstStride,
+                width, height);
+        if (src.getType() == BufferedImage.TYPE_INT_RGB && dst.getType() == BufferedImage.TYPE_INT_ARGB) {
+            // The alpha byte of TYPE_INT_RGB pixels is undefined
+            int[] data = ((DataBufferInt) dr.getDataBuffer()).getData();
+            for (int y = 0, i = getOffset(dr, dstStride); y < height; y++, i += dstStride) {
+                for (int x = 0; x < width; x++) {
+                    data[i + x] |= 0xff000000;
+                }
+            }
+        }
+        return dst;
+    }
+
+    /** Returns the index of pixel 0,0 of the raster in its data array. */
+    private static int getOffset(WritableRaster r, int scanlineStride) {
+        return r.getDataBuffer().getOffset()
+                - r.getSampleModelTranslateY() * scanlineStride
+                - r.getSampleModelTranslateX();
+    }
+
+    private void filterBand(int[] src, int srcOffset, int srcScanlineStride,
+            int[] dst, int dstOffset, int dstScanlineStride, int width, int height) {
+        for (int y = 0; y < height; y++) {
+            filterRow(src, srcOffset, dst, dstOffset, width);
+            srcOffset += srcScanlineStride;
+            dstOffset += dstScanlineStride;
+        }
+    }
+
+    /** Returns the shared pool for parallel filter operations. */
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool();
+        }
+        return pool;
+    }
+
+    /**
+     * Filters a band of scanlines. Splits the band in two halves, until
+     * the band is small enough.
+     */
+    private class BandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int[] src, dst;
+        private final int srcOffset, srcScanlineStride, dstOffset, dstScanlineStride, width, height;
+
+        public BandTask(int[] src, int srcOffset, int srcScanlineStride,
+                int[] dst, int dstOffset, int dstScanlineStride, int width, int height) {
+            this.src = src;
+            this.srcOffset = srcOffset;
+            this.srcScanlineStride = srcScanlineStride;
+            this.dst = dst;
+            this.dstOffset = dstOffset;
+            this.dstScanlineStride = dstScanlineStride;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        protected void compute() {
+            if (height == 1 || (long) width * height < 2 * MIN_BAND_PIXELS) {
+                filterBand(src, srcOffset, srcScanlineStride, dst, dstOffset, dstScanlineStride, width, height);
+            } else {
+                int h = height / 2;
+                invokeAll(new BandTask(src, srcOffset, srcScanlineStride, dst, dstOffset, dstScanlineStride, width, h),
+                        new BandTask(src, srcOffset + h * srcScanlineStride, srcScanlineStride,
+                        dst, dstOffset + h * dstScanlineStride, dstScanlineStride, width, height - h));
+            }
+        }
+    }
+}
@@ -32,7 +32,8 @@ import static java.lang.Math.*;
  * generating an {@code IOException}.
  *
  * @author Werner Randelshofer
- * @version 1.0.1 2011-01-23 Implements length method.
+ * @version 1.1 2026-10-19 Can grow its buffer with arrays from a pool.
+ * <br>1.0.1 2011-01-23 Implements length method.
  * <br>1.0 2011-01-18 Created.
  */
 public class ByteArrayImageOutputStream extends ImageOutputStreamImpl {
@@ -59,6 +60,8 @@ public class ByteArrayImageOutputStream extends ImageOutputStreamImpl {
     protected int count;
     /** The offset to the start of the array. */
     private final int arrayOffset;
+    /** If this is not null, the buffer is grown with arrays from this pool. */
+    private ByteArrayPool pool;
 
     public ByteArrayImageOutputStream() {
         this(16);
@@ -88,6 +91,25 @@ public class ByteArrayImageOutputStream extends ImageOutputStreamImpl {
         this(new byte[16],byteOrder);
     }
 
+    /** Creates an empty stream with a buffer from the specified pool.
+     * When the buffer needs to grow, the larger buffer is acquired from the
+     * pool, and the smaller buffer is released. The stream owns its buffer
+     * until the buffer is released by the caller.
+     */
+    public ByteArrayImageOutputStream(ByteArrayPool pool, int initialCapacity, ByteOrder byteOrder) {
+        this(pool.acquire(initialCapacity), 0, 0, byteOrder);
+        this.pool = pool;
+    }
+
+    /** Creates a stream which reuses the supplied buffer. When the buffer
+     * needs to grow, the larger buffer is acquired from the pool, and the
+     * supplied buffer is released.
+     */
+    public ByteArrayImageOutputStream(byte[] buf, ByteOrder byteOrder, ByteArrayPool pool) {
+        this(buf, byteOrder);
+        this.pool = pool;
+    }
+
     /**
      * Reads the next byte of data from this input stream. The value
      * byte is returned as an <code>int</code> in the range
@@ -238,7 +260,7 @@ public class ByteArrayImageOutputStream extends ImageOutputStreamImpl {
             throw new IndexOutOfBoundsException(newcount+" > max array size");
         }
         if (newcount > buf.length) {
-            buf = Arrays.copyOf(buf, max(buf.length << 1, (int) newcount));
+            growBuffer((int) newcount);
         }
         buf[(int) streamPos++] = (byte) b;
         count = (int)newcount;
@@ -273,13 +295,21 @@ public class ByteArrayImageOutputStream extends ImageOutputStreamImpl {
         }
         int newcount = max((int) streamPos + len, count);
         if (newcount > buf.length) {
-            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, newcount));
+            growBuffer(newcount);
         }
         System.arraycopy(b, off, buf, (int) streamPos, len);
         streamPos += len;
         count = newcount;
     }
 
+    private void growBuffer(int newcount) {
+        if (pool == null) {
+            buf = Arrays.copyOf(buf, max(buf.length << 1, newcount));
+        } else {
+            buf = pool.grow(buf, count, newcount);
+        }
+    }
+
     /** Writes the contents of the byte array into the specified output
      * stream.
      * @param out
@@ -0,0 +1,133 @@
+/*
+ * @(#)ByteArrayPool.java
+ */
+
+/**
+ * {@code ByteArrayPool} is a thread-safe pool of byte arrays, which are
+ * grouped in size classes.
+ * <p>
+ * The size classes are the powers of two from 1 KiB up to 64 MiB.
+ * {@link #acquire} returns an array with the length of the smallest size class
+ * which can hold the requested number of bytes. Arrays which are larger than
+ * the largest size class are allocated, but never pooled.
+ * <p>
+ * An array must be released with {@link #release(byte[])} when it is no
+ * longer used. After an array has been released, its previous owner must not
+ * access it anymore, because the array may be handed out to another owner.
+ * Arrays with a length which is not a size class are ignored on release.
+ * <p>
+ * Codecs use the pool for the data of their output {@code Buffer}s. The codec
+ * owns the array in {@code Buffer.data} and reuses it for the next sample.
+ * The owner of the {@code Buffer} hands the array back to the pool with
+ * {@link #release(Buffer)} when the buffer is no longer needed.
+ *
+ * @version 1.0 2026-10-19 Created.
+ */
+public class ByteArrayPool {
+
+    /** The size of the smallest size class is {@code 1 << MIN_SHIFT}. */
+    private final static int MIN_SHIFT = 10;
+    /** The size of the largest size class is {@code 1 << MAX_SHIFT}. */
+    private final static int MAX_SHIFT = 26;
+    private static ByteArrayPool instance;
+    /** Holds the free arrays of each size class. */
+    private final byte[][][] free;
+    /** Holds the number of free arrays in each size class. */
+    private final int[] freeCount;
+    /** The number of arrays allocated by this pool. */
+    private long allocationCount;
+
+    /** Creates a new pool.
+     *
+     * @param maxArraysPerClass The maximal number of free arrays, which are
+     * kept in each size class.
+     */
+    public ByteArrayPool(int maxArraysPerClass) {
+        free = new byte[MAX_SHIFT - MIN_SHIFT + 1][maxArraysPerClass][];
+        freeCount = new int[free.length];
+    }
+
+    /** Returns the shared pool. */
+    public static synchronized ByteArrayPool getInstance() {
+        if (instance == null) {
+            instance = new ByteArrayPool(8);
+        }
+        return instance;
+    }
+
+    /** Returns the size class of an array with the specified minimal length,
+     * or -1 if the length is too large for pooling. */
+    private static int sizeClass(int minLength) {
+        if (minLength <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(minLength - 1);
+        return shift > MAX_SHIFT ? -1 : shift - MIN_SHIFT;
+    }
+
+    /** Returns an array with at least the specified length. */
+    public byte[] acquire(int minLength) {
+        int c = sizeClass(minLength);
+        if (c != -1) {
+            synchronized (free[c]) {
+                if (freeCount[c] > 0) {
+                    byte[] b = free[c][--freeCount[c]];
+                    free[c][freeCount[c]] = null;
+                    return b;
+                }
+            }
+        }
+        synchronized (this) {
+            allocationCount++;
+        }
+        return new byte[c == -1 ? minLength : 1 << (c + MIN_SHIFT)];
+    }
+
+    /** Hands an array back to the pool. Does nothing if the array is null
+     * or if its length is not a size class of the pool. */
+    public void release(byte[] b) {
+        if (b == null || b.length < 1 << MIN_SHIFT || b.length > 1 << MAX_SHIFT
+                || Integer.bitCount(b.length) != 1) {
+            return;
+        }
+        int c = Integer.numberOfTrailingZeros(b.length) - MIN_SHIFT;
+        synchronized (free[c]) {
+            if (freeCount[c] < free[c].length) {
+                free[c][freeCount[c]++] = b;
+            }
+        }
+    }
+
+    /** Hands the data array of the buffer back to the pool, and sets the
+     * data of the buffer to null. Does nothing if the buffer does not hold
+     * a byte array. */
+    public void release(Buffer buf) {
+        if (buf != null && buf.data instanceof byte[]) {
+            byte[] b = (byte[]) buf.data;
+            buf.data = null;
+            release(b);
+        }
+    }
+
+    /** Replaces an array by a larger array from the pool. The first
+     * {@code used} bytes are copied into the new array. The old array is
+     * released.
+     *
+     * @param b The array.
+     * @param used The number of bytes which must be preserved.
+     * @param minLength The minimal length of the new array.
+     * @return The new array.
+     */
+    public byte[] grow(byte[] b, int used, int minLength) {
+        byte[] nb = acquire(Math.max(minLength, b.length << 1));
+        System.arraycopy(b, 0, nb, 0, used);
+        release(b);
+        return nb;
+    }
+
+    /** Returns the number of arrays which have been allocated by this pool.
+     * In a steady state, this number does not increase anymore. */
+    public synchronized long getAllocationCount() {
+        return allocationCount;
+    }
+}
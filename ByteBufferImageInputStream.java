@@ -0,0 +1,246 @@
+/*
+ * @(#)ByteBufferImageInputStream.java
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@code ByteBufferImageInputStream} reads from the remaining bytes of a
+ * {@code ByteBuffer}. The buffer can be a heap buffer or a direct buffer.
+ * <p>
+ * Unlike {@link ByteArrayImageInputStream}, the methods of this class are
+ * not synchronized. The stream is intended to be owned by a single codec
+ * instance, which reads from it from a single thread.
+ * <p>
+ * In addition to the methods of {@code ImageInputStream}, this class
+ * provides bulk methods for reading 24-bit integers. The bulk methods
+ * for shorts and ints read through a view of the buffer instead of
+ * reading byte by byte.
+ * <p>
+ * Closing a {@code ByteBufferImageInputStream} has no effect. The methods in
+ * this class can be called after the stream has been closed without
+ * generating an {@code IOException}.
+ *
+ * @version 1.0 2026-10-19 Created.
+ */
+public class ByteBufferImageInputStream extends ImageInputStreamImpl2 {
+
+    /** The buffer. Stream position 0 is at buffer index {@code start}.
+     * The position and limit of the buffer are not used. */
+    private final ByteBuffer buf;
+    /** Holds the array of a heap buffer, null for a direct buffer. */
+    private final byte[] array;
+    /** The array offset of a heap buffer. */
+    private final int arrayOffset;
+    /** The buffer index of stream position 0. */
+    private final int start;
+    /** The number of bytes in the stream. */
+    private final int count;
+
+    /** Creates a new stream which reads the bytes between the position
+     * and the limit of the specified buffer. The position of the buffer
+     * is not changed by the stream. */
+    public ByteBufferImageInputStream(ByteBuffer buf, ByteOrder byteOrder) {
+        this.buf = buf.duplicate();
+        this.start = buf.position();
+        this.count = buf.remaining();
+        if (buf.hasArray()) {
+            array = buf.array();
+            arrayOffset = buf.arrayOffset();
+        } else {
+            array = null;
+            arrayOffset = 0;
+        }
+        this.byteOrder = byteOrder;
+    }
+
+    public ByteBufferImageInputStream(byte[] buf, int offset, int length, ByteOrder byteOrder) {
+        this(ByteBuffer.wrap(buf, offset, length), byteOrder);
+    }
+
+    /** Prepares reading {@code len} bytes at the current stream position.
+     * Returns the buffer index of the stream position. */
+    private int prepareRead(int len) throws EOFException {
+        bitOffset = 0;
+        if (streamPos + len > count) {
+            throw new EOFException();
+        }
+        int pos = start + (int) streamPos;
+        streamPos += len;
+        return pos;
+    }
+
+    @Override
+    public int read() {
+        bitOffset = 0;
+        return (streamPos < count) ? (buf.get(start + (int) (streamPos++)) & 0xff) : -1;
+    }
+
+    @Override
+    public int read(byte b[], int off, int len) {
+        bitOffset = 0;
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (streamPos >= count) {
+            return -1;
+        }
+        if (streamPos + len > count) {
+            len = (int) (count - streamPos);
+        }
+        if (len <= 0) {
+            return 0;
+        }
+        if (array != null) {
+            System.arraycopy(array, arrayOffset + start + (int) streamPos, b, off, len);
+        } else {
+            ByteBuffer src = buf.duplicate();
+            src.position(start + (int) streamPos);
+            src.get(b, off, len);
+        }
+        streamPos += len;
+        return len;
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return buf.get(prepareRead(1)) & 0xff;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return buf.order(byteOrder).getShort(prepareRead(2));
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xffff;
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        return buf.order(byteOrder).getInt(prepareRead(4));
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        return buf.order(byteOrder).getLong(prepareRead(8));
+    }
+
+    @Override
+    public void readFully(short[] s, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > s.length || off + len < 0) {
+            throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > s.length!");
+        }
+        ByteBuffer src = buf.duplicate();
+        src.position(prepareRead(len * 2));
+        src.order(byteOrder).asShortBuffer().get(s, off, len);
+    }
+
+    @Override
+    public void readFully(int[] i, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > i.length || off + len < 0) {
+            throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > i.length!");
+        }
+        ByteBuffer src = buf.duplicate();
+        src.position(prepareRead(len * 4));
+        src.order(byteOrder).asIntBuffer().get(i, off, len);
+    }
+
+    /** Reads 24-bit integers in big endian order regardless of the byte
+     * order of the stream. */
+    public void readInts24(int[] i, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > i.length || off + len < 0) {
+            throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > i.length!");
+        }
+        int pos = prepareRead(len * 3);
+        if (array != null) {
+            byte[] b = array;
+            for (int j = off, end = off + len, k = arrayOffset + pos; j < end; j++, k += 3) {
+                i[j] = ((b[k] & 0xff) << 16) | ((b[k + 1] & 0xff) << 8) | (b[k + 2] & 0xff);
+            }
+        } else {
+            for (int j = off, end = off + len, k = pos; j < end; j++, k += 3) {
+                i[j] = ((buf.get(k) & 0xff) << 16) | ((buf.get(k + 1) & 0xff) << 8) | (buf.get(k + 2) & 0xff);
+            }
+        }
+    }
+
+    /** Reads 24-bit integers in little endian order regardless of the byte
+     * order of the stream. */
+    public void readInts24LE(int[] i, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > i.length || off + len < 0) {
+            throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > i.length!");
+        }
+        int pos = prepareRead(len * 3);
+        if (array != null) {
+            byte[] b = array;
+            for (int j = off, end = off + len, k = arrayOffset + pos; j < end; j++, k += 3) {
+                i[j] = (b[k] & 0xff) | ((b[k + 1] & 0xff) << 8) | ((b[k + 2] & 0xff) << 16);
+            }
+        } else {
+            for (int j = off, end = off + len, k = pos; j < end; j++, k += 3) {
+                i[j] = (buf.get(k) & 0xff) | ((buf.get(k + 1) & 0xff) << 8) | ((buf.get(k + 2) & 0xff) << 16);
+            }
+        }
+    }
+
+    /** Reads a 24-bit integer in little endian order regardless of the byte
+     * order of the stream. */
+    public int readInt24LE() throws IOException {
+        int pos = prepareRead(3);
+        return (buf.get(pos) & 0xff) | ((buf.get(pos + 1) & 0xff) << 8) | ((buf.get(pos + 2) & 0xff) << 16);
+    }
+
+    public long skip(long n) {
+        if (streamPos + n > count) {
+            n = count - streamPos;
+        }
+        if (n < 0) {
+            return 0;
+        }
+        streamPos += n;
+        return n;
+    }
+
+    public int available() {
+        return (int) (count - streamPos);
+    }
+
+    /**
+     * Closing a {@code ByteBufferImageInputStream} has no effect.
+     */
+    @Override
+    public void close() {
+        // does nothing!!
+    }
+
+    @Override
+    public long getStreamPosition() throws IOException {
+        checkClosed();
+        return streamPos;
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        checkClosed();
+        bitOffset = 0;
+
+        // This test also covers pos < 0
+        if (pos < flushedPos) {
+            throw new IndexOutOfBoundsException("pos < flushedPos!");
+        }
+
+        this.streamPos = pos;
+    }
+
+    @Override
+    public long length() {
+        return count;
+    }
+}
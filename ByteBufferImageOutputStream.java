@@ -0,0 +1,395 @@
+/*
+ * @(#)ByteBufferImageOutputStream.java
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.ImageOutputStreamImpl;
+import static java.lang.Math.*;
+
+/**
+ * This class implements an image output stream in which the data is
+ * written into a {@code ByteBuffer}. The buffer automatically grows as data
+ * is written to it. The buffer can be a heap buffer or a direct buffer.
+ * <p>
+ * Unlike {@link ByteArrayImageOutputStream}, the methods of this class are
+ * not synchronized. The stream is intended to be owned by a single codec
+ * instance, which writes to it from a single thread.
+ * <p>
+ * In addition to the methods of {@code ImageOutputStream}, this class
+ * provides bulk methods for writing 24-bit integers. The bulk methods
+ * for shorts and ints write through a view of the buffer instead of
+ * writing byte by byte.
+ * <p>
+ * Closing a {@code ByteBufferImageOutputStream} has no effect. The methods in
+ * this class can be called after the stream has been closed without
+ * generating an {@code IOException}.
+ *
+ * @version 1.0 2026-10-19 Created.
+ */
+public class ByteBufferImageOutputStream extends ImageOutputStreamImpl {
+
+    /** The buffer. Bytes 0 through {@code count-1} hold the stream data.
+     * The position and limit of the buffer are not used. */
+    private ByteBuffer buf;
+    /** Holds the array of a heap buffer, null for a direct buffer. */
+    private byte[] array;
+    /** The array offset of a heap buffer. */
+    private int arrayOffset;
+    /** The number of valid bytes in the buffer. */
+    private int count;
+    /** Whether the buffer is a direct buffer. */
+    private final boolean isDirect;
+
+    public ByteBufferImageOutputStream() {
+        this(16, false, ByteOrder.BIG_ENDIAN);
+    }
+
+    public ByteBufferImageOutputStream(ByteOrder byteOrder) {
+        this(16, false, byteOrder);
+    }
+
+    /** Creates a new stream.
+     *
+     * @param initialCapacity The initial capacity of the buffer.
+     * @param isDirect Whether a direct buffer shall be allocated.
+     * @param byteOrder The byte order of the stream.
+     */
+    public ByteBufferImageOutputStream(int initialCapacity, boolean isDirect, ByteOrder byteOrder) {
+        this.isDirect = isDirect;
+        setBuffer(allocate(max(16, initialCapacity)));
+        this.byteOrder = byteOrder;
+    }
+
+    /** Creates a new stream which writes into the specified buffer.
+     * The buffer is replaced by a larger buffer if it is too small.
+     *
+     * @param buf The buffer. The stream starts at index 0 of the buffer.
+     * @param byteOrder The byte order of the stream.
+     */
+    public ByteBufferImageOutputStream(ByteBuffer buf, ByteOrder byteOrder) {
+        this.isDirect = buf.isDirect();
+        setBuffer(buf);
+        this.byteOrder = byteOrder;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return isDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private void setBuffer(ByteBuffer newValue) {
+        buf = newValue;
+        if (buf.hasArray()) {
+            array = buf.array();
+            arrayOffset = buf.arrayOffset();
+        } else {
+            array = null;
+            arrayOffset = 0;
+        }
+    }
+
+    /** Ensures that the buffer can hold {@code newcount} bytes. */
+    private void ensureCapacity(long newcount) {
+        if (newcount > Integer.MAX_VALUE) {
+            throw new IndexOutOfBoundsException(newcount + " > max buffer size");
+        }
+        if (newcount > buf.capacity()) {
+            ByteBuffer newBuf = allocate((int) min(Integer.MAX_VALUE, max((long) buf.capacity() << 1, newcount)));
+            ByteBuffer src = buf.duplicate();
+            src.clear().limit(count);
+            newBuf.put(src);
+            newBuf.clear();
+            setBuffer(newBuf);
+        }
+    }
+
+    /** Prepares writing {@code len} bytes at the current stream position.
+     * Returns the buffer index of the stream position. */
+    private int prepareWrite(int len) throws IOException {
+        if (bitOffset != 0) {
+            flushBits();
+        }
+        ensureCapacity(streamPos + len);
+        return (int) streamPos;
+    }
+
+    /** Advances the stream position after writing {@code len} bytes. */
+    private void finishWrite(int len) {
+        streamPos += len;
+        if (streamPos > count) {
+            count = (int) streamPos;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        bitOffset = 0;
+        return (streamPos < count) ? (buf.get((int) (streamPos++)) & 0xff) : -1;
+    }
+
+    @Override
+    public int read(byte b[], int off, int len) throws IOException {
+        bitOffset = 0;
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (streamPos >= count) {
+            return -1;
+        }
+        if (streamPos + len > count) {
+            len = (int) (count - streamPos);
+        }
+        if (len <= 0) {
+            return 0;
+        }
+        if (array != null) {
+            System.arraycopy(array, arrayOffset + (int) streamPos, b, off, len);
+        } else {
+            ByteBuffer src = buf.duplicate();
+            src.position((int) streamPos);
+            src.get(b, off, len);
+        }
+        streamPos += len;
+        return len;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        int pos = prepareWrite(1);
+        if (array != null) {
+            array[arrayOffset + pos] = (byte) b;
+        } else {
+            buf.put(pos, (byte) b);
+        }
+        finishWrite(1);
+    }
+
+    @Override
+    public void write(byte b[], int off, int len) throws IOException {
+        if ((off < 0) || (off > b.length) || (len < 0)
+                || ((off + len) > b.length) || ((off + len) < 0)) {
+            throw new IndexOutOfBoundsException("off=" + off + ", len=" + len + ", b.length=" + b.length);
+        } else if (len == 0) {
+            return;
+        }
+        int pos = prepareWrite(len);
+        if (array != null) {
+            System.arraycopy(b, off, array, arrayOffset + pos, len);
+        } else {
+            ByteBuffer dst = buf.duplicate();
+            dst.position(pos);
+            dst.put(b, off, len);
+        }
+        finishWrite(len);
+    }
+
+    @Override
+    public void writeShort(int v) throws IOException {
+        int pos = prepareWrite(2);
+        buf.order(byteOrder).putShort(pos, (short) v);
+        finishWrite(2);
+    }
+
+    @Override
+    public void writeInt(int v) throws IOException {
+        int pos = prepareWrite(4);
+        buf.order(byteOrder).putInt(pos, v);
+        finishWrite(4);
+    }
+
+    @Override
+    public void writeShorts(short[] s, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > s.length || off + len < 0) {
+            throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > s.length!");
+        }
+        int pos = prepareWrite(len * 2);
+        ByteBuffer dst = buf.duplicate();
+        dst.position(pos);
+        dst.order(byteOrder).asShortBuffer().put(s, off, len);
+        finishWrite(len * 2);
+    }
+
+    @Override
+    public void writeInts(int[] i, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > i.length || off + len < 0) {
+            throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > i.length!");
+        }
+        int pos = prepareWrite(len * 4);
+        ByteBuffer dst = buf.duplicate();
+        dst.position(pos);
+        dst.order(byteOrder).asIntBuffer().put(i, off, len);
+        finishWrite(len * 4);
+    }
+
+    /** Writes the lower 24 bits of the specified ints in big endian order
+     * regardless of the byte order of the stream. */
+    public void writeInts24(int[] i, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > i.length || off + len < 0) {
+            throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > i.length!");
+        }
+        int pos = prepareWrite(len * 3);
+        if (array != null) {
+            byte[] b = array;
+            for (int j = off, end = off + len, k = arrayOffset + pos; j < end; j++, k += 3) {
+                int v = i[j];
+                b[k] = (byte) (v >>> 16);
+                b[k + 1] = (byte) (v >>> 8);
+                b[k + 2] = (byte) v;
+            }
+        } else {
+            for (int j = off, end = off + len, k = pos; j < end; j++, k += 3) {
+                int v = i[j];
+                buf.put(k, (byte) (v >>> 16));
+                buf.put(k + 1, (byte) (v >>> 8));
+                buf.put(k + 2, (byte) v);
+            }
+        }
+        finishWrite(len * 3);
+    }
+
+    /** Writes the lower 24 bits of the specified ints in little endian order
+     * regardless of the byte order of the stream. */
+    public void writeInts24LE(int[] i, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > i.length || off + len < 0) {
+            throw new IndexOutOfBoundsException("off < 0 || len < 0 || off + len > i.length!");
+        }
+        int pos = prepareWrite(len * 3);
+        if (array != null) {
+            byte[] b = array;
+            for (int j = off, end = off + len, k = arrayOffset + pos; j < end; j++, k += 3) {
+                int v = i[j];
+                b[k] = (byte) v;
+                b[k + 1] = (byte) (v >>> 8);
+                b[k + 2] = (byte) (v >>> 16);
+            }
+        } else {
+            for (int j = off, end = off + len, k = pos; j < end; j++, k += 3) {
+                int v = i[j];
+                buf.put(k, (byte) v);
+                buf.put(k + 1, (byte) (v >>> 8));
+                buf.put(k + 2, (byte) (v >>> 16));
+            }
+        }
+        finishWrite(len * 3);
+    }
+
+    /** Writes the lower 24 bits of the specified int in little endian order
+     * regardless of the byte order of the stream. */
+    public void writeInt24LE(int v) throws IOException {
+        int pos = prepareWrite(3);
+        if (array != null) {
+            int k = arrayOffset + pos;
+            array[k] = (byte) v;
+            array[k + 1] = (byte) (v >>> 8);
+            array[k + 2] = (byte) (v >>> 16);
+        } else {
+            buf.put(pos, (byte) v);
+            buf.put(pos + 1, (byte) (v >>> 8));
+            buf.put(pos + 2, (byte) (v >>> 16));
+        }
+        finishWrite(3);
+    }
+
+    /**
+     * Closing a {@code ByteBufferImageOutputStream} has no effect.
+     */
+    @Override
+    public void close() {
+        // does nothing!!
+    }
+
+    @Override
+    public long getStreamPosition() throws IOException {
+        checkClosed();
+        return streamPos;
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        checkClosed();
+        bitOffset = 0;
+
+        // This test also covers pos < 0
+        if (pos < flushedPos) {
+            throw new IndexOutOfBoundsException("pos < flushedPos!");
+        }
+
+        this.streamPos = pos;
+    }
+
+    @Override
+    public long length() {
+        return count;
+    }
+
+    /** Writes the contents of the buffer into the specified output
+     * stream. */
+    public void toOutputStream(OutputStream out) throws IOException {
+        if (array != null) {
+            out.write(array, arrayOffset, count);
+        } else {
+            byte[] b = new byte[min(count, 8192)];
+            ByteBuffer src = buf.duplicate();
+            src.clear().limit(count);
+            while (src.hasRemaining()) {
+                int len = min(b.length, src.remaining());
+                src.get(b, 0, len);
+                out.write(b, 0, len);
+            }
+        }
+    }
+
+    /** Writes the contents of the buffer into the specified image output
+     * stream. */
+    public void toImageOutputStream(ImageOutputStream out) throws IOException {
+        if (array != null) {
+            out.write(array, arrayOffset, count);
+        } else {
+            byte[] b = new byte[min(count, 8192)];
+            ByteBuffer src = buf.duplicate();
+            src.clear().limit(count);
+            while (src.hasRemaining()) {
+                int len = min(b.length, src.remaining());
+                src.get(b, 0, len);
+                out.write(b, 0, len);
+            }
+        }
+    }
+
+    /**
+     * Creates a newly allocated byte array. Its size is the current
+     * size of this output stream and the valid contents of the buffer
+     * have been copied into it.
+     */
+    public byte[] toByteArray() {
+        byte[] copy = new byte[count];
+        ByteBuffer src = buf.duplicate();
+        src.clear().limit(count);
+        src.get(copy);
+        return copy;
+    }
+
+    /** Returns a read-only view of the valid contents of the buffer.
+     * The view is invalidated when the stream grows. */
+    public ByteBuffer getByteBuffer() {
+        ByteBuffer view = buf.asReadOnlyBuffer();
+        view.clear().limit(count);
+        return view;
+    }
+
+    /**
+     * Discards all data in the stream. The stream can be used again,
+     * reusing the already allocated buffer space.
+     */
+    public void clear() {
+        count = 0;
+        streamPos = 0;
+        flushedPos = 0;
+        bitOffset = 0;
+    }
+}
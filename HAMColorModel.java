@@ -1,5 +1,5 @@
 /*
- * @(#)MultiShow.java  1.1  2006-12-25
+ * @(#)HAMColorModel.java  1.2  2026-10-19
  *
  * Copyright (c) 1999 Werner Randelshofer, Immensee, Switzerland.
  * All rights reserved.
@@ -15,7 +15,8 @@ import java.awt.image.DirectColorModel;
  * ColorModel for HAM compressed images.
  *
  * @author  Werner Randelshofer, Hausmatt 10, CH-6405 Immensee, Switzerland
- * @version 1.1 2006-12-25 New constructor added.
+ * @version 1.2 2026-10-19 Adds decode tables.
+ * <br>1.1 2006-12-25 New constructor added.
  * <br>1.0  1999-10-19
  */
 public class HAMColorModel extends DirectColorModel {
@@ -28,6 +29,13 @@ public class HAMColorModel extends DirectColorModel {
     protected int map_size;
     protected boolean opaque;
     protected int[] rgb;
+    /**
+     * The decode tables. A HAM value v, which is formed by the control bits
+     * and the data bits of a pixel, is decoded into
+     * {@code pixel = previousPixel & keepMasks[v] | setBits[v]}.
+     */
+    protected int[] keepMasks;
+    protected int[] setBits;
     
     /**
      * Creates a new HAM Color model using the specified base colors.
@@ -144,8 +152,62 @@ public class HAMColorModel extends DirectColorModel {
             | ((g[i] & 0xff) << 8)
             | (b[i] & 0xff);
         }
+        computeDecodeTables();
     }
     
+    /**
+     * Computes the decode tables from the base colors.
+     * <p>
+     * HAM6 values have 4 data bits and 2 control bits, HAM8 values have 6
+     * data bits and 2 control bits. Control value 0 selects a base color,
+     * control values 1, 2 and 3 modify the blue, red and green component of
+     * the previous pixel.
+     */
+    protected void computeDecodeTables() {
+        int dataBits = HAMType - 2;
+        int size = 1 << HAMType;
+        keepMasks = new int[size];
+        setBits = new int[size];
+        for (int v = 0; v < size; v++) {
+            int pixel = v & ((1 << dataBits) - 1);
+            int component;
+            if (HAMType == HAM6) {
+                component = pixel | pixel << 4;
+            } else {
+                component = pixel << 2;
+            }
+            switch (v >>> dataBits) {
+                case 0: // use indexed color
+                    keepMasks[v] = 0;
+                    setBits[v] = rgb[pixel];
+                    break;
+                case 1: // modify blue
+                    keepMasks[v] = 0xffffff00;
+                    setBits[v] = (HAMType == HAM6) ? component : component | pixel >>> 4;
+                    break;
+                case 2: // modify red
+                    keepMasks[v] = 0xff00ffff;
+                    setBits[v] = (HAMType == HAM6) ? component << 16 : (component | (pixel & 0x03)) << 16;
+                    break;
+                default: // modify green
+                    keepMasks[v] = 0xffff00ff;
+                    setBits[v] = (HAMType == HAM6) ? component << 8 : (component | (pixel & 0x03)) << 8;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Copies the decode tables into the given arrays. The arrays must have
+     * {@code 1 << getDepth()} entries. A HAM value v is decoded into
+     * {@code pixel = previousPixel & keepMasks[v] | setBits[v]}.
+     * The previous pixel of the first pixel of a scanline is 0xff000000.
+     */
+    final public void getDecodeTables(int keepMasks[], int setBits[]) {
+        System.arraycopy(this.keepMasks, 0, keepMasks, 0, this.keepMasks.length);
+        System.arraycopy(this.setBits, 0, setBits, 0, this.setBits.length);
+    }
+
     /**
      * Copies the array of red color components into the given array.  Only
      * the initial entries of the array as specified by getMapSize() are
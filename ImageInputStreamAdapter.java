@@ -26,6 +26,11 @@ public class ImageInputStreamAdapter extends FilterInputStream {
         this.iis=iis;
     }
 
+    /** Returns the underlying image input stream. */
+    public ImageInputStream getImageInputStream() {
+        return iis;
+    }
+
     /**
      * Reads the next byte of data from this input stream. The value
      * byte is returned as an <code>int</code> in the range
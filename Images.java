@@ -1,5 +1,5 @@
 /*
- * @(#)Images.java  2.2  2008-04-19
+ * @(#)Images.java  2.6  2026-10-19
  *
  * Copyright (c) 2005-2008 Werner Randelshofer, Immensee, Switzerland.
  * All rights reserved.
@@ -15,13 +15,18 @@ import java.awt.*;
 import java.awt.image.*;
 import java.net.*;
 
-import javax.swing.*;
-
 /**
  * Image processing methods.
  *
  * @author  Werner Randelshofer, Karl von Randow
- * @version 2.2 2008-04-19 Create graphiteFilter lazily. 
+ * @version 2.6 2026-10-19 toBufferedImage fails if the pixels can not be
+ * grabbed, instead of returning a blank image.
+ * <br>2.5 2026-10-19 Reimplements toGraphite with a bulk RGB filter,
+ * adds toGray.
+ * <br>2.4 2026-10-19 Adds method tile() and class TileIterator.
+ * <br>2.3 2026-10-19 toBufferedImage determines the compatible image
+ * type only once, and can convert into a destination image.
+ * <br>2.2 2008-04-19 Create graphiteFilter lazily. 
  * <br>2.1 2007-07-25 Added method toBufferedImage(RenderedImage).
  * <br>2.0 2006-12-24 by Karl von Randow: On the fly conversion from Aqua
  * Blue to Aqua Graphite appearance added.
@@ -36,15 +41,25 @@ public class Images {
     /** Prevent instance creation. */
     private Images() {
     }
-    /*
-    private static GraphiteFilter graphiteFilter;
-    
-    private static GraphiteFilter getGraphiteFilter() {
+
+    private static RGBMatrixFilter graphiteFilter;
+    private static RGBMatrixFilter grayFilter;
+
+    private static synchronized RGBMatrixFilter getGraphiteFilter() {
         if (graphiteFilter == null) {
-            graphiteFilter = new GraphiteFilter();
+            graphiteFilter = RGBMatrixFilter.createGraphiteFilter();
+            graphiteFilter.setParallel(true);
         }
         return graphiteFilter;
-    }*/
+    }
+
+    private static synchronized RGBMatrixFilter getGrayFilter() {
+        if (grayFilter == null) {
+            grayFilter = RGBMatrixFilter.createGrayFilter();
+            grayFilter.setParallel(true);
+        }
+        return grayFilter;
+    }
     
     public static Image createImage(Class baseClass, String location) {
         URL resource = baseClass.getResource(location);
@@ -88,63 +103,24 @@ public class Images {
             file = file.substring(i + 1);
         }
         return canGraphite.containsKey(file);
-    }
-    
-    /**
-     * This method returns a buffered image with the contents of an image.
-     *
-     * Code derived from the Java Developers Almanac 1.4
-     * http://javaalmanac.com/egs/java.awt.image/Image2Buf.html?l=rel
-     * /
-    private static Image toGraphite(Image image) {
-        return Toolkit.getDefaultToolkit().
-                createImage(new FilteredImageSource(image.getSource(), getGraphiteFilter()));
     }*/
-    
+
     /**
-     * Based on a code example from:
-     * http://tams-www.informatik.uni-hamburg.de/applets/hades/webdemos/00-intro/02-imageprocessing/saturation.html
-     * author karlvr
-     *
-     * /
-    public static class GraphiteFilter extends RGBImageFilter {
-        private final static float saturationAdjust = 0.179f;
-        private static float hueAdjust = 0.0052f;
-        private static float brightnessAdjust = 0.09f;
-        
-        
-        private float[] hsb = new float[3];
-        
-        public int filterRGB(int x, int y, int rgb) {
-            int alpha = rgb & 0xff000000;
-            int red = (rgb >> 16) & 0xff;
-            int green = (rgb >> 8) & 0xff;
-            int blue = rgb & 0xff;
-            /*
-            float RW = (1f - saturationAdjust) * 0.3086f; // or 0.299 for YIV values
-            float RG = (1f - saturationAdjust) * 0.6084f; // or 0.587 for YIV values
-            float RB = (1f - saturationAdjust) * 0.0820f; // or 0.114 for YIV values
-             * /
-            float RW = (1f - saturationAdjust) * 0.333f; // or 0.299 for YIV values
-            float RG = (1f - saturationAdjust) * 0.333f; // or 0.587 for YIV values
-            float RB = (1f - saturationAdjust) * 0.333f; // or 0.114 for YIV values
-            
-            float a = RW + saturationAdjust;
-            float b = RW;
-            float c = RW;
-            float d = RG;
-            float e = RG + saturationAdjust;
-            float f = RG;
-            float g = RB;
-            float h = RB;
-            float i = RB + saturationAdjust;
-            
-            int outputRed   = (int) (a*red + d*green + g*blue);
-            int outputGreen = (int) (b*red + e*green + h*blue);
-            int outputBlue  = (int) (c*red + f*green + i*blue);
-            return alpha | (outputRed << 16) | (outputGreen << 8) | (outputBlue);
-        }
-    }*/
+     * Converts an image from the Aqua Blue appearance into the Aqua Graphite
+     * appearance. The image is filtered with a bulk RGB filter into a new
+     * image.
+     */
+    public static BufferedImage toGraphite(Image image) {
+        return getGraphiteFilter().filter(toBufferedImage(image), null);
+    }
+
+    /**
+     * Converts an image into shades of gray. The image is filtered with a
+     * bulk RGB filter into a new image.
+     */
+    public static BufferedImage toGray(Image image) {
+        return getGrayFilter().filter(toBufferedImage(image), null);
+    }
 
     /** Converts the image to a buffered image. */
     public static BufferedImage toBufferedImage(RenderedImage rImg) {
@@ -183,25 +159,94 @@ public class Images {
         return image;
     }
     
+    /**
+     * The image types, which toBufferedImage uses for opaque and for
+     * translucent images. They are determined once by getCompatibleType.
+     */
+    private static int opaqueType, translucentType;
+    private static boolean isTypeDetermined;
+
+    /**
+     * Returns the type of a buffered image, which is compatible with the
+     * screen. Returns an integer RGB type if the system has no screen, or
+     * if the compatible image has a custom type.
+     * The GraphicsEnvironment is only queried on the first call.
+     */
+    private static synchronized int getCompatibleType(boolean hasAlpha) {
+        if (!isTypeDetermined) {
+            opaqueType = BufferedImage.TYPE_INT_RGB;
+            translucentType = BufferedImage.TYPE_INT_ARGB;
+            if (System.getProperty("java.version").startsWith("1.4.1_")) {
+                // Workaround for Java 1.4.1 on Mac OS X.
+                // For this JVM, we always create an ARGB image to prevent a class
+                // cast exception in
+                // sun.awt.image.BufImgSurfaceData.createData(BufImgSurfaceData.java:434)
+                // when we attempt to draw the buffered image.
+                opaqueType = BufferedImage.TYPE_INT_ARGB;
+            } else if (!GraphicsEnvironment.isHeadless()) {
+                try {
+                    GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+                    int type = gc.createCompatibleImage(1, 1, Transparency.OPAQUE).getType();
+                    if (type != BufferedImage.TYPE_CUSTOM) {
+                        opaqueType = type;
+                    }
+                    type = gc.createCompatibleImage(1, 1, Transparency.TRANSLUCENT).getType();
+                    if (type != BufferedImage.TYPE_CUSTOM) {
+                        translucentType = type;
+                    }
+                } catch (Exception e) {
+                    //} catch (HeadlessException e) {
+                    // The system does not have a screen
+                }
+            }
+            isTypeDetermined = true;
+        }
+        return hasAlpha ? translucentType : opaqueType;
+    }
+
     public static BufferedImage toBufferedImage(Image image) {
-        if (image instanceof BufferedImage) {
-            return (BufferedImage)image;
+        return toBufferedImage(image, null);
+    }
+
+    /**
+     * Converts the image into a buffered image.
+     * <p>
+     * The pixels are copied into the destination image, if it is not
+     * null and has the same size as the image. Otherwise a new buffered
+     * image is created, with a type that is compatible with the screen.
+     * If the image is a buffered image and no destination is given, the
+     * image is returned.
+     * <p>
+     * Other images are converted with a PixelGrabber, which waits until
+     * all pixels of the image are loaded. If the destination has an integer
+     * RGB or ARGB raster, the pixels are grabbed directly into the raster.
+     *
+     * @param image The image.
+     * @param dest The destination image, or null.
+     * @return The destination image or a new image.
+     * @throws IllegalArgumentException if the image could not be loaded.
+     * @throws IllegalStateException if the current thread has been
+     * interrupted while it waited for the pixels. The interrupt status of
+     * the thread is set again.
+     */
+    public static BufferedImage toBufferedImage(Image image, BufferedImage dest) {
+        if (dest == null && (image instanceof BufferedImage)) {
+            return (BufferedImage) image;
         }
-        
-        // This code ensures that all the pixels in the image are loaded
-        image = new ImageIcon(image).getImage();
-        
-        // Create a buffered image with a format that's compatible with the screen
-        BufferedImage bimage = null;
-        
-        if (System.getProperty("java.version").startsWith("1.4.1_")) {
-            // Workaround for Java 1.4.1 on Mac OS X.
-            // For this JVM, we always create an ARGB image to prevent a class
-            // cast exception in
-            // sun.awt.image.BufImgSurfaceData.createData(BufImgSurfaceData.java:434)
-            // when we attempt to draw the buffered image.
-            bimage = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
-        } else {
+
+        int width = image.getWidth(null);
+        int height = image.getHeight(null);
+        int[] pixels = null;
+        if (width < 0 || height < 0) {
+            // The size is not known until the image has been loaded
+            PixelGrabber pg = new PixelGrabber(image, 0, 0, -1, -1, true);
+            grabPixels(pg);
+            width = pg.getWidth();
+            height = pg.getHeight();
+            pixels = (int[]) pg.getPixels();
+        }
+
+        if (dest == null || dest.getWidth() != width || dest.getHeight() != height) {
             // Determine if the image has transparent pixels; for this method's
             // implementation, see e661 Determining If an Image Has Transparent Pixels
             boolean hasAlpha;
@@ -212,45 +257,32 @@ public class Images {
                 // in order not to loose data.
                 hasAlpha = true;
             }
-            
-            
-            GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-            try {
-                // Determine the type of transparency of the new buffered image
-                int transparency = Transparency.OPAQUE;
-                if (hasAlpha) {
-                    transparency = Transparency.TRANSLUCENT;
-                }
-                
-                // Create the buffered image
-                GraphicsDevice gs = ge.getDefaultScreenDevice();
-                GraphicsConfiguration gc = gs.getDefaultConfiguration();
-                bimage = gc.createCompatibleImage(
-                        image.getWidth(null), image.getHeight(null), transparency);
-            } catch (Exception e) {
-                //} catch (HeadlessException e) {
-                // The system does not have a screen
-            }
-            
-            if (bimage == null) {
-                // Create a buffered image using the default color model
-                int type = BufferedImage.TYPE_INT_RGB;
-                if (hasAlpha) {
-                    type = BufferedImage.TYPE_INT_ARGB;
-                }
-                bimage = new BufferedImage(image.getWidth(null), image.getHeight(null), type);
-            }
+            dest = new BufferedImage(width, height, getCompatibleType(hasAlpha));
         }
-        
-        // Copy image to buffered image
-        Graphics g = bimage.createGraphics();
-        
-        // Paint the image onto the buffered image
-        g.drawImage(image, 0, 0, null);
-        g.dispose();
-        
-        return bimage;
-        
+
+        if (pixels != null) {
+            dest.setRGB(0, 0, width, height, pixels, 0, width);
+        } else if (image instanceof BufferedImage) {
+            Graphics2D g = dest.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+        } else if (dest.getType() == BufferedImage.TYPE_INT_RGB
+                || dest.getType() == BufferedImage.TYPE_INT_ARGB) {
+            WritableRaster r = dest.getRaster();
+            DataBufferInt db = (DataBufferInt) r.getDataBuffer();
+            int scanlineStride = ((SinglePixelPackedSampleModel) r.getSampleModel()).getScanlineStride();
+            int offset = db.getOffset()
+                    - r.getSampleModelTranslateY() * scanlineStride
+                    - r.getSampleModelTranslateX();
+            grabPixels(new PixelGrabber(image, 0, 0, width, height, db.getData(), offset, scanlineStride));
+        } else {
+            pixels = new int[width * height];
+            grabPixels(new PixelGrabber(image, 0, 0, width, height, pixels, 0, width));
+            dest.setRGB(0, 0, width, height, pixels, 0, width);
+        }
+        return dest;
+
         // My own implementation:
         /*
         if (image instanceof BufferedImage) {
@@ -281,6 +313,26 @@ public class Images {
         }*/
     }
     
+    /** Grabs the pixels. Waits until the image has been loaded.
+     *
+     * @throws IllegalArgumentException if loading the image failed or has
+     * been aborted.
+     * @throws IllegalStateException if the current thread has been
+     * interrupted.
+     */
+    private static void grabPixels(PixelGrabber pg) {
+        boolean success;
+        try {
+            success = pg.grabPixels();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while grabbing pixels");
+        }
+        if (!success || (pg.getStatus() & (ImageObserver.ABORT | ImageObserver.ERROR)) != 0) {
+            throw new IllegalArgumentException("Could not grab pixels, status=0x" + Integer.toHexString(pg.getStatus()));
+        }
+    }
+
     /**
      * This method returns true if the specified image has transparent pixels
      *
@@ -300,15 +352,21 @@ public class Images {
         try {
             pg.grabPixels();
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
         
-        // Get the image's color model
+        // Get the image's color model. If it is not known, we assume that
+        // we have an alpha, in order not to loose data.
         ColorModel cm = pg.getColorModel();
-        return cm.hasAlpha();
+        return cm == null || cm.hasAlpha();
     }
     
     /**
      * Splits an image into count subimages.
+     * <p>
+     * The subimages are views, which share the raster of the image, if the
+     * image is a buffered image. Otherwise the image is converted into a
+     * buffered image first.
      */
     public static BufferedImage[] split(Image image, int count, boolean isHorizontal) {
         BufferedImage src = Images.toBufferedImage(image);
@@ -332,6 +390,179 @@ public class Images {
         }
         return parts;
     }
+    /**
+     * Cuts an image into tiles of the specified size. The tiles at the right
+     * and at the bottom edge are smaller, if the image size is not a
+     * multiple of the tile size. The tiles are returned row by row.
+     * <p>
+     * The tiles are views, which share the raster of the image. Use a
+     * {@link TileIterator} to iterate over the tiles without creating
+     * views.
+     */
+    public static BufferedImage[] tile(BufferedImage image, int tileWidth, int tileHeight) {
+        if (tileWidth < 1 || tileHeight < 1) {
+            throw new IllegalArgumentException("Illegal tile size " + tileWidth + "x" + tileHeight);
+        }
+        int columns = (image.getWidth() + tileWidth - 1) / tileWidth;
+        int rows = (image.getHeight() + tileHeight - 1) / tileHeight;
+        BufferedImage[] tiles = new BufferedImage[columns * rows];
+        for (int row = 0, i = 0; row < rows; row++) {
+            int y = row * tileHeight;
+            for (int column = 0; column < columns; column++, i++) {
+                int x = column * tileWidth;
+                tiles[i] = image.getSubimage(x, y,
+                        Math.min(tileWidth, image.getWidth() - x),
+                        Math.min(tileHeight, image.getHeight() - y));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Iterates over the tiles of a buffered image.
+     * <p>
+     * The iterator exposes each tile as the data array of the image raster,
+     * the offset of the top left pixel of the tile, and the scanline stride.
+     * These are the arguments, which the encodeKey and encodeDelta methods
+     * of the codecs accept. The image must have a single bank raster with
+     * one array element per pixel, e.g. TYPE_INT_RGB, TYPE_USHORT_555_RGB
+     * or TYPE_BYTE_INDEXED.
+     * <p>
+     * An iterator can be reused for all frames of a movie, it allocates no
+     * objects after it has been created.
+     * <pre>
+     * TileIterator tiles = new TileIterator(64, 64);
+     * for (tiles.reset(image); tiles.next(); ) {
+     *     codec.encodeKey24(out, (int[]) tiles.getData(), tiles.getWidth(),
+     *         tiles.getHeight(), tiles.getOffset(), tiles.getScanlineStride());
+     * }
+     * </pre>
+     */
+    public static class TileIterator {
+
+        private final int tileWidth, tileHeight;
+        private Object data;
+        /** The offset of the pixel at image coordinate 0,0 in the data array. */
+        private int baseOffset;
+        private int scanlineStride;
+        private int imageWidth, imageHeight;
+        private int x, y, width, height;
+
+        public TileIterator(int tileWidth, int tileHeight) {
+            if (tileWidth < 1 || tileHeight < 1) {
+                throw new IllegalArgumentException("Illegal tile size " + tileWidth + "x" + tileHeight);
+            }
+            this.tileWidth = tileWidth;
+            this.tileHeight = tileHeight;
+        }
+
+        /**
+         * Starts the iteration over the tiles of the specified image.
+         * The first call to {@link #next} moves to the first tile.
+         */
+        public void reset(BufferedImage image) {
+            WritableRaster r = image.getRaster();
+            DataBuffer db = r.getDataBuffer();
+            SampleModel sm = r.getSampleModel();
+            if (db.getNumBanks() != 1 || sm.getNumDataElements() != 1) {
+                throw new IllegalArgumentException("Unsupported raster " + sm);
+            }
+            switch (db.getDataType()) {
+                case DataBuffer.TYPE_INT:
+                    data = ((DataBufferInt) db).getData();
+                    break;
+                case DataBuffer.TYPE_USHORT:
+                    data = ((DataBufferUShort) db).getData();
+                    break;
+                case DataBuffer.TYPE_SHORT:
+                    data = ((DataBufferShort) db).getData();
+                    break;
+                case DataBuffer.TYPE_BYTE:
+                    data = ((DataBufferByte) db).getData();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported data buffer " + db);
+            }
+            if (sm instanceof SinglePixelPackedSampleModel) {
+                SinglePixelPackedSampleModel spsm = (SinglePixelPackedSampleModel) sm;
+                scanlineStride = spsm.getScanlineStride();
+                baseOffset = spsm.getOffset(-r.getSampleModelTranslateX(), -r.getSampleModelTranslateY());
+            } else if (sm instanceof ComponentSampleModel
+                    && ((ComponentSampleModel) sm).getPixelStride() == 1) {
+                ComponentSampleModel csm = (ComponentSampleModel) sm;
+                scanlineStride = csm.getScanlineStride();
+                baseOffset = csm.getOffset(-r.getSampleModelTranslateX(), -r.getSampleModelTranslateY());
+            } else {
+                throw new IllegalArgumentException("Unsupported sample model " + sm);
+            }
+            baseOffset += db.getOffset();
+            imageWidth = image.getWidth();
+            imageHeight = image.getHeight();
+            x = -tileWidth;
+            y = 0;
+            width = height = 0;
+        }
+
+        /**
+         * Moves to the next tile. Tiles are visited row by row.
+         *
+         * @return True if there is a tile, false if all tiles have been
+         * visited.
+         */
+        public boolean next() {
+            x += tileWidth;
+            if (x >= imageWidth) {
+                x = 0;
+                y += tileHeight;
+            }
+            if (y >= imageHeight || imageWidth == 0) {
+                width = height = 0;
+                return false;
+            }
+            width = Math.min(tileWidth, imageWidth - x);
+            height = Math.min(tileHeight, imageHeight - y);
+            return true;
+        }
+
+        /** Returns the data array of the image raster. This is an int[],
+         * short[] or byte[] array. */
+        public Object getData() {
+            return data;
+        }
+
+        /** Returns the index of the top left pixel of the tile in the data
+         * array. */
+        public int getOffset() {
+            return baseOffset + y * scanlineStride + x;
+        }
+
+        /** Returns the number of array elements between a pixel and the
+         * pixel in the same column of the next scanline. */
+        public int getScanlineStride() {
+            return scanlineStride;
+        }
+
+        /** Returns the x coordinate of the tile in the image. */
+        public int getX() {
+            return x;
+        }
+
+        /** Returns the y coordinate of the tile in the image. */
+        public int getY() {
+            return y;
+        }
+
+        /** Returns the width of the tile. */
+        public int getWidth() {
+            return width;
+        }
+
+        /** Returns the height of the tile. */
+        public int getHeight() {
+            return height;
+        }
+    }
+
         /** Converts the image into a format that can be handled easier. */
     public static BufferedImage toIntImage(BufferedImage img) {
         if (img.getRaster().getDataBuffer() instanceof DataBufferInt) {
@@ -0,0 +1,292 @@
+/*
+ * @(#)KeyFramePolicy.java
+ */
+
+import java.util.EnumMap;
+import static java.lang.Math.*;
+
+/**
+ * {@code KeyFramePolicy} decides when a video encoder emits a key frame.
+ * <p>
+ * Instead of writing a key frame every n-th frame, the policy places key
+ * frames where they pay off:
+ * <ul>
+ * <li>The first frame after a reset is always a key frame.</li>
+ * <li>A key frame is forced if {@code maxInterval} frames have been encoded
+ * since the last key frame. This bounds the seek time.</li>
+ * <li>A key frame is emitted on a scene change, that is when a large fraction
+ * of the pixels differs from the previous frame.</li>
+ * <li>A key frame is emitted if an encoded delta frame is almost as large as
+ * the last key frame. The delta frame buys nothing in this case.</li>
+ * </ul>
+ * Scene changes and large delta frames only result in a key frame if at least
+ * {@code minInterval} frames have been encoded since the last key frame.
+ * <p>
+ * Usage in an encoder:
+ * <pre>
+ * boolean isKeyframe = policy.isKeyFrameRequired()
+ *         || policy.isSceneChange(pixels, prev, width, height, offset, scanlineStride);
+ * if (!isKeyframe) {
+ *     encodeDelta(tmp, ...);
+ *     if (policy.isDeltaTooLarge(tmp.size())) {
+ *         tmp.reset();
+ *         isKeyframe = true;
+ *     }
+ * }
+ * if (isKeyframe) {
+ *     encodeKey(tmp, ...);
+ * }
+ * policy.frameEncoded(isKeyframe, tmp.size());
+ * </pre>
+ * The decision made for the most recent frame is available through
+ * {@link #getLastDecision}, the number of frames per decision through
+ * {@link #getDecisionCount}.
+ *
+ * @version 1.0 2026-10-19 Created.
+ */
+public class KeyFramePolicy {
+
+    /** The reason for encoding a frame as a key frame or as a delta frame. */
+    public static enum Decision {
+
+        /** Key frame, because it is the first frame. */
+        FIRST_FRAME,
+        /** Key frame, because the maximal key frame interval was reached. */
+        MAX_INTERVAL,
+        /** Key frame, because a scene change was detected. */
+        SCENE_CHANGE,
+        /** Key frame, because the delta frame was not smaller than a key frame. */
+        DELTA_TOO_LARGE,
+        /** Delta frame. */
+        DELTA
+    }
+    /** Number of pixels skipped horizontally when sampling for scene changes. */
+    private final static int SAMPLE_STEP_X = 7;
+    /** Number of scanlines skipped when sampling for scene changes. */
+    private final static int SAMPLE_STEP_Y = 5;
+    private int minInterval;
+    private int maxInterval;
+    /** A delta frame is replaced by a key frame if its size is larger than
+     * {@code deltaRatio} times the size of the last key frame. */
+    private float deltaRatio = 0.8f;
+    /** A scene change is detected if the fraction of changed sample pixels
+     * is larger than this value. */
+    private float sceneChangeThreshold = 0.5f;
+    private int framesSinceKeyFrame;
+    private long lastKeyFrameSize;
+    private Decision pendingDecision;
+    private Decision lastDecision;
+    private EnumMap<Decision, Integer> decisionCounts = new EnumMap<Decision, Integer>(Decision.class);
+
+    /** Creates a new policy.
+     *
+     * @param minInterval The minimal number of frames between two key frames
+     * which are caused by scene changes or large delta frames.
+     * @param maxInterval The maximal number of frames between two key frames.
+     */
+    public KeyFramePolicy(int minInterval, int maxInterval) {
+        if (minInterval < 1 || maxInterval < minInterval) {
+            throw new IllegalArgumentException("Illegal intervals: min=" + minInterval + ", max=" + maxInterval);
+        }
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        reset();
+    }
+
+    /** Creates a policy for the specified output format of a codec.
+     * <p>
+     * If the format has a {@code KeyFrameIntervalKey}, its value is used
+     * as the maximal interval. Otherwise the maximal interval is ten seconds.
+     * The minimal interval is a quarter of a second.
+     */
+    public static KeyFramePolicy forFormat(Format f) {
+        int frameRate = max(1, f.get(VideoFormatKeys.FrameRateKey).intValue());
+        int maxInterval = max(1, f.get(VideoFormatKeys.KeyFrameIntervalKey, frameRate * 10));
+        return new KeyFramePolicy(min(maxInterval, max(1, frameRate / 4)), maxInterval);
+    }
+
+    /** Resets the policy, so that the next frame will be a key frame. */
+    public void reset() {
+        framesSinceKeyFrame = 0;
+        lastKeyFrameSize = 0;
+        pendingDecision = Decision.FIRST_FRAME;
+        lastDecision = null;
+    }
+
+    /** Returns true if the next frame must be a key frame regardless of its
+     * content. This is the case for the first frame and when the maximal key
+     * frame interval has been reached.
+     */
+    public boolean isKeyFrameRequired() {
+        if (pendingDecision == Decision.FIRST_FRAME) {
+            return true;
+        }
+        if (framesSinceKeyFrame >= maxInterval) {
+            pendingDecision = Decision.MAX_INTERVAL;
+            return true;
+        }
+        return false;
+    }
+
+    /** Returns true if the minimal interval allows an adaptive key frame. */
+    private boolean isAdaptiveKeyFrameAllowed() {
+        return framesSinceKeyFrame >= minInterval;
+    }
+
+    /** Returns true if the frame differs so much from the previous frame,
+     * that it should be encoded as a key frame.
+     *
+     * @param data The image data.
+     * @param prev The image data of the previous frame. May be null.
+     * @param width The width of the image in data elements.
+     * @param height The height of the image in data elements.
+     * @param offset The offset to the first pixel in the data array.
+     * @param scanlineStride The number to add to offset to get to the next scanline.
+     */
+    public boolean isSceneChange(byte[] data, byte[] prev, int width, int height, int offset, int scanlineStride) {
+        if (prev == null || !isAdaptiveKeyFrameAllowed()) {
+            return false;
+        }
+        int samples = 0, changed = 0;
+        for (int y = 0; y < height; y += SAMPLE_STEP_Y) {
+            for (int xy = offset + y * scanlineStride, xymax = xy + width; xy < xymax; xy += SAMPLE_STEP_X) {
+                samples++;
+                if (data[xy] != prev[xy]) {
+                    changed++;
+                }
+            }
+        }
+        return sceneChanged(samples, changed);
+    }
+
+    /** Returns true if the frame differs so much from the previous frame,
+     * that it should be encoded as a key frame.
+     *
+     * @see #isSceneChange(byte[], byte[], int, int, int, int)
+     */
+    public boolean isSceneChange(short[] data, short[] prev, int width, int height, int offset, int scanlineStride) {
+        if (prev == null || !isAdaptiveKeyFrameAllowed()) {
+            return false;
+        }
+        int samples = 0, changed = 0;
+        for (int y = 0; y < height; y += SAMPLE_STEP_Y) {
+            for (int xy = offset + y * scanlineStride, xymax = xy + width; xy < xymax; xy += SAMPLE_STEP_X) {
+                samples++;
+                if (data[xy] != prev[xy]) {
+                    changed++;
+                }
+            }
+        }
+        return sceneChanged(samples, changed);
+    }
+
+    /** Returns true if the frame differs so much from the previous frame,
+     * that it should be encoded as a key frame.
+     *
+     * @see #isSceneChange(byte[], byte[], int, int, int, int)
+     */
+    public boolean isSceneChange(int[] data, int[] prev, int width, int height, int offset, int scanlineStride) {
+        if (prev == null || !isAdaptiveKeyFrameAllowed()) {
+            return false;
+        }
+        int samples = 0, changed = 0;
+        for (int y = 0; y < height; y += SAMPLE_STEP_Y) {
+            for (int xy = offset + y * scanlineStride, xymax = xy + width; xy < xymax; xy += SAMPLE_STEP_X) {
+                samples++;
+                if (data[xy] != prev[xy]) {
+                    changed++;
+                }
+            }
+        }
+        return sceneChanged(samples, changed);
+    }
+
+    private boolean sceneChanged(int samples, int changed) {
+        if (samples > 0 && changed > samples * sceneChangeThreshold) {
+            pendingDecision = Decision.SCENE_CHANGE;
+            return true;
+        }
+        return false;
+    }
+
+    /** Returns true if an encoded delta frame of the specified size should
+     * be replaced by a key frame.
+     *
+     * @param deltaSize The size of the encoded delta frame in bytes.
+     */
+    public boolean isDeltaTooLarge(long deltaSize) {
+        if (lastKeyFrameSize > 0 && isAdaptiveKeyFrameAllowed()
+                && deltaSize > lastKeyFrameSize * deltaRatio) {
+            pendingDecision = Decision.DELTA_TOO_LARGE;
+            return true;
+        }
+        return false;
+    }
+
+    /** Informs the policy about an encoded frame. This must be called
+     * once for every frame.
+     *
+     * @param isKeyframe Whether the frame was encoded as a key frame.
+     * @param size The size of the encoded frame in bytes.
+     */
+    public void frameEncoded(boolean isKeyframe, long size) {
+        if (isKeyframe) {
+            framesSinceKeyFrame = 1;
+            lastKeyFrameSize = size;
+            lastDecision = pendingDecision == null ? Decision.MAX_INTERVAL : pendingDecision;
+        } else {
+            framesSinceKeyFrame++;
+            lastDecision = Decision.DELTA;
+        }
+        pendingDecision = null;
+        Integer count = decisionCounts.get(lastDecision);
+        decisionCounts.put(lastDecision, count == null ? 1 : count + 1);
+    }
+
+    /** Returns the decision made for the most recently encoded frame, or
+     * null if no frame has been encoded since the last reset. */
+    public Decision getLastDecision() {
+        return lastDecision;
+    }
+
+    /** Returns the number of frames which have been encoded with the specified
+     * decision. The counts are not cleared by {@link #reset}. */
+    public int getDecisionCount(Decision d) {
+        Integer count = decisionCounts.get(d);
+        return count == null ? 0 : count;
+    }
+
+    public int getMinInterval() {
+        return minInterval;
+    }
+
+    public int getMaxInterval() {
+        return maxInterval;
+    }
+
+    public float getDeltaRatio() {
+        return deltaRatio;
+    }
+
+    /** Sets the size ratio between a delta frame and the last key frame
+     * above which the delta frame is replaced by a key frame. */
+    public void setDeltaRatio(float newValue) {
+        this.deltaRatio = newValue;
+    }
+
+    public float getSceneChangeThreshold() {
+        return sceneChangeThreshold;
+    }
+
+    /** Sets the fraction of changed pixels above which a frame is considered
+     * to be a scene change. */
+    public void setSceneChangeThreshold(float newValue) {
+        this.sceneChangeThreshold = newValue;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyFramePolicy{" + "minInterval=" + minInterval + ", maxInterval=" + maxInterval
+                + ", lastDecision=" + lastDecision + ", decisions=" + decisionCounts + '}';
+    }
+}
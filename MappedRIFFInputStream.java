@@ -0,0 +1,197 @@
+/*
+ * @(#)MappedRIFFInputStream.java
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A RIFF primitives input stream which reads from a memory mapped file.
+ * <p>
+ * The file is mapped in segments, because a single mapping can not be larger
+ * than 2 GB. The segments are mapped when they are first accessed. Adjacent
+ * segments overlap by a few bytes, so that primitive values never have to
+ * be assembled from two segments.
+ * <p>
+ * {@link #slice} returns chunk payloads as read-only buffers which share
+ * their content with the mapping. A payload which crosses a segment boundary
+ * gets a mapping of its own. The buffers stay valid after the channel has
+ * been closed.
+ *
+ * @version 1.0 2026-10-19 Created.
+ */
+public class MappedRIFFInputStream extends RIFFPrimitivesInputStream {
+
+    /** Overlap of adjacent segments. Must be at least the size of the
+     * largest primitive value. */
+    private final static int OVERLAP = 8;
+    private final FileChannel channel;
+    private final long length;
+    private final int segmentShift;
+    private final MappedByteBuffer[] segments;
+    private long mark;
+
+    /** Creates a new stream which maps the file in segments of 1 GB.
+     * Stream position 0 is at file position 0. */
+    public MappedRIFFInputStream(FileChannel channel) throws IOException {
+        this(channel, 30);
+    }
+
+    /** Creates a new stream.
+     *
+     * @param channel The file channel.
+     * @param segmentShift The segment size is {@code 1 << segmentShift}.
+     * Must be in the range 3 to 30.
+     */
+    public MappedRIFFInputStream(FileChannel channel, int segmentShift) throws IOException {
+        super((InputStream) null);
+        if (segmentShift < 3 || segmentShift > 30) {
+            throw new IllegalArgumentException("segmentShift out of range:" + segmentShift);
+        }
+        this.channel = channel;
+        this.length = channel.size();
+        this.segmentShift = segmentShift;
+        this.segments = new MappedByteBuffer[(int) ((length + (1L << segmentShift) - 1) >>> segmentShift)];
+    }
+
+    /** Returns the segment which holds the specified stream position. */
+    private MappedByteBuffer segment(long position) throws IOException {
+        int index = (int) (position >>> segmentShift);
+        MappedByteBuffer seg = segments[index];
+        if (seg == null) {
+            long start = (long) index << segmentShift;
+            long size = Math.min((1L << segmentShift) + OVERLAP, length - start);
+            seg = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            seg.order(ByteOrder.LITTLE_ENDIAN);
+            segments[index] = seg;
+        }
+        return seg;
+    }
+
+    /** Returns the offset of the specified stream position in its segment. */
+    private int offset(long position) {
+        return (int) (position & ((1L << segmentShift) - 1));
+    }
+
+    /** Makes sure that {@code n} bytes can be read. */
+    private void require(int n) throws EOFException {
+        if (scan + n > length) {
+            throw new EOFException();
+        }
+    }
+
+    @Override
+    public int readUBYTE() throws IOException {
+        require(1);
+        int v = segment(scan).get(offset(scan)) & 0xff;
+        scan += 1;
+        return v;
+    }
+
+    @Override
+    public short readWORD() throws IOException {
+        require(2);
+        short v = segment(scan).getShort(offset(scan));
+        scan += 2;
+        return v;
+    }
+
+    @Override
+    public int readLONG() throws IOException {
+        require(4);
+        int v = segment(scan).getInt(offset(scan));
+        scan += 4;
+        return v;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return scan < length ? readUBYTE() : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int count = 0;
+        while (count < len && scan < length) {
+            ByteBuffer src = segment(scan).duplicate();
+            src.position(offset(scan));
+            int n = (int) Math.min(len - count, Math.min((1L << segmentShift) - offset(scan), length - scan));
+            src.get(b, off + count, n);
+            count += n;
+            scan += n;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the next {@code n} bytes as a read-only little-endian buffer
+     * without copying them, and advances the stream position. If less than
+     * {@code n} bytes are left in the file, the returned buffer holds the
+     * remaining bytes.
+     */
+    public ByteBuffer slice(long n) throws IOException {
+        n = Math.max(0, Math.min(n, length - scan));
+        ByteBuffer buf;
+        if (n == 0) {
+            buf = ByteBuffer.allocate(0);
+        } else if (offset(scan) + n <= segment(scan).capacity()) {
+            ByteBuffer src = segment(scan).duplicate();
+            src.position(offset(scan));
+            src.limit(offset(scan) + (int) n);
+            buf = src.slice();
+        } else if (n <= Integer.MAX_VALUE) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, scan, n);
+        } else {
+            throw new IOException("Chunk too large for a single buffer: " + n + " bytes at " + scan);
+        }
+        scan += n;
+        return buf.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public long skip(long n) {
+        n = Math.max(0, Math.min(n, length - scan));
+        scan += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, length - scan);
+    }
+
+    @Override
+    public boolean isSeekable() {
+        return true;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int readlimit) {
+        mark = scan;
+    }
+
+    @Override
+    public void reset() {
+        scan = mark;
+    }
+
+    /** Does nothing, because the stream does not read ahead. */
+    @Override
+    public void syncPosition() {
+    }
+
+    /** Does nothing. The channel is owned by the caller. */
+    @Override
+    public void close() {
+    }
+}
@@ -10,6 +10,7 @@
  */
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.ByteOrder;
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageWriteParam;
@@ -34,6 +35,9 @@ import javax.imageio.ImageWriter;
  */
 public class PNGCodec extends AbstractVideoCodec {
 
+    /** Initial capacity of a pooled output array. */
+    private final static int INITIAL_CAPACITY = 64 * 1024;
+
     public PNGCodec() {
         super(new Format[]{
                     new Format(VideoFormatKeys.MediaTypeKey, FormatKeys.MediaType.VIDEO, VideoFormatKeys.MimeTypeKey, VideoFormatKeys.MIME_JAVA,
@@ -80,13 +84,12 @@ public class PNGCodec extends AbstractVideoCodec {
             return CODEC_FAILED;
         }
 
-        ByteArrayImageOutputStream tmp;
-        if (out.data instanceof byte[]) {
-            tmp = new ByteArrayImageOutputStream((byte[]) out.data);
-        } else {
-            tmp = new ByteArrayImageOutputStream();
-        }
+        // The stream takes over the pooled array of the output buffer, and
+        // grows it with arrays from the pool.
+        ByteArrayPool pool = ByteArrayPool.getInstance();
+        ByteArrayImageOutputStream tmp = new ByteArrayImageOutputStream(takePooledOutput(out, INITIAL_CAPACITY), ByteOrder.BIG_ENDIAN, pool);
 
+        boolean done = false;
         try {
             ImageWriter iw = ImageIO.getImageWritersByMIMEType("image/png").next();
             ImageWriteParam iwParam = iw.getDefaultWriteParam();
@@ -97,14 +100,20 @@ public class PNGCodec extends AbstractVideoCodec {
 
             out.setFlag(BufferFlag.KEYFRAME);
             out.header = null;
-            out.data = tmp.getBuffer();
+            putPooledOutput(out, tmp.getBuffer());
             out.offset = 0;
             out.length = (int) tmp.getStreamPosition();
+            done = true;
             return CODEC_OK;
         } catch (IOException ex) {
             ex.printStackTrace();
             out.setFlag(BufferFlag.DISCARD);
             return CODEC_FAILED;
+        } finally {
+            if (!done) {
+                // The array has not been handed out
+                pool.release(tmp.getBuffer());
+            }
         }
     }
 }
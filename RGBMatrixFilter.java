@@ -0,0 +1,94 @@
+/*
+ * @(#)RGBMatrixFilter.java
+ */
+
+/**
+ * {@code RGBMatrixFilter} multiplies the red, green and blue components of
+ * each pixel with a 3x3 matrix. The alpha component is not changed.
+ * <p>
+ * The products of the matrix coefficients with all 256 component values
+ * are precomputed in lookup tables, so that filtering a pixel takes 9
+ * table lookups and no multiplication. The results are clamped to the
+ * range 0 to 255.
+ *
+ * @version 1.0 2026-10-19 Created.
+ */
+public class RGBMatrixFilter extends BulkRGBFilter {
+
+    /** Lookup tables for the products. lut[3 * out + in][v] holds the
+     * product of v with the coefficient of input component {@code in} for
+     * output component {@code out}. Components are in the order red, green,
+     * blue. */
+    private final float[][] lut = new float[9][256];
+
+    /**
+     * Creates a new filter.
+     *
+     * @param matrix The matrix in row major order. The rows compute red,
+     * green and blue, the columns are multiplied with red, green and blue.
+     */
+    public RGBMatrixFilter(float[] matrix) {
+        if (matrix.length != 9) {
+            throw new IllegalArgumentException("matrix must have 9 elements:" + matrix.length);
+        }
+        for (int i = 0; i < 9; i++) {
+            float m = matrix[i];
+            float[] t = lut[i];
+            for (int v = 0; v < 256; v++) {
+                t[v] = m * v;
+            }
+        }
+    }
+
+    /**
+     * Creates a filter which turns the Aqua Blue appearance into the Aqua
+     * Graphite appearance.
+     * <p>
+     * Based on a code example from:
+     * http://tams-www.informatik.uni-hamburg.de/applets/hades/webdemos/00-intro/02-imageprocessing/saturation.html
+     * author karlvr
+     */
+    public static RGBMatrixFilter createGraphiteFilter() {
+        final float saturationAdjust = 0.179f;
+        float RW = (1f - saturationAdjust) * 0.333f; // or 0.299 for YIV values
+        float RG = (1f - saturationAdjust) * 0.333f; // or 0.587 for YIV values
+        float RB = (1f - saturationAdjust) * 0.333f; // or 0.114 for YIV values
+        return new RGBMatrixFilter(new float[]{
+                    RW + saturationAdjust, RG, RB,
+                    RW, RG + saturationAdjust, RB,
+                    RW, RG, RB + saturationAdjust
+                });
+    }
+
+    /** Creates a filter which turns colors into shades of gray, using the
+     * luma weights of ITU-R BT.601. */
+    public static RGBMatrixFilter createGrayFilter() {
+        return new RGBMatrixFilter(new float[]{
+                    0.299f, 0.587f, 0.114f,
+                    0.299f, 0.587f, 0.114f,
+                    0.299f, 0.587f, 0.114f
+                });
+    }
+
+    @Override
+    protected void filterRow(int[] src, int srcOffset, int[] dst, int dstOffset, int width) {
+        final float[] rr = lut[0], rg = lut[1], rb = lut[2];
+        final float[] gr = lut[3], gg = lut[4], gb = lut[5];
+        final float[] br = lut[6], bg = lut[7], bb = lut[8];
+        for (int i = 0; i < width; i++) {
+            int rgb = src[srcOffset + i];
+            int red = (rgb >> 16) & 0xff;
+            int green = (rgb >> 8) & 0xff;
+            int blue = rgb & 0xff;
+            int outputRed = (int) (rr[red] + rg[green] + rb[blue]);
+            int outputGreen = (int) (gr[red] + gg[green] + gb[blue]);
+            int outputBlue = (int) (br[red] + bg[green] + bb[blue]);
+            if (((outputRed | outputGreen | outputBlue) & ~0xff) != 0) {
+                outputRed = Math.max(0, Math.min(255, outputRed));
+                outputGreen = Math.max(0, Math.min(255, outputGreen));
+                outputBlue = Math.max(0, Math.min(255, outputBlue));
+            }
+            dst[dstOffset + i] = (rgb & 0xff000000) | (outputRed << 16) | (outputGreen << 8) | outputBlue;
+        }
+    }
+}
@@ -9,6 +9,8 @@
  * For details see accompanying license terms.
  */
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.*;
 /**
  * RIFF Chunks form the building blocks of a RIFF file.
@@ -22,6 +24,7 @@ public class RIFFChunk {
     private long size;
     private long scan;
     private byte[] data;
+    private ByteBuffer buffer;
     private Hashtable<RIFFChunk,RIFFChunk> propertyChunks;
     private ArrayList<RIFFChunk> collectionChunks;
     /**
@@ -150,14 +153,45 @@ public class RIFFChunk {
      */
     public void setData(byte[] data) { 
         this.data = data; 
+        this.buffer = null;
     }
     /**
      * Gets the data.
      * Note: The array will not be cloned.
+     * If the chunk only holds a data buffer, the content of the buffer is
+     * copied into a new array on the first call.
      */
     public byte[] getData() { 
+        if (data == null && buffer != null) {
+            data = new byte[buffer.remaining()];
+            buffer.duplicate().get(data);
+        }
         return data; 
     }
+
+    /**
+     * Sets the data as a buffer. The data is the content between the
+     * position and the limit of the buffer.
+     * Note: The buffer will not be duplicated.
+     */
+    public void setBuffer(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.data = null;
+    }
+
+    /**
+     * Gets the data as a little-endian buffer.
+     * If the chunk has been read from a memory mapped file, the buffer
+     * shares its content with the file mapping. Otherwise the buffer
+     * wraps the data array.
+     * Note: The buffer will not be duplicated.
+     */
+    public ByteBuffer getBuffer() {
+        if (buffer == null && data != null) {
+            buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return buffer;
+    }
     
     @Override
     public boolean equals(Object another) {
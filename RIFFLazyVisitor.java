@@ -0,0 +1,34 @@
+/*
+ * @(#)RIFFLazyVisitor.java
+ */
+
+/**
+ * RIFFLazyVisitor is additionally notified each time the RIFFParser skips
+ * over a local chunk which has not been declared as a data, property or
+ * collection chunk, over a LIST group which the visitor did not want to
+ * enter, or over garbage at the end of a group.
+ * <p>
+ * The visitor gets the position and the size of the chunk data in the
+ * source, so that it can read the data later, if it needs it. If the source
+ * is seekable, the parser skips the chunk data by seeking, without reading
+ * it.
+ *
+ * @version 1.1 2026-10-19 Skipped LIST groups and garbage are reported.
+ * <br>1.0 2026-10-19 Created.
+ */
+public interface RIFFLazyVisitor extends RIFFVisitor {
+
+    /** This method is invoked when the parser skips over the data of a
+     * chunk.
+     *
+     * @param group The group which contains the chunk.
+     * @param chunk The chunk. The chunk does not hold data. For a LIST group
+     * this is the group chunk.
+     * @param offset The position of the chunk data in the source. For a LIST
+     * group this is the position after the group type.
+     * @param size The size of the chunk data. For a LIST group this is the
+     * size without the group type.
+     */
+    public void skipChunk(RIFFChunk group, RIFFChunk chunk, long offset, long size)
+    throws ParseException, AbortException;
+}
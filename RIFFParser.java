@@ -1,5 +1,5 @@
 /*
- * @(#)RIFFParser.java  1.4  2011-08-26
+ * @(#)RIFFParser.java  1.6  2026-10-19
  *
  * Copyright (c) 2005-2011 Werner Randelshofer, Immensee, Switzerland.
  * All rights reserved.
@@ -13,6 +13,9 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.NumberFormat;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -169,7 +172,11 @@ import javax.imageio.stream.ImageInputStream;
  * @see	RIFFVisitor
  *
  * @author	Werner Randelshofer, Hausmatt 10, CH-6405 Immensee, Switzerland
- * @version 1.4 2011-08-26 Adds HashMap for stop chunks.
+ * @version 1.6 2026-10-19 Skipped LIST groups and garbage are reported to
+ * a RIFFLazyVisitor.
+ * <br>1.5 2026-10-19 Adds parsing of memory mapped files and of file
+ * channels. Skipped chunks are reported to a RIFFLazyVisitor.
+ * <br>1.4 2011-08-26 Adds HashMap for stop chunks.
  * <br>1.3 2011-01-23 Use HashMap instead of Hashtable.
  * <br>1.2 2010-07-06 Use integer IDs for efficiency. Added support for
  * stop chunks.
@@ -250,6 +257,7 @@ private final static boolean DEBUG =false;
         this.in = new RIFFPrimitivesInputStream(in);
         visitor = v;
         parseFile();
+        this.in.syncPosition();
         return this.in.getScan();
     }
 
@@ -258,6 +266,51 @@ private final static boolean DEBUG =false;
         parse(new ImageInputStreamAdapter(in), v);
     }
 
+    /**
+     * Interprets the RIFFFile expression located at the current position
+     * of the indicated file channel.
+     * <p>
+     * Chunks which are not read by the parser are skipped by seeking in the
+     * channel. If the visitor is a {@link RIFFLazyVisitor}, it is notified
+     * about the position and size of each skipped chunk, and can read it
+     * from the channel later.
+     *
+     * @return The size of the RIFFFile expression.
+     */
+    public long parse(FileChannel channel, RIFFVisitor v)
+            throws ParseException, AbortException, IOException {
+        this.in = new RIFFPrimitivesInputStream(channel);
+        visitor = v;
+        parseFile();
+        this.in.syncPosition();
+        return this.in.getScan();
+    }
+
+    /**
+     * Interprets the RIFFFile expression at the beginning of the
+     * indicated file.
+     * <p>
+     * The file is memory mapped. The chunks which are passed to the visitor
+     * hold their data as buffers which share their content with the file
+     * mapping. The data is only copied onto the heap, if the visitor calls
+     * {@link RIFFChunk#getData}. The buffers stay valid after this method
+     * has returned.
+     *
+     * @return The size of the RIFFFile expression.
+     */
+    public long parse(Path file, RIFFVisitor v)
+            throws ParseException, AbortException, IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.in = new MappedRIFFInputStream(channel);
+            visitor = v;
+            parseFile();
+            return this.in.getScan();
+        } finally {
+            channel.close();
+        }
+    }
+
     /**
      * Parses a RIFF file.
      *
@@ -317,7 +370,7 @@ if (DEBUG)System.out.println("RIFFParser.parseForm "+idToString(type));
                 if (id == RIFF_ID) {
                     parseFORM(props);
                 } else if (id == LIST_ID) {
-                    parseLIST(props);
+                    parseLIST(chunk, props);
                 } else if (isLocalChunkID(id)) {
                     parseLocalChunk(chunk, id);
                 } else {
@@ -347,7 +400,7 @@ if (DEBUG)System.out.println("RIFFParser.parseForm "+idToString(type));
      * ListGroup ::= size GroupType { ChunkID LocalChunk [pad] | 'LIST ' ListGroup  [pad] }
      * </pre>
      */
-    private void parseLIST(HashMap props)
+    private void parseLIST(RIFFChunk parent, HashMap props)
             throws ParseException, AbortException, IOException {
         long size = in.readULONG();
         long scan = in.getScan();
@@ -372,7 +425,7 @@ if (DEBUG)System.out.println("RIFFParser.parseLIST "+idToString(type));
                 long idscan = in.getScan();
                 int id = in.readFourCC();
                 if (id == LIST_ID) {
-                    parseLIST(props);
+                    parseLIST(chunk, props);
                 } else if (isLocalChunkID(id)) {
                     parseLocalChunk(chunk, id);
                 } else {
@@ -385,6 +438,9 @@ if (DEBUG)System.out.println("RIFFParser.parseLIST "+idToString(type));
                     in.align();
                 }
             } else {
+                if (visitor instanceof RIFFLazyVisitor) {
+                    ((RIFFLazyVisitor) visitor).skipChunk(parent, chunk, in.getOrigin() + scan + 4, size - 4);
+                }
                 in.skipFully(size-4);
                 in.align();
             }
@@ -410,27 +466,38 @@ if (DEBUG)System.out.println("RIFFParser.parseLocalChunk "+idToString(id));
         RIFFChunk chunk = new RIFFChunk(parent==null?0:parent.getType(), id, size, scan);
 
         if (isDataChunk(chunk)) {
-            byte[] data = new byte[(int) size];
-            in.read(data, 0, (int) size);
-            chunk.setData(data);
+            readData(chunk, size);
             visitor.visitChunk(parent, chunk);
         } else if (isPropertyChunk(chunk)) {
-            byte[] data = new byte[(int) size];
-            in.read(data, 0, (int) size);
-            chunk.setData(data);
+            readData(chunk, size);
             parent.putPropertyChunk(chunk);
         } else if (isCollectionChunk(chunk)) {
-            byte[] data = new byte[(int) size];
-            in.read(data, 0, (int) size);
-            chunk.setData(data);
+            readData(chunk, size);
             parent.addCollectionChunk(chunk);
         } else {
-            in.skipFully((int) size);
+            if (visitor instanceof RIFFLazyVisitor) {
+                ((RIFFLazyVisitor) visitor).skipChunk(parent, chunk, in.getOrigin() + scan, size);
+            }
+            in.skipFully(size);
             if (isStopChunks) {
             visitor.visitChunk(parent, chunk);
             }
         }
     }
+    /**
+     * Reads the data of a local chunk. If the input is memory mapped, the
+     * chunk gets a buffer which shares its content with the mapping.
+     */
+    private void readData(RIFFChunk chunk, long size) throws IOException {
+        if (in instanceof MappedRIFFInputStream) {
+            chunk.setBuffer(((MappedRIFFInputStream) in).slice(size));
+        } else {
+            byte[] data = new byte[(int) size];
+            in.read(data, 0, (int) size);
+            chunk.setData(data);
+        }
+    }
+
     /**
      * This method is invoked when we encounter a parsing problem.
      * <pre>
@@ -446,22 +513,19 @@ if (DEBUG)System.out.println("RIFFParser.parseLocalChunk "+idToString(id));
         RIFFChunk chunk = new RIFFChunk(parent.getType(), id, size, scan);
 
         if (isDataChunk(chunk)) {
-            byte[] data = new byte[(int) size];
-            in.read(data, 0, (int) size);
-            chunk.setData(data);
+            readData(chunk, size);
             visitor.visitChunk(parent, chunk);
         } else if (isPropertyChunk(chunk)) {
-            byte[] data = new byte[(int) size];
-            in.read(data, 0, (int) size);
-            chunk.setData(data);
+            readData(chunk, size);
             parent.putPropertyChunk(chunk);
         } else if (isCollectionChunk(chunk)) {
-            byte[] data = new byte[(int) size];
-            in.read(data, 0, (int) size);
-            chunk.setData(data);
+            readData(chunk, size);
             parent.addCollectionChunk(chunk);
         } else {
-            in.skipFully((int) size);
+            if (visitor instanceof RIFFLazyVisitor) {
+                ((RIFFLazyVisitor) visitor).skipChunk(parent, chunk, in.getOrigin() + scan, size);
+            }
+            in.skipFully(size);
             if (isStopChunk(chunk)) {
                 visitor.visitChunk(parent, chunk);
             }
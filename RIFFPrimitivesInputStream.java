@@ -1,5 +1,5 @@
 /*
- * @(#)RIFFPrimitivesInputStream.java  1.0  2005-01-15
+ * @(#)RIFFPrimitivesInputStream.java  1.2  2026-10-19
  *
  * Copyright (c) 2005 Werner Randelshofer, Immensee, Switzerland.
  * All rights reserved.
@@ -10,21 +10,62 @@
  */
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import javax.imageio.stream.ImageInputStream;
 
 /**
  * A RIFF primitives input stream lets an application read primitive data
  * types in the Microsoft Resource Interfache File Format (RIFF) format from an
  * underlying input stream.
+ * <p>
+ * The stream decodes the little-endian primitives directly from a window,
+ * into which it reads the underlying stream.
+ * <p>
+ * If the underlying stream is an {@link ImageInputStreamAdapter} or a
+ * {@code FileInputStream}, or if the stream has been created for a
+ * {@code FileChannel}, the stream is seekable. The window is then filled
+ * in blocks, skipping over data is done with a seek on the underlying source
+ * instead of reading the data, and mark and reset are done by seeking.
+ * <p>
+ * If the stream is not seekable, the stream reads no more bytes from the
+ * underlying stream than have been requested, so that the bytes after the
+ * RIFF expression are left to the caller. Mark and reset are delegated
+ * to the underlying stream.
  *
  * Reference:
  * AVI RIFF File Reference
  * http://msdn.microsoft.com/archive/default.asp?url=/archive/en-us/directx9_c/directx/htm/avirifffilereference.asp
  *
  * @author	Werner Randelshofer, Hausmatt 10, CH-6405 Immensee, Switzerland
- * @version 1.0 2005-01-15 Created.
+ * @version 1.2 2026-10-19 Reads ahead only on seekable sources. Delegates
+ * mark and reset on other sources.
+ * <br>1.1 2026-10-19 Reads through a buffer window. Skips by seeking
+ * on seekable sources.
+ * <br>1.0 2005-01-15 Created.
  */
 public class RIFFPrimitivesInputStream extends FilterInputStream {
-    private long scan, mark;
+    private final static int WINDOW_SIZE = 8192;
+    /** The current read position. */
+    protected long scan;
+    private long mark;
+    /** The window holds the bytes from {@code window[pos]} up to
+     * {@code window[limit-1]} which have been read from the underlying
+     * stream, but not yet from this stream. */
+    private final byte[] window = new byte[WINDOW_SIZE];
+    /** Little-endian view of the window. */
+    private final ByteBuffer windowLE = ByteBuffer.wrap(window).order(ByteOrder.LITTLE_ENDIAN);
+    private int pos, limit;
+    /** The underlying image input stream if the source is seekable through
+     * an {@code ImageInputStreamAdapter}. */
+    private ImageInputStream iis;
+    /** The underlying file channel if the source is a
+     * {@code FileInputStream}. */
+    private FileChannel channel;
+    /** Position of the underlying source when scan was 0. */
+    private long origin;
     
     /**
      * Creates a new instance.
@@ -33,22 +74,85 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
      */
     public RIFFPrimitivesInputStream(InputStream in) {
         super(in);
+        try {
+            if (in instanceof ImageInputStreamAdapter) {
+                iis = ((ImageInputStreamAdapter) in).getImageInputStream();
+                origin = iis.getStreamPosition();
+            } else if (in instanceof FileInputStream) {
+                channel = ((FileInputStream) in).getChannel();
+                origin = channel.position();
+            }
+        } catch (IOException e) {
+            // the source can not tell us its position: treat it as a stream
+            iis = null;
+            channel = null;
+        }
     }
-    
+
+    /**
+     * Creates a new instance which reads from the current position of the
+     * specified file channel. The stream is seekable.
+     *
+     * @param  channel   the file channel.
+     */
+    public RIFFPrimitivesInputStream(FileChannel channel) throws IOException {
+        super(Channels.newInputStream(channel));
+        this.channel = channel;
+        this.origin = channel.position();
+    }
+
+    /** Returns true if skip and reset are done by seeking in the
+     * underlying source. */
+    public boolean isSeekable() {
+        return iis != null || channel != null;
+    }
+
+    /** Returns the position of the underlying source at scan position 0.
+     * Adding the scan position of a chunk to the origin yields the
+     * position of the chunk in the source. */
+    public long getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Makes sure that at least {@code n} bytes are in the window.
+     * {@code n} must not be larger than the window size. Reads ahead
+     * only if the stream is seekable.
+     *
+     * @return True if the bytes are available, false on EOF.
+     */
+    private boolean fill(int n) throws IOException {
+        if (limit - pos >= n) {
+            return true;
+        }
+        if (pos > 0) {
+            System.arraycopy(window, pos, window, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        int end = isSeekable() ? window.length : n;
+        while (limit < n) {
+            int count = in.read(window, limit, end - limit);
+            if (count == -1) {
+                return false;
+            }
+            limit += count;
+        }
+        return true;
+    }
+
     /**
      * Read 1 byte from the input stream and interpret
      * them as an 8 Bit unsigned UBYTE value.
      */
     public int readUBYTE()
     throws IOException {
-        int b0 = in.read();
-        
-        if (b0 == -1) {
+        if (!fill(1)) {
             throw new EOFException();
         }
 
         scan += 1;
-        return b0 & 0xff;
+        return window[pos++] & 0xff;
     }
     /**
      * Read 2 bytes from the input stream and interpret
@@ -56,15 +160,13 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
      */
     public short readWORD()
     throws IOException {
-        int b0 = in.read();
-        int b1 = in.read();
-        
-        if (b1 == -1) {
+        if (!fill(2)) {
             throw new EOFException();
         }
         scan += 2;
-        
-        return (short) (((b0 & 0xff) << 0) | ((b1 & 0xff) << 8));
+        short v = windowLE.getShort(pos);
+        pos += 2;
+        return v;
     }
     
     /**
@@ -82,20 +184,13 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
      */
     public int readLONG()
     throws IOException {
-        int b0 = in.read();
-        int b1 = in.read();
-        int b2 = in.read();
-        int b3 = in.read();
-        
-        if (b3 == -1) {
+        if (!fill(4)) {
             throw new EOFException();
         }
         scan += 4;
-        
-        return ((b0&0xff) << 0) +
-        ((b1&0xff) << 8) +
-        ((b2&0xff) << 16) +
-        ((b3&0xff) << 24);
+        int v = windowLE.getInt(pos);
+        pos += 4;
+        return v;
     }
     
     /**
@@ -112,20 +207,7 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
      */
     public int readFourCC()
     throws IOException {
-        int b3 = in.read();
-        int b2 = in.read();
-        int b1 = in.read();
-        int b0 = in.read();
-
-        if (b0 == -1) {
-            throw new EOFException();
-        }
-        scan += 4;
-
-        return ((b0&0xff) << 0) +
-        ((b1&0xff) << 8) +
-        ((b2&0xff) << 16) +
-        ((b3&0xff) << 24);
+        return Integer.reverseBytes(readLONG());
     }
     /**
      * Read 4 bytes from the input stream and interpret
@@ -153,7 +235,7 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
      */
     public long readULONG()
     throws IOException {
-        return (long)(readLONG()) & 0x00ffffffff;
+        return readLONG() & 0xffffffffL;
     }
     
     /**
@@ -164,8 +246,7 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
     public void align()
     throws IOException {
         if (scan % 2 == 1) {
-            in.skip(1);
-            scan++;
+            skip(1);
         }
     }
     
@@ -181,9 +262,11 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
      */
     public int read()
     throws IOException {
-        int data = in.read();
-        if (data != -1) scan++;
-        return data;
+        if (!fill(1)) {
+            return -1;
+        }
+        scan++;
+        return window[pos++] & 0xff;
     }
     /**
      * Reads a sequence of bytes.
@@ -199,10 +282,15 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
     }
     /**
      * Reads a sequence of bytes.
+     * <p>
+     * Bytes which are in the window are copied from the window. The remaining
+     * bytes are read directly from the underlying stream.
      */
     public int read(byte[] b,int offset, int length)
     throws IOException {
-        int count = 0;
+        int count = Math.min(length, limit - pos);
+        System.arraycopy(window, pos, b, offset, count);
+        pos += count;
         while (count < length) {
             int result = in.read(b,offset+count,length-count);
             if (result == -1) break;
@@ -211,33 +299,104 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
         scan += count;
         return count;
     }
+
+    @Override
+    public int available() throws IOException {
+        return (limit - pos) + in.available();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return isSeekable() || in.markSupported();
+    }
     /**
      * Marks the input stream.
      * @param	readlimit	The maximum limit of bytes that can be read before
-     * the mark position becomes invalid.
+     * the mark position becomes invalid. This is ignored if the stream is
+     * seekable, because the mark is then implemented by seeking.
      */
     public void mark(int readlimit) {
-        in.mark(readlimit);
+        if (!isSeekable()) {
+            // The window is empty, because the stream does not read ahead
+            in.mark(readlimit);
+        }
         mark = scan;
     }
     /**
      * Repositions the stream at the previously marked position.
      *
-     * @exception  IOException  If the stream has not been marked or if the
-     * mark has been invalidated.
+     * @exception  IOException  If the stream is not seekable, and the
+     * underlying stream has not been marked or the mark has been invalidated.
      */
     public void reset()
     throws IOException {
-        in.reset();
+        if (isSeekable()) {
+            seekSource(origin + mark);
+        } else {
+            in.reset();
+        }
+        pos = limit = 0;
         scan = mark;
     }
+
+    /** Discards the read-ahead window. If the stream is seekable, the
+     * underlying source is positioned at the current scan position. If the
+     * stream is not seekable, the window is always empty. */
+    public void syncPosition() throws IOException {
+        if (isSeekable() && pos < limit) {
+            seekSource(origin + scan);
+        }
+        pos = limit = 0;
+    }
+
+    /** Returns the position of the underlying seekable source. */
+    private long sourcePosition() throws IOException {
+        return iis != null ? iis.getStreamPosition() : channel.position();
+    }
+
+    /** Returns the length of the underlying seekable source, or -1 if
+     * it is not known. */
+    private long sourceLength() throws IOException {
+        return iis != null ? iis.length() : channel.size();
+    }
+
+    /** Sets the position of the underlying seekable source. */
+    private void seekSource(long newPosition) throws IOException {
+        if (iis != null) {
+            iis.seek(newPosition);
+        } else {
+            channel.position(newPosition);
+        }
+    }
+
     /**
      * Skips over and discards n bytes of data from this input stream. This skip
      * method tries to skip the provided number of bytes.
+     * <p>
+     * If the stream is seekable, the bytes which are not in the window are
+     * skipped by seeking in the underlying source.
      */
     public long skip(long n)
     throws IOException {
-        long skipped = in.skip(n);
+        if (n <= 0) {
+            return 0;
+        }
+        long skipped = Math.min(n, limit - pos);
+        pos += (int) skipped;
+        if (skipped < n) {
+            if (isSeekable()) {
+                long from = sourcePosition();
+                long to = from + n - skipped;
+                long length = sourceLength();
+                if (length >= 0 && to > length) {
+                    to = Math.max(from, length);
+                }
+                seekSource(to);
+                skipped += to - from;
+            } else {
+                skipped += in.skip(n - skipped);
+            }
+        }
         scan += skipped;
         return skipped;
     }
@@ -252,13 +411,12 @@ public class RIFFPrimitivesInputStream extends FilterInputStream {
     throws IOException {
         if (n==0) return;
 
-        int total = 0;
-        int cur = 0;
+        long total = 0;
+        long cur = 0;
         
-        while ((total<n) && ((cur = (int) in.skip(n-total)) > 0)) {
+        while ((total<n) && ((cur = skip(n-total)) > 0)) {
             total += cur;
         }
         if (cur == 0) throw new EOFException();
-        scan += total;
     }
-}
\ No newline at end of file
+}
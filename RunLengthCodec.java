@@ -96,8 +96,10 @@ import static java.lang.Math.*;
  */
 public class RunLengthCodec extends AbstractVideoCodec {
 
+    /** Initial capacity of a pooled output array. */
+    private final static int INITIAL_CAPACITY = 16 * 1024;
     private byte[] previousPixels;
-    private int frameCounter;
+    private KeyFramePolicy keyFramePolicy;
 
     public RunLengthCodec() {
         super(new Format[]{
@@ -113,7 +115,21 @@ public class RunLengthCodec extends AbstractVideoCodec {
 
     @Override
     public void reset() {
-        frameCounter = 0;
+        if (keyFramePolicy != null) {
+            keyFramePolicy.reset();
+        }
+    }
+
+    /** Returns the key frame policy of the encoder. Returns null if the
+     * encoder has not encoded a frame yet and no policy has been set. */
+    public KeyFramePolicy getKeyFramePolicy() {
+        return keyFramePolicy;
+    }
+
+    /** Sets the key frame policy of the encoder. If no policy is set, the
+     * encoder creates one with {@link KeyFramePolicy#forFormat}. */
+    public void setKeyFramePolicy(KeyFramePolicy newValue) {
+        this.keyFramePolicy = newValue;
     }
 
     @Override
@@ -133,12 +149,10 @@ public class RunLengthCodec extends AbstractVideoCodec {
             return CODEC_OK;
         }
         
-        ByteArrayImageOutputStream tmp;
-        if (out.data instanceof byte[]) {
-            tmp = new ByteArrayImageOutputStream((byte[]) out.data);
-        } else {
-            tmp = new ByteArrayImageOutputStream();
-        }
+        // The stream takes over the pooled array of the output buffer, and
+        // grows it with arrays from the pool.
+        ByteArrayPool pool = ByteArrayPool.getInstance();
+        ByteArrayImageOutputStream tmp = new ByteArrayImageOutputStream(takePooledOutput(out, INITIAL_CAPACITY), ByteOrder.BIG_ENDIAN, pool);
 
         // Handle sub-image
         Rectangle r;
@@ -158,23 +172,32 @@ public class RunLengthCodec extends AbstractVideoCodec {
         }
         int offset = r.x + r.y * scanlineStride;
 
-        boolean isKeyframe = frameCounter== 0
-                || frameCounter % outputFormat.get(VideoFormatKeys.KeyFrameIntervalKey,outputFormat.get(VideoFormatKeys.FrameRateKey).intValue()) == 0;
-        frameCounter++;
+        if (keyFramePolicy == null) {
+            keyFramePolicy = KeyFramePolicy.forFormat(outputFormat);
+        }
+        boolean isKeyframe = keyFramePolicy.isKeyFrameRequired();
 
+        boolean done = false;
         try {
             byte[] pixels = getIndexed8(in);
             if (pixels == null) {
                 return CODEC_FAILED;
             }
+            isKeyframe = isKeyframe || previousPixels == null
+                    || keyFramePolicy.isSceneChange(pixels, previousPixels, r.width, r.height, offset, scanlineStride);
+            if (!isKeyframe) {
+                writeDelta8(tmp, pixels, previousPixels, r.width, r.height, offset, scanlineStride);
+                if (keyFramePolicy.isDeltaTooLarge(tmp.getStreamPosition())) {
+                    tmp.clear();
+                    isKeyframe = true;
+                }
+            }
             if (isKeyframe) {
                 writeKey8(tmp, pixels, r.width, r.height, offset, scanlineStride);
-                out.setFlag(BufferFlag.KEYFRAME);
-            } else {
-                writeDelta8(tmp, pixels, previousPixels, r.width, r.height, offset, scanlineStride);
-                out.clearFlag(BufferFlag.KEYFRAME);
             }
-            out.data = tmp.getBuffer();
+            keyFramePolicy.frameEncoded(isKeyframe, tmp.getStreamPosition());
+            out.setFlag(BufferFlag.KEYFRAME, isKeyframe);
+            putPooledOutput(out, tmp.getBuffer());
             out.offset = 0;
             out.length = (int) tmp.getStreamPosition();
             //
@@ -183,11 +206,17 @@ public class RunLengthCodec extends AbstractVideoCodec {
             } else {
                 System.arraycopy(pixels, 0, previousPixels, 0, pixels.length);
             }
+            done = true;
             return CODEC_OK;
         } catch (IOException ex) {
             ex.printStackTrace();
             out.setFlag(BufferFlag.DISCARD);
             return CODEC_FAILED;
+        } finally {
+            if (!done) {
+                // The array has not been handed out
+                pool.release(tmp.getBuffer());
+            }
         }
     }
 
@@ -0,0 +1,170 @@
+/*
+ * @(#)ScreenStreamDecoder.java
+ */
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * {@code ScreenStreamDecoder} decodes the frames of a
+ * {@link ScreenStreamEncoder} into an image.
+ * <p>
+ * The server keeps one decoder per client. Key frames replace the image,
+ * delta frames and tile frames update the pixels that have changed since the
+ * previous frame. The tile cache for the tile frames is only allocated when
+ * the first tile frame arrives. It is discarded whenever a frame is lost,
+ * because the encoder may have changed its cache in the lost frame. A tile
+ * frame which refers to a tile that the new cache does not hold is corrupt. A delta frame can only be decoded if the decoder has decoded the
+ * preceding frames. If a delta frame arrives before the first key frame, or
+ * if a frame is corrupt, the frame is skipped and {@link #isKeyFrameNeeded}
+ * returns true until the next key frame has been decoded. The server should
+ * then send {@link ScreenStreamEncoder#KEY_FRAME_REQUEST} to the client.
+ * <p>
+ * The frames are decoded directly into the raster of the image, so the
+ * image must not be painted while a frame is decoded. The decoder is not
+ * thread-safe.
+ *
+ * @version 1.3 2026-10-19 Rejects key frames with an implausible size.
+ * <br>1.2 2026-10-19 Decodes tile frames.
+ * <br>1.1 2026-10-19 Adds method invalidate.
+ * <br>1.0 2026-10-19 Created.
+ */
+public class ScreenStreamDecoder {
+
+    private TechSmithCodecCore state = new TechSmithCodecCore();
+    /** Decodes the tile frames. Null until the first tile frame. */
+    private TileCacheCodecCore tileCache;
+    private BufferedImage image;
+    private int[] pixels;
+    private boolean keyFrameNeeded = true;
+    private Rectangle changedArea = new Rectangle();
+
+    /**
+     * Reads a frame from the stream and decodes it. Blocks until the frame
+     * has been read.
+     *
+     * @return True if the image has changed.
+     * @throws IOException if the frame can not be read. Corrupt frames do not
+     * throw an exception.
+     */
+    public boolean readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < ScreenStreamEncoder.HEADER_SIZE || length > ScreenStreamEncoder.MAX_FRAME_LENGTH) {
+            throw new IOException("Illegal frame length:" + length);
+        }
+        ByteArrayPool pool = ByteArrayPool.getInstance();
+        byte[] frame = pool.acquire(length);
+        try {
+            in.readFully(frame, 0, length);
+            return decode(frame, 0, length);
+        } finally {
+            pool.release(frame);
+        }
+    }
+
+    /**
+     * Decodes a frame.
+     *
+     * @param frame The frame without the length field.
+     * @param off The index of the type field.
+     * @param length The value of the length field.
+     * @return True if the image has changed.
+     */
+    public boolean decode(byte[] frame, int off, int length) {
+        if (length < ScreenStreamEncoder.HEADER_SIZE) {
+            invalidate();
+            return false;
+        }
+        int type = frame[off] & 0xff;
+        int width = ((frame[off + 1] & 0xff) << 8) | (frame[off + 2] & 0xff);
+        int height = ((frame[off + 3] & 0xff) << 8) | (frame[off + 4] & 0xff);
+        int dataOff = off + ScreenStreamEncoder.HEADER_SIZE;
+        int dataLength = length - ScreenStreamEncoder.HEADER_SIZE;
+
+        switch (type) {
+            case ScreenStreamEncoder.KEY_FRAME:
+                if (width == 0 || height == 0 || !isPlausibleKeyFrame(width, height, dataLength)) {
+                    invalidate();
+                    return false;
+                }
+                if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                    image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                    pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+                }
+                break;
+            case ScreenStreamEncoder.DELTA_FRAME:
+            case ScreenStreamEncoder.TILE_FRAME:
+                if (keyFrameNeeded || image == null
+                        || image.getWidth() != width || image.getHeight() != height) {
+                    invalidate();
+                    return false;
+                }
+                break;
+            default:
+                invalidate();
+                return false;
+        }
+
+        try {
+            if (type == ScreenStreamEncoder.TILE_FRAME) {
+                if (tileCache == null) {
+                    tileCache = new TileCacheCodecCore();
+                }
+                tileCache.decode24(frame, dataOff, dataLength, pixels, pixels, width, height);
+                changedArea.setBounds(0, 0, width, height);
+            } else {
+                state.decode24(frame, dataOff, dataLength, pixels, pixels, width, height, 0, width, changedArea);
+            }
+        } catch (IOException e) {
+            // The image is only partially updated
+            invalidate();
+            return false;
+        }
+        if (type == ScreenStreamEncoder.KEY_FRAME) {
+            keyFrameNeeded = false;
+            changedArea.setBounds(0, 0, width, height);
+        }
+        return !changedArea.isEmpty();
+    }
+
+    /** Returns true if a key frame of the specified size can be encoded with
+     * the specified number of bytes. This rejects a corrupt header before
+     * the image is allocated. At least, every scanline holds runs of at most
+     * 255 pixels of 4 bytes each, and an end-of-line op-code, and deflate
+     * compresses by at most 1032:1.
+     */
+    private static boolean isPlausibleKeyFrame(int width, int height, int dataLength) {
+        long minInflatedLength = (long) height * (2 + 4 * ((width + 254) / 255));
+        return (long) width * height <= ScreenStreamEncoder.MAX_PIXELS
+                && (long) dataLength * 1032 >= minInflatedLength;
+    }
+
+    /** Discards the state of the decoder, so that it skips delta frames
+     * until it has decoded a key frame. This must be called when a frame of
+     * the stream has been dropped. */
+    public void invalidate() {
+        keyFrameNeeded = true;
+        tileCache = null;
+    }
+
+    /** Returns true if the decoder can not decode delta frames until it
+     * has received a key frame. */
+    public boolean isKeyFrameNeeded() {
+        return keyFrameNeeded;
+    }
+
+    /** Returns the decoded image, or null if no key frame has been decoded
+     * yet. The image is updated in place by subsequent frames. */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /** Returns the area of the image, which has been changed by the most
+     * recently decoded frame. */
+    public Rectangle getChangedArea() {
+        return new Rectangle(changedArea);
+    }
+}
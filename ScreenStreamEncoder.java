@@ -0,0 +1,250 @@
+/*
+ * @(#)ScreenStreamEncoder.java
+ */
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * {@code ScreenStreamEncoder} encodes the screenshots of a client into a
+ * stream of key frames and delta frames.
+ * <p>
+ * Instead of sending a complete compressed image for every refresh, the
+ * client sends a key frame, followed by delta frames, which only hold the
+ * pixels that differ from the previous frame. The frames are encoded with
+ * the 24-bit TechSmith encoder of {@link TechSmithCodecCore}. A
+ * {@link KeyFramePolicy} places periodic key frames, and key frames on
+ * scene changes. The server can ask for a key frame at any time, e.g. after
+ * it has lost frames or when a new viewer opens. The client then calls
+ * {@link #requestKeyFrame}.
+ * <p>
+ * Optionally, delta frames are encoded as tile frames with a
+ * {@link TileCacheCodecCore}, see {@link #setTileCacheEnabled}. Screen
+ * content often returns to a state which has been sent before, e.g. when the
+ * user switches between a few windows. A tile frame refers to such tiles in
+ * a long-term cache, and costs a few bytes per tile instead of a key frame.
+ * The stream is private to the client and the server, so frames may refer
+ * back across key frames. A decoder, which has lost frames, discards its
+ * tile cache and requests a key frame. Requested key frames clear the tile
+ * cache of the encoder, so that the caches are synchronized again.
+ * <p>
+ * Each frame is length prefixed, so that the receiver can read it without
+ * parsing its content. All values are big-endian:
+ * <pre>
+ * Frame {
+ *   u4 length;        // number of bytes which follow this field
+ *   u1 type;          // KEY_FRAME, DELTA_FRAME or TILE_FRAME
+ *   u2 width;
+ *   u2 height;
+ *   u1 data[length - 5]; // TechSmith 24-bit frame, or
+ *                        // TileCacheCodecCore frame with 16x16 tiles
+ *                        // and 4096 cache slots
+ * }
+ * </pre>
+ * The server sends the single byte {@link #KEY_FRAME_REQUEST} to request
+ * a key frame. Frames are decoded by a {@link ScreenStreamDecoder}.
+ * <p>
+ * The encoder is not thread-safe, except for {@code requestKeyFrame}, which
+ * may be called from any thread.
+ *
+ * @version 1.2 2026-10-19 Rejects screenshots with more than MAX_PIXELS.
+ * <br>1.1 2026-10-19 Adds tile frames.
+ * <br>1.0 2026-10-19 Created.
+ */
+public class ScreenStreamEncoder {
+
+    /** Frame type of a key frame. */
+    public final static int KEY_FRAME = 1;
+    /** Frame type of a delta frame. */
+    public final static int DELTA_FRAME = 2;
+    /** Frame type of a delta frame, which has been encoded with a
+     * {@link TileCacheCodecCore}. */
+    public final static int TILE_FRAME = 3;
+    /** Command byte, which the server sends to request a key frame. */
+    public final static int KEY_FRAME_REQUEST = 11;
+    /** The number of bytes of the frame header after the length field. */
+    public final static int HEADER_SIZE = 5;
+    /** The largest frame, which a receiver accepts. */
+    public final static int MAX_FRAME_LENGTH = 64 << 20;
+    /** The largest number of pixels of a frame, which a receiver accepts.
+     * This is enough for a screen of 7680 x 4320 pixels. */
+    public final static int MAX_PIXELS = 1 << 25;
+    private final static int INITIAL_CAPACITY = 64 * 1024;
+    private TechSmithCodecCore state = new TechSmithCodecCore();
+    /** Encodes the tile frames. Null if tile frames are disabled. */
+    private TileCacheCodecCore tileCache;
+    private KeyFramePolicy keyFramePolicy;
+    /** Holds the encoded frame. Grows with arrays from the shared pool. */
+    private SeekableByteArrayOutputStream tmp;
+    /** Holds the pixels of the previous frame with the layout of the current
+     * frame. */
+    private int[] previousPixels;
+    private int previousWidth, previousHeight, previousOffset, previousStride;
+    private volatile boolean keyFrameRequested;
+    private long bytesWritten;
+
+    /** Creates an encoder, which places a key frame at least every 300
+     * frames, and scene change key frames at most every 5 frames. */
+    public ScreenStreamEncoder() {
+        this(new KeyFramePolicy(5, 300));
+    }
+
+    public ScreenStreamEncoder(KeyFramePolicy keyFramePolicy) {
+        this.keyFramePolicy = keyFramePolicy;
+    }
+
+    /** Requests that the next frame is encoded as a key frame. This method
+     * can be called from any thread. */
+    public void requestKeyFrame() {
+        keyFrameRequested = true;
+    }
+
+    /** Enables or disables tile frames. If enabled, all delta frames are
+     * tile frames, and scene changes do not cause key frames. Periodic and
+     * requested key frames are still made. The setting takes effect with the
+     * next key frame.
+     * <p>
+     * The cache holds 4096 tiles of 16 x 16 pixels, which is about two
+     * screens of 1280 x 800 pixels. The decoder needs 4 MB for the cache.
+     * If the user switches between more screens than the cache holds, tile
+     * frames are larger than key frames. */
+    public void setTileCacheEnabled(boolean newValue) {
+        if (newValue != (tileCache != null)) {
+            tileCache = newValue ? new TileCacheCodecCore() : null;
+            keyFrameRequested = true;
+        }
+    }
+
+    public boolean isTileCacheEnabled() {
+        return tileCache != null;
+    }
+
+    /**
+     * Encodes a screenshot and writes it as a frame.
+     * <p>
+     * If the image does not have an integer RGB raster, it is converted into
+     * one first. Screenshots made with {@code java.awt.Robot} have an integer
+     * RGB raster.
+     */
+    public void writeFrame(DataOutputStream out, BufferedImage image) throws IOException {
+        if (image.getType() != BufferedImage.TYPE_INT_RGB
+                && image.getType() != BufferedImage.TYPE_INT_ARGB) {
+            BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Images.toBufferedImage(image, rgb);
+            image = rgb;
+        }
+        WritableRaster r = image.getRaster();
+        SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel) r.getSampleModel();
+        int scanlineStride = sm.getScanlineStride();
+        int offset = r.getDataBuffer().getOffset()
+                + sm.getOffset(-r.getSampleModelTranslateX(), -r.getSampleModelTranslateY());
+        writeFrame(out, ((DataBufferInt) r.getDataBuffer()).getData(),
+                image.getWidth(), image.getHeight(), offset, scanlineStride);
+    }
+
+    /**
+     * Encodes a screenshot and writes it as a frame. The alpha component
+     * of the pixels is ignored.
+     *
+     * @param out The output stream. The stream is flushed after the frame.
+     * @param pixels The pixels in the RGB format.
+     * @param width The width of the screenshot.
+     * @param height The height of the screenshot.
+     * @param offset The index of the top left pixel.
+     * @param scanlineStride The number of array elements between a pixel and
+     * the pixel in the same column of the next scanline.
+     */
+    public void writeFrame(DataOutputStream out, int[] pixels, int width, int height, int offset, int scanlineStride) throws IOException {
+        if (width > 0xffff || height > 0xffff || (long) width * height > MAX_PIXELS) {
+            throw new IllegalArgumentException("Illegal size " + width + "x" + height);
+        }
+        if (tmp == null) {
+            tmp = new SeekableByteArrayOutputStream(ByteArrayPool.getInstance().acquire(INITIAL_CAPACITY), ByteArrayPool.getInstance());
+        }
+        tmp.reset();
+
+        // A delta frame needs a previous frame of the same size and layout
+        if (previousPixels == null || previousPixels.length != pixels.length
+                || width != previousWidth || height != previousHeight
+                || offset != previousOffset || scanlineStride != previousStride) {
+            keyFramePolicy.reset();
+            previousPixels = null;
+        }
+        boolean isRequested = keyFrameRequested;
+        if (isRequested) {
+            keyFrameRequested = false;
+            keyFramePolicy.reset();
+        }
+
+        boolean isKeyframe = keyFramePolicy.isKeyFrameRequired()
+                || previousPixels == null
+                || (tileCache == null
+                && keyFramePolicy.isSceneChange(pixels, previousPixels, width, height, offset, scanlineStride));
+        int type = DELTA_FRAME;
+        if (!isKeyframe) {
+            if (tileCache != null) {
+                // Scenes which have been seen before are encoded as
+                // references into the tile cache instead of a key frame
+                tileCache.encode24(tmp, pixels, previousPixels, width, height, offset, scanlineStride);
+                type = TILE_FRAME;
+            } else {
+                state.encodeDelta24(tmp, pixels, previousPixels, width, height, offset, scanlineStride);
+                if (keyFramePolicy.isDeltaTooLarge(tmp.size())) {
+                    tmp.reset();
+                    isKeyframe = true;
+                }
+            }
+        }
+        if (isKeyframe) {
+            if (tileCache != null && (isRequested || previousPixels == null)) {
+                tileCache.reset();
+            }
+            state.encodeKey24(tmp, pixels, width, height, offset, scanlineStride);
+            type = KEY_FRAME;
+        }
+        keyFramePolicy.frameEncoded(isKeyframe, tmp.size());
+
+        if (previousPixels == null) {
+            previousPixels = pixels.clone();
+            previousWidth = width;
+            previousHeight = height;
+            previousOffset = offset;
+            previousStride = scanlineStride;
+        } else {
+            System.arraycopy(pixels, 0, previousPixels, 0, pixels.length);
+        }
+
+        out.writeInt(HEADER_SIZE + tmp.size());
+        out.writeByte(type);
+        out.writeShort(width);
+        out.writeShort(height);
+        tmp.toOutputStream(out);
+        out.flush();
+        bytesWritten += 4 + HEADER_SIZE + tmp.size();
+    }
+
+    /** Returns the key frame policy of the encoder. */
+    public KeyFramePolicy getKeyFramePolicy() {
+        return keyFramePolicy;
+    }
+
+    /** Returns the number of bytes written by the encoder, including the
+     * frame headers. */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /** Hands the buffer of the encoder back to the pool. The encoder can
+     * still be used afterwards, the next frame is a key frame. */
+    public void dispose() {
+        if (tmp != null) {
+            ByteArrayPool.getInstance().release(tmp.getBuffer());
+            tmp = null;
+        }
+        previousPixels = null;
+    }
+}
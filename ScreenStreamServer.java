@@ -0,0 +1,552 @@
+/*
+ * @(#)ScreenStreamServer.java
+ */
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code ScreenStreamServer} receives the screen streams of many clients
+ * with a single networking thread.
+ * <p>
+ * Instead of a blocking socket and a thread per client, the server reads
+ * all connections with a {@code Selector}. Each client sends the length
+ * prefixed frames of a {@link ScreenStreamEncoder}. A frame is read into an
+ * array from the shared {@link ByteArrayPool}, and then handed to a decode
+ * pool, which decodes it with the {@link ScreenStreamDecoder} of the client.
+ * <p>
+ * While a frame of a client is being decoded, the server does not read from
+ * the connection of that client. Therefore the frames of a client are
+ * decoded in order, and at most one frame per client is held in memory. The
+ * array of a frame grows as its data arrives, so that a client, which has
+ * only sent the length field, does not hold a large array. Frames larger
+ * than {@link #getMaxFrameLength} close the connection. The
+ * decode pool has a fixed number of threads and a bounded queue. If the
+ * queue is full, the frame is dropped, and a key frame is requested from the
+ * client. Key frames are also requested, when the decoder of a client needs
+ * one.
+ * <p>
+ * The server does not depend on Swing. It informs a {@link Listener} about
+ * clients and decoded frames. A user interface should copy the image in
+ * {@code frameDecoded}, or schedule the repaint on its own thread and
+ * synchronize on the decoder.
+ *
+ * @version 1.3 2026-10-19 The array of a frame grows as its data arrives.
+ * Adds a configurable maximal frame length.
+ * <br>1.2 2026-10-19 A decoder which fails with a runtime exception
+ * requests a key frame.
+ * <br>1.1 2026-10-19 A failed accept only drops the new connection.
+ * Runtime exceptions of the listener are caught. The networking thread does
+ * not lock the decoder anymore.
+ * <br>1.0 2026-10-19 Created.
+ */
+public class ScreenStreamServer {
+
+    /**
+     * Receives the events of a server. Runtime exceptions thrown by the
+     * listener are printed, and do not affect the server.
+     */
+    public static interface Listener {
+
+        /** Invoked on the networking thread when a client has connected. */
+        public void clientConnected(Client client);
+
+        /** Invoked on a decode thread after a frame of the client has changed
+         * the image of its decoder. The decoder is locked during this call. */
+        public void frameDecoded(Client client);
+
+        /** Invoked on the networking thread when a client has disconnected. */
+        public void clientDisconnected(Client client);
+    }
+
+    /**
+     * Holds the state of a client connection.
+     */
+    public class Client {
+
+        private final SocketChannel channel;
+        private final String address;
+        private final ScreenStreamDecoder decoder = new ScreenStreamDecoder();
+        private SelectionKey key;
+        /** Holds the length field of the frame, which is being read. */
+        private final ByteBuffer header = ByteBuffer.allocate(4);
+        /** Holds the frame, which is being read, or null if the length field
+         * is being read. The limit of the buffer is smaller than the frame
+         * length, until the array has grown to the frame length. */
+        private ByteBuffer body;
+        /** The length of the frame, which is being read. */
+        private int frameLength;
+        /** Holds the commands for the client. Guarded by itself. */
+        private final ByteBuffer output = ByteBuffer.allocate(64);
+        /** Set to true while a frame of the client is being decoded. */
+        private volatile boolean decoding;
+        private volatile boolean keyFrameRequested;
+        /** Set by the networking thread when it has dropped a frame. The
+         * next decode task invalidates the decoder, so that the networking
+         * thread does not have to wait for the lock on the decoder. */
+        private volatile boolean decoderInvalid;
+        private volatile boolean closed;
+        private volatile Object userObject;
+
+        private Client(SocketChannel channel) {
+            this.channel = channel;
+            this.address = channel.socket().getInetAddress().getHostAddress();
+        }
+
+        /** Returns the IP address of the client. */
+        public String getAddress() {
+            return address;
+        }
+
+        /** Returns the decoder of the client. Lock the decoder, while you
+         * access its image. */
+        public ScreenStreamDecoder getDecoder() {
+            return decoder;
+        }
+
+        /** Sends a command byte to the client. Commands are dropped if the
+         * client does not read them. */
+        public void sendCommand(int command) {
+            synchronized (output) {
+                if (output.hasRemaining()) {
+                    output.put((byte) command);
+                }
+            }
+            wakeup(this);
+        }
+
+        /** Requests a key frame from the client. */
+        public void requestKeyFrame() {
+            keyFrameRequested = true;
+            sendCommand(ScreenStreamEncoder.KEY_FRAME_REQUEST);
+        }
+
+        /** Closes the connection to the client. */
+        public void close() {
+            closed = true;
+            wakeup(this);
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public Object getUserObject() {
+            return userObject;
+        }
+
+        /** Attaches an object of the application to the client. */
+        public void setUserObject(Object newValue) {
+            userObject = newValue;
+        }
+    }
+
+    /**
+     * Decodes a frame of a client, and resumes reading from the client.
+     */
+    private class DecodeTask implements Runnable {
+
+        private final Client client;
+        private final byte[] frame;
+        private final int length;
+
+        public DecodeTask(Client client, byte[] frame, int length) {
+            this.client = client;
+            this.frame = frame;
+            this.length = length;
+        }
+
+        @Override
+        public void run() {
+            try {
+                ScreenStreamDecoder decoder = client.decoder;
+                synchronized (decoder) {
+                    if (client.decoderInvalid) {
+                        client.decoderInvalid = false;
+                        decoder.invalidate();
+                    }
+                    boolean changed;
+                    try {
+                        changed = decoder.decode(frame, 0, length);
+                    } catch (RuntimeException e) {
+                        // The decoder state is unknown: wait for a key frame
+                        e.printStackTrace();
+                        decoder.invalidate();
+                        changed = false;
+                    } finally {
+                        ByteArrayPool.getInstance().release(frame);
+                    }
+                    if (!decoder.isKeyFrameNeeded()) {
+                        client.keyFrameRequested = false;
+                    } else if (!client.keyFrameRequested) {
+                        client.requestKeyFrame();
+                    }
+                    if (changed && listener != null) {
+                        try {
+                            listener.frameDecoded(client);
+                        } catch (RuntimeException e) {
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            } finally {
+                client.decoding = false;
+                wakeup(client);
+            }
+        }
+    }
+    private final int port;
+    private final Listener listener;
+    private final ThreadPoolExecutor decodePool;
+    private ServerSocketChannel serverChannel;
+    private volatile Selector selector;
+    private Thread thread;
+    private volatile boolean running;
+    /** Holds the clients, whose interest set must be updated by the
+     * networking thread. */
+    private final ConcurrentLinkedQueue<Client> pending = new ConcurrentLinkedQueue<Client>();
+    private final AtomicInteger clientCount = new AtomicInteger();
+    private final AtomicLong frameCount = new AtomicLong();
+    private final AtomicLong droppedFrameCount = new AtomicLong();
+    /** The initial size of the array of a frame. */
+    private final static int INITIAL_BODY_CAPACITY = 64 * 1024;
+    private volatile int maxFrameLength = 16 << 20;
+
+    /** Creates a server with a decode thread per processor and a queue for
+     * 256 frames.
+     *
+     * @param port The port number. Use 0 to pick a free port.
+     * @param listener The listener. May be null.
+     */
+    public ScreenStreamServer(int port, Listener listener) {
+        this(port, Runtime.getRuntime().availableProcessors(), 256, listener);
+    }
+
+    /** Creates a server.
+     *
+     * @param port The port number. Use 0 to pick a free port.
+     * @param decodeThreads The number of decode threads.
+     * @param queueCapacity The maximal number of frames, which wait for a
+     * decode thread.
+     * @param listener The listener. May be null.
+     */
+    public ScreenStreamServer(int port, int decodeThreads, int queueCapacity, Listener listener) {
+        this.port = port;
+        this.listener = listener;
+        decodePool = new ThreadPoolExecutor(decodeThreads, decodeThreads,
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new ThreadFactory() {
+
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "ScreenStreamServer-decode-" + count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+    }
+
+    /** Opens the server socket and starts the networking thread. */
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            throw new IllegalStateException("Server has already been started.");
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.socket().bind(new InetSocketAddress(port), 128);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        thread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                runLoop();
+            }
+        }, "ScreenStreamServer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Stops the server and closes all client connections. */
+    public synchronized void close() throws IOException {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        decodePool.shutdown();
+    }
+
+    /** Returns the largest frame in bytes, which the server accepts.
+     * The default value is 16 MB. */
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    /** Sets the largest frame in bytes, which the server accepts. The
+     * connection of a client, which sends a larger frame, is closed. */
+    public void setMaxFrameLength(int newValue) {
+        if (newValue < ScreenStreamEncoder.HEADER_SIZE || newValue > ScreenStreamEncoder.MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException("Illegal max frame length:" + newValue);
+        }
+        maxFrameLength = newValue;
+    }
+
+    /** Returns the port, on which the server accepts connections. */
+    public int getLocalPort() {
+        return serverChannel == null ? port : serverChannel.socket().getLocalPort();
+    }
+
+    /** Returns the number of connected clients. */
+    public int getClientCount() {
+        return clientCount.get();
+    }
+
+    /** Returns the number of frames, which have been received. */
+    public long getFrameCount() {
+        return frameCount.get();
+    }
+
+    /** Returns the number of frames, which have been dropped because the
+     * decode pool was busy. */
+    public long getDroppedFrameCount() {
+        return droppedFrameCount.get();
+    }
+
+    /** Asks the networking thread to update the interest set of the client. */
+    private void wakeup(Client client) {
+        pending.add(client);
+        Selector s = selector;
+        if (s != null) {
+            s.wakeup();
+        }
+    }
+
+    private void runLoop() {
+        try {
+            while (running) {
+                selector.select();
+                for (Client client; (client = pending.poll()) != null;) {
+                    updateInterest(client);
+                }
+                Iterator<SelectionKey> i = selector.selectedKeys().iterator();
+                while (i.hasNext()) {
+                    SelectionKey key = i.next();
+                    i.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Client client = (Client) key.attachment();
+                    try {
+                        if (key.isWritable()) {
+                            write(client);
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read(client);
+                        }
+                    } catch (IOException e) {
+                        disconnect(client);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Client) {
+                    disconnect((Client) key.attachment());
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                // empty
+            }
+        }
+    }
+
+    /** Accepts the pending connections. A connection which can not be set
+     * up is closed, without affecting the other clients. */
+    private void accept() {
+        for (;;) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                // e.g. too many open files: try again on the next select
+                e.printStackTrace();
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            Client client;
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                client = new Client(channel);
+                client.key = channel.register(selector, SelectionKey.OP_READ, client);
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    // empty
+                }
+                continue;
+            }
+            clientCount.incrementAndGet();
+            if (listener != null) {
+                try {
+                    listener.clientConnected(client);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void disconnect(Client client) {
+        if (client.key == null || !client.key.isValid()) {
+            return;
+        }
+        client.closed = true;
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            // empty
+        }
+        if (client.body != null) {
+            ByteArrayPool.getInstance().release(client.body.array());
+            client.body = null;
+        }
+        clientCount.decrementAndGet();
+        if (listener != null) {
+            try {
+                listener.clientDisconnected(client);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void updateInterest(Client client) {
+        if (client.closed) {
+            disconnect(client);
+            return;
+        }
+        if (!client.key.isValid()) {
+            return;
+        }
+        int ops = client.decoding ? 0 : SelectionKey.OP_READ;
+        synchronized (client.output) {
+            if (client.output.position() > 0) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+        }
+        client.key.interestOps(ops);
+    }
+
+    /** Writes the pending commands to the client. */
+    private void write(Client client) throws IOException {
+        synchronized (client.output) {
+            client.output.flip();
+            client.channel.write(client.output);
+            client.output.compact();
+        }
+        updateInterest(client);
+    }
+
+    /** Reads the length field and the frame of the client. Hands a complete
+     * frame to the decode pool. */
+    private void read(Client client) throws IOException {
+        if (client.body == null) {
+            if (client.channel.read(client.header) < 0) {
+                disconnect(client);
+                return;
+            }
+            if (client.header.hasRemaining()) {
+                return;
+            }
+            client.header.flip();
+            int length = client.header.getInt();
+            client.header.clear();
+            if (length < ScreenStreamEncoder.HEADER_SIZE || length > maxFrameLength) {
+                throw new IOException("Illegal frame length:" + length);
+            }
+            client.frameLength = length;
+            client.body = ByteBuffer.wrap(ByteArrayPool.getInstance().acquire(Math.min(length, INITIAL_BODY_CAPACITY)));
+            client.body.limit(Math.min(length, client.body.capacity()));
+        }
+        for (;;) {
+            if (client.channel.read(client.body) < 0) {
+                disconnect(client);
+                return;
+            }
+            if (client.body.hasRemaining()) {
+                return;
+            }
+            if (client.body.limit() == client.frameLength) {
+                break;
+            }
+            // Grow the array, now that the client has sent the data
+            ByteBuffer old = client.body;
+            byte[] b = ByteArrayPool.getInstance().acquire((int) Math.min(client.frameLength, old.capacity() * 2L));
+            System.arraycopy(old.array(), 0, b, 0, old.position());
+            client.body = ByteBuffer.wrap(b);
+            client.body.limit(Math.min(client.frameLength, b.length)).position(old.position());
+            ByteArrayPool.getInstance().release(old.array());
+        }
+
+        byte[] frame = client.body.array();
+        int length = client.frameLength;
+        client.body = null;
+        frameCount.incrementAndGet();
+        if ((frame[0] & 0xff) == ScreenStreamEncoder.KEY_FRAME) {
+            // The client has answered our request
+            client.keyFrameRequested = false;
+        }
+        client.decoding = true;
+        try {
+            decodePool.execute(new DecodeTask(client, frame, length));
+        } catch (RejectedExecutionException e) {
+            client.decoding = false;
+            ByteArrayPool.getInstance().release(frame);
+            droppedFrameCount.incrementAndGet();
+            client.decoderInvalid = true;
+            if (!client.keyFrameRequested) {
+                client.requestKeyFrame();
+            }
+            return;
+        }
+        updateInterest(client);
+    }
+}
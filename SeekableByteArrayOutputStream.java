@@ -25,6 +25,8 @@ public class SeekableByteArrayOutputStream extends ByteArrayOutputStream {
      * The current stream position.
      */
     private int pos;
+    /** If this is not null, the buffer is grown with arrays from this pool. */
+    private ByteArrayPool pool;
 
     /**
      * Creates a new byte array output stream. The buffer capacity is
@@ -55,6 +57,16 @@ public class SeekableByteArrayOutputStream extends ByteArrayOutputStream {
 	this.buf = buf;
     }
 
+    /**
+     * Creates a new byte array output stream, which reuses the supplied
+     * buffer. When the buffer needs to grow, the larger buffer is acquired
+     * from the pool, and the smaller buffer is released.
+     */
+    public SeekableByteArrayOutputStream(byte[] buf, ByteArrayPool pool) {
+	this.buf = buf;
+        this.pool = pool;
+    }
+
     /**
      * Writes the specified byte to this byte array output stream.
      *
@@ -64,7 +76,7 @@ public class SeekableByteArrayOutputStream extends ByteArrayOutputStream {
     public synchronized void write(int b) {
 	int newcount = max(pos + 1, count);
 	if (newcount > buf.length) {
-            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, newcount));
+            growBuffer(newcount);
 	}
 	buf[pos++] = (byte)b;
 	count = newcount;
@@ -88,13 +100,21 @@ public class SeekableByteArrayOutputStream extends ByteArrayOutputStream {
 	}
         int newcount = max(pos+len,count);
         if (newcount > buf.length) {
-            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, newcount));
+            growBuffer(newcount);
         }
         System.arraycopy(b, off, buf, pos, len);
         pos+=len;
         count = newcount;
     }
 
+    private void growBuffer(int newcount) {
+        if (pool == null) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, newcount));
+        } else {
+            buf = pool.grow(buf, count, newcount);
+        }
+    }
+
     /**
      * Resets the <code>count</code> field of this byte array output
      * stream to zero, so that all currently accumulated output in the
@@ -47,7 +47,7 @@ import java.io.IOException;
  * format, depth=8,16 or 24.
  * </ul>
  * The codec supports lossless delta- and key-frame encoding of images with 8, 16 or
- * 24 bits per pixel.
+ * 24 bits per pixel. Key frames are placed by a {@link KeyFramePolicy}.
  * <p>
  * Compression of a frame is performed in two steps: In the first, step
  * a frame is compressed line by line from bottom to top. In the second step
@@ -111,11 +111,18 @@ import java.io.IOException;
  */
 public class TechSmithCodec extends AbstractVideoCodec {
 
+    /** Name of the image property which holds the bounding box of the
+     * pixels that have changed in a decoded frame. The value is a
+     * {@code java.awt.Rectangle}, which is empty if no pixel has changed. */
+    public final static String CHANGED_AREA_PROPERTY = "changedArea";
+    /** Initial capacity of a pooled output array. */
+    private final static int INITIAL_CAPACITY = 16 * 1024;
     private TechSmithCodecCore state;
     private Object previousPixels;
-    private int frameCounter;
     private Object oldPixels;
-    private Object newPixels;
+    /** The raster into which frames are decoded. */
+    private WritableRaster raster;
+    private KeyFramePolicy keyFramePolicy;
 
     public TechSmithCodec() {
         super(new Format[]{
@@ -168,7 +175,9 @@ public class TechSmithCodec extends AbstractVideoCodec {
     @Override
     public void reset() {
         state = null;
-        frameCounter = 0;
+        if (keyFramePolicy != null) {
+            keyFramePolicy.reset();
+        }
     }
 
     @Override
@@ -198,23 +207,43 @@ public class TechSmithCodec extends AbstractVideoCodec {
         int inputDepth = inputFormat.get(VideoFormatKeys.DepthKey);
         int outputDepth = outputFormat.get(VideoFormatKeys.DepthKey);
 
+        // Decode directly into the raster of the output image. The raster
+        // holds the previous frame, which is needed for delta frames.
+        ColorModel cm;
+        if (outputDepth == 8) {
+            int[] cmap = new int[256];//state.getPalette();
+            for (int i = 0; i < 256; i++) {
+                cmap[i] = 255 << 24 | i | i << 8 | i << 16;
+            }
+            cm = new IndexColorModel(8, 256, cmap, 0, false, -1, DataBuffer.TYPE_BYTE);
+            if (raster == null || raster.getWidth() != width || raster.getHeight() != height
+                    || !(raster.getDataBuffer() instanceof DataBufferByte)) {
+                raster = cm.createCompatibleWritableRaster(width, height);
+            }
+        } else if (outputDepth == 15 || outputDepth == 16 || outputDepth == 24) {
+            cm = new DirectColorModel(24, 0xff << 16, 0xff << 8, 0xff << 0);
+            if (raster == null || raster.getWidth() != width || raster.getHeight() != height
+                    || !(raster.getDataBuffer() instanceof DataBufferInt)) {
+                raster = cm.createCompatibleWritableRaster(width, height);
+            }
+        } else {
+            throw new UnsupportedOperationException("Unsupported depth:" + outputDepth);
+        }
+
         boolean isKeyFrame;
+        Rectangle changedArea = new Rectangle();
         try {
             if (outputDepth == 8) {
-                if (!(newPixels instanceof byte[]) || ((byte[]) newPixels).length != width * height) {
-                    newPixels = new byte[width * height];
-                }
-                isKeyFrame = state.decode8((byte[]) in.data, in.offset, in.length, (byte[]) newPixels, (byte[]) newPixels, width, height, false);
+                byte[] pixels = ((DataBufferByte) raster.getDataBuffer()).getData();
+                isKeyFrame = state.decode8((byte[]) in.data, in.offset, in.length, pixels, pixels, width, height, 0, width, changedArea);
             } else {
-                if (!(newPixels instanceof int[]) || ((int[]) newPixels).length != width * height) {
-                    newPixels = new int[width * height];
-                }
+                int[] pixels = ((DataBufferInt) raster.getDataBuffer()).getData();
                 if (inputDepth == 8) {
-                    isKeyFrame = state.decode8((byte[]) in.data, in.offset, in.length, (int[]) newPixels, (int[]) newPixels, width, height, false);
+                    isKeyFrame = state.decode8((byte[]) in.data, in.offset, in.length, pixels, pixels, width, height, 0, width, changedArea);
                 } else if (inputDepth == 16) {
-                    isKeyFrame = state.decode16((byte[]) in.data, in.offset, in.length, (int[]) newPixels, (int[]) newPixels, width, height, false);
+                    isKeyFrame = state.decode16((byte[]) in.data, in.offset, in.length, pixels, pixels, width, height, 0, width, changedArea);
                 } else {
-                    isKeyFrame = state.decode24((byte[]) in.data, in.offset, in.length, (int[]) newPixels, (int[]) newPixels, width, height, false);
+                    isKeyFrame = state.decode24((byte[]) in.data, in.offset, in.length, pixels, pixels, width, height, 0, width, changedArea);
                 }
             }
         } catch (IOException e) {
@@ -223,79 +252,9 @@ public class TechSmithCodec extends AbstractVideoCodec {
             return CODEC_FAILED;
         }
 
-        MyBufferedImage img = null;
-        if (out.data instanceof MyBufferedImage) {
-            img = (MyBufferedImage) out.data;
-        }
-        switch (outputDepth) {
-            case 8: {
-                int imgType = BufferedImage.TYPE_BYTE_INDEXED; // FIXME - Don't hardcode this value
-                if (img == null || img.getWidth() != width || img.getHeight() != height || img.getType() != imgType) {
-                    int[] cmap = new int[256];
-                    IndexColorModel icm = new IndexColorModel(8, 256, cmap, 0, false, -1, DataBuffer.TYPE_BYTE);
-                    img = new MyBufferedImage(width, height, imgType, icm);
-                } else {
-                    MyBufferedImage oldImg = img;
-                    img = new MyBufferedImage(oldImg.getColorModel(), oldImg.getRaster(), oldImg.isAlphaPremultiplied(), null);
-                }
-                int[] cmap = new int[256];//state.getPalette();
-                for (int i = 0; i < 256; i++) {
-                    cmap[i] = 255 << 24 | i | i << 8 | i << 16;
-                }
-                IndexColorModel icm = new IndexColorModel(8, 256, cmap, 0, false, -1, DataBuffer.TYPE_BYTE);
-                img.setColorModel(icm);
-                byte[] pixels = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
-                System.arraycopy((byte[]) newPixels, 0, pixels, 0, width * height);
-            }
-            break;
-            case 15: {
-                int imgType = BufferedImage.TYPE_USHORT_555_RGB;
-                if (img == null || img.getWidth() != width || img.getHeight() != height || img.getType() != imgType) {
-                    DirectColorModel cm = new DirectColorModel(15, 0x1f << 10, 0x1f << 5, 0x1f << 0);
-                    img = new MyBufferedImage(cm, Raster.createWritableRaster(cm.createCompatibleSampleModel(width, height), new Point(0, 0)), false, new Hashtable());
-                } else {
-                    MyBufferedImage oldImg = img;
-                    img = new MyBufferedImage(oldImg.getColorModel(), oldImg.getRaster(), oldImg.isAlphaPremultiplied(), null);
-                }
-                short[] pixels = ((DataBufferUShort) img.getRaster().getDataBuffer()).getData();
-                System.arraycopy((short[]) newPixels, 0, pixels, 0, width * height);
-            }
-            break;
-            case 16: {
-                //int imgType = BufferedImage.TYPE_USHORT_565_RGB;
-                int imgType = BufferedImage.TYPE_INT_RGB;
-                if (img == null || img.getWidth() != width || img.getHeight() != height || img.getType() != imgType) {
-                    //DirectColorModel cm = new DirectColorModel(24, 0x1f << 11, 0x3f << 5, 0x1f << 0);
-                    DirectColorModel cm=new DirectColorModel(24, 0xff << 16, 0xff << 8, 0xff << 0);
-                    img = new MyBufferedImage(cm, Raster.createWritableRaster(cm.createCompatibleSampleModel(width, height), new Point(0, 0)), false, new Hashtable());
-                } else {
-                    MyBufferedImage oldImg = img;
-                    img = new MyBufferedImage(oldImg.getColorModel(), oldImg.getRaster(), oldImg.isAlphaPremultiplied(), null);
-                }
-                /*
-                short[] pixels = ((DataBufferUShort) img.getRaster().getDataBuffer()).getData();
-                System.arraycopy((short[]) newPixels, 0, pixels, 0, width * height);
-                */
-                int[] pixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
-                System.arraycopy((int[]) newPixels, 0, pixels, 0, width * height);
-            }
-            break;
-            case 24: {
-                int imgType = BufferedImage.TYPE_INT_RGB;
-                if (img == null || img.getWidth() != width || img.getHeight() != height || img.getType() != imgType) {
-                    DirectColorModel cm = new DirectColorModel(24, 0xff << 16, 0xff << 8, 0xff << 0);
-                    img = new MyBufferedImage(cm, Raster.createWritableRaster(cm.createCompatibleSampleModel(width, height), new Point(0, 0)), false, new Hashtable());
-                } else {
-                    MyBufferedImage oldImg = img;
-                    img = new MyBufferedImage(oldImg.getColorModel(), oldImg.getRaster(), oldImg.isAlphaPremultiplied(), null);
-                }
-                int[] pixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
-                System.arraycopy((int[]) newPixels, 0, pixels, 0, width * height);
-            }
-            break;
-            default:
-                throw new UnsupportedOperationException("Unsupported depth:" + outputDepth);
-        }
+        Hashtable<String, Object> properties = new Hashtable<String, Object>();
+        properties.put(CHANGED_AREA_PROPERTY, changedArea);
+        MyBufferedImage img = new MyBufferedImage(cm, raster, false, properties);
 
         out.setFlag(BufferFlag.KEYFRAME, isKeyFrame);
 
@@ -310,18 +269,16 @@ public class TechSmithCodec extends AbstractVideoCodec {
             return CODEC_OK;
         }
 
-        SeekableByteArrayOutputStream tmp;
-        if (out.data instanceof byte[]) {
-            tmp = new SeekableByteArrayOutputStream((byte[]) out.data);
-        } else {
-            tmp = new SeekableByteArrayOutputStream();
-        }
+        // The stream takes over the pooled array of the output buffer, and
+        // grows it with arrays from the pool.
+        ByteArrayPool pool = ByteArrayPool.getInstance();
+        SeekableByteArrayOutputStream tmp = new SeekableByteArrayOutputStream(takePooledOutput(out, INITIAL_CAPACITY), pool);
 
-        boolean isKeyframe = frameCounter == 0
-                || frameCounter % outputFormat.get(VideoFormatKeys.KeyFrameIntervalKey, outputFormat.get(VideoFormatKeys.FrameRateKey).intValue()) == 0;
-        out.setFlag(BufferFlag.KEYFRAME, isKeyframe);
+        if (keyFramePolicy == null) {
+            keyFramePolicy = KeyFramePolicy.forFormat(outputFormat);
+        }
+        boolean isKeyframe = keyFramePolicy.isKeyFrameRequired();
         out.clearFlag(BufferFlag.SAME_DATA);
-        frameCounter++;
 
         // Handle sub-image
         Rectangle r;
@@ -340,7 +297,11 @@ public class TechSmithCodec extends AbstractVideoCodec {
             out.header = null;
         }
         int offset = r.x + r.y * scanlineStride;
+        int width = outputFormat.get(VideoFormatKeys.WidthKey);
+        int height = outputFormat.get(VideoFormatKeys.HeightKey);
+        boolean isSameData = in.isFlag(BufferFlag.SAME_DATA);
 
+        boolean done = false;
         try {
             switch (outputFormat.get(VideoFormatKeys.DepthKey)) {
                 case 8: {
@@ -350,15 +311,21 @@ public class TechSmithCodec extends AbstractVideoCodec {
                         return CODEC_OK;
                     }
 
-                    if (isKeyframe) {
-                        state.encodeKey8(tmp, pixels, outputFormat.get(VideoFormatKeys.WidthKey), outputFormat.get(VideoFormatKeys.HeightKey), offset, scanlineStride);
-                    } else {
-                        if (in.isFlag(BufferFlag.SAME_DATA)) {
-                            state.encodeSameDelta8(tmp, pixels, (byte[]) previousPixels, outputFormat.get(VideoFormatKeys.WidthKey), outputFormat.get(VideoFormatKeys.HeightKey), offset, scanlineStride);
+                    isKeyframe = isKeyframe || previousPixels == null
+                            || !isSameData && keyFramePolicy.isSceneChange(pixels, (byte[]) previousPixels, width, height, offset, scanlineStride);
+                    if (!isKeyframe) {
+                        if (isSameData) {
+                            state.encodeSameDelta8(tmp, pixels, (byte[]) previousPixels, width, height, offset, scanlineStride);
                         } else {
-                            state.encodeDelta8(tmp, pixels, (byte[]) previousPixels, outputFormat.get(VideoFormatKeys.WidthKey), outputFormat.get(VideoFormatKeys.HeightKey), offset, scanlineStride);
+                            state.encodeDelta8(tmp, pixels, (byte[]) previousPixels, width, height, offset, scanlineStride);
                         }
-                        out.clearFlag(BufferFlag.KEYFRAME);
+                        if (keyFramePolicy.isDeltaTooLarge(tmp.size())) {
+                            tmp.reset();
+                            isKeyframe = true;
+                        }
+                    }
+                    if (isKeyframe) {
+                        state.encodeKey8(tmp, pixels, width, height, offset, scanlineStride);
                     }
                     if (previousPixels == null) {
                         previousPixels = pixels.clone();
@@ -374,15 +341,22 @@ public class TechSmithCodec extends AbstractVideoCodec {
                         return CODEC_OK;
                     }
 
-                    if (isKeyframe) {
-                        state.encodeKey16(tmp, pixels, outputFormat.get(VideoFormatKeys.WidthKey), outputFormat.get(VideoFormatKeys.HeightKey), offset, scanlineStride);
-                    } else {
-                        if (in.isFlag(BufferFlag.SAME_DATA)) {
-                            state.encodeSameDelta16(tmp, pixels, (short[]) previousPixels, outputFormat.get(VideoFormatKeys.WidthKey), outputFormat.get(VideoFormatKeys.HeightKey), offset, scanlineStride);
+                    isKeyframe = isKeyframe || previousPixels == null
+                            || !isSameData && keyFramePolicy.isSceneChange(pixels, (short[]) previousPixels, width, height, offset, scanlineStride);
+                    if (!isKeyframe) {
+                        if (isSameData) {
+                            state.encodeSameDelta16(tmp, pixels, (short[]) previousPixels, width, height, offset, scanlineStride);
                         } else {
-                            state.encodeDelta16(tmp, pixels, (short[]) previousPixels, outputFormat.get(VideoFormatKeys.WidthKey), outputFormat.get(VideoFormatKeys.HeightKey), offset, scanlineStride);
+                            state.encodeDelta16(tmp, pixels, (short[]) previousPixels, width, height, offset, scanlineStride);
+                        }
+                        if (keyFramePolicy.isDeltaTooLarge(tmp.size())) {
+                            tmp.reset();
+                            isKeyframe = true;
                         }
                     }
+                    if (isKeyframe) {
+                        state.encodeKey16(tmp, pixels, width, height, offset, scanlineStride);
+                    }
                     if (previousPixels == null) {
                         previousPixels = pixels.clone();
                     } else {
@@ -397,16 +371,21 @@ public class TechSmithCodec extends AbstractVideoCodec {
                         return CODEC_OK;
                     }
 
-                    if (isKeyframe) {
-                        state.encodeKey24(tmp, pixels, outputFormat.get(VideoFormatKeys.WidthKey), outputFormat.get(VideoFormatKeys.HeightKey), offset, scanlineStride);
-                        out.setFlag(BufferFlag.KEYFRAME);
-                    } else {
-                        if (in.isFlag(BufferFlag.SAME_DATA)) {
-                            state.encodeSameDelta24(tmp, pixels, (int[]) previousPixels, outputFormat.get(VideoFormatKeys.WidthKey), outputFormat.get(VideoFormatKeys.HeightKey), offset, scanlineStride);
+                    isKeyframe = isKeyframe || previousPixels == null
+                            || !isSameData && keyFramePolicy.isSceneChange(pixels, (int[]) previousPixels, width, height, offset, scanlineStride);
+                    if (!isKeyframe) {
+                        if (isSameData) {
+                            state.encodeSameDelta24(tmp, pixels, (int[]) previousPixels, width, height, offset, scanlineStride);
                         } else {
-                            state.encodeDelta24(tmp, pixels, (int[]) previousPixels, outputFormat.get(VideoFormatKeys.WidthKey), outputFormat.get(VideoFormatKeys.HeightKey), offset, scanlineStride);
+                            state.encodeDelta24(tmp, pixels, (int[]) previousPixels, width, height, offset, scanlineStride);
+                        }
+                        if (keyFramePolicy.isDeltaTooLarge(tmp.size())) {
+                            tmp.reset();
+                            isKeyframe = true;
                         }
-                        out.clearFlag(BufferFlag.KEYFRAME);
+                    }
+                    if (isKeyframe) {
+                        state.encodeKey24(tmp, pixels, width, height, offset, scanlineStride);
                     }
                     if (previousPixels == null) {
                         previousPixels = pixels.clone();
@@ -421,19 +400,39 @@ public class TechSmithCodec extends AbstractVideoCodec {
                 }
             }
 
+            keyFramePolicy.frameEncoded(isKeyframe, tmp.size());
+            out.setFlag(BufferFlag.KEYFRAME, isKeyframe);
             out.format = outputFormat;
-            out.data = tmp.getBuffer();
+            putPooledOutput(out, tmp.getBuffer());
             out.offset = 0;
             out.sampleCount = 1;
             out.length = tmp.size();
+            done = true;
             return CODEC_OK;
         } catch (IOException ex) {
             ex.printStackTrace();
             out.setFlag(BufferFlag.DISCARD);
             return CODEC_OK;
+        } finally {
+            if (!done) {
+                // The array has not been handed out
+                pool.release(tmp.getBuffer());
+            }
         }
     }
 
+    /** Returns the key frame policy of the encoder. Returns null if the
+     * encoder has not encoded a frame yet and no policy has been set. */
+    public KeyFramePolicy getKeyFramePolicy() {
+        return keyFramePolicy;
+    }
+
+    /** Sets the key frame policy of the encoder. If no policy is set, the
+     * encoder creates one with {@link KeyFramePolicy#forFormat}. */
+    public void setKeyFramePolicy(KeyFramePolicy newValue) {
+        this.keyFramePolicy = newValue;
+    }
+
     private static class MyBufferedImage extends BufferedImage {
 
         private ColorModel colorModel;
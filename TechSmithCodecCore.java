@@ -9,9 +9,11 @@
  * For details see accompanying license terms.
  */
 
-import java.util.zip.InflaterInputStream;
+import java.awt.Rectangle;
+import java.util.zip.DataFormatException;
 import java.util.zip.DeflaterOutputStream;
-import java.io.ByteArrayInputStream;
+import java.util.zip.Inflater;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteOrder;
@@ -161,8 +163,11 @@ import static java.lang.Math.*;
  */
 public class TechSmithCodecCore extends AbstractVideoCodecCore {
 
-    private ByteArrayImageOutputStream temp = new ByteArrayImageOutputStream(ByteOrder.LITTLE_ENDIAN);
-    private byte[] temp2;
+    private ByteBufferImageOutputStream temp = new ByteBufferImageOutputStream(ByteOrder.LITTLE_ENDIAN);
+    /** The inflater is reset for each frame. */
+    private Inflater inflater;
+    /** Holds the inflated data of the current frame. */
+    private byte[] inflated;
     private int[] palette;
 
     public TechSmithCodecCore() {
@@ -189,7 +194,7 @@ public class TechSmithCodecCore extends AbstractVideoCodecCore {
      */
     public void decodePalette(byte[] inDat, int off, int len) throws IOException {
         getPalette();
-        ByteArrayImageInputStream in = new ByteArrayImageInputStream(inDat, off, len, ByteOrder.LITTLE_ENDIAN);
+        ByteBufferImageInputStream in = new ByteBufferImageInputStream(inDat, off, len, ByteOrder.LITTLE_ENDIAN);
         int firstEntry = in.readUnsignedByte();
         int numEntries = in.readUnsignedByte();
         if (numEntries == 0) {
@@ -206,10 +211,10 @@ public class TechSmithCodecCore extends AbstractVideoCodecCore {
         }
     }
 
-    /** Decodes to 8-bit palettised. 
+    /** Decodes to 8-bit palettised.
      * Returns true if a key-frame was decoded.
-     * 
-     * 
+     *
+     *
      * @param inDat
      * @param off
      * @param length
@@ -221,43 +226,77 @@ public class TechSmithCodecCore extends AbstractVideoCodecCore {
      * @param height
      * @param onlyDecodeIfKeyframe
      * @return True if a key-frame was decoded.
-     * @throws IOException 
+     * @throws IOException
      */
     public boolean decode8(byte[] inDat, int off, int length, byte[] outDat, byte[] prevDat, int width, int height, boolean onlyDecodeIfKeyframe) throws IOException {
+        return decode8(inDat, off, length, outDat, prevDat, width, height, 0, width, null);
+    }
+
+    /** Decodes to 8-bit palettised directly into the data array of a raster.
+     * Returns true if a key-frame was decoded.
+     *
+     * @param inDat The input data.
+     * @param off The offset of the input data.
+     * @param length The length of the input data.
+     * @param outDat The output data, typically the data array of a
+     *                {@code DataBufferByte}.
+     * @param prevDat The pixels decoded in the previous frame. This can be the
+     *                same array than {@code outDat}.
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @param offset The offset to the first pixel in the data arrays.
+     * @param scanlineStride The number to add to offset to get to the next
+     *                scanline.
+     * @param changedArea If not null, this rectangle is set to the bounding
+     *                box of the pixels which have been changed by the frame.
+     *                The rectangle is empty if no pixel has changed.
+     * @return True if a key-frame was decoded.
+     * @throws IOException
+     */
+    public boolean decode8(byte[] inDat, int off, int length, byte[] outDat, byte[] prevDat, int width, int height, int offset, int scanlineStride, Rectangle changedArea) throws IOException {
         // Handle delta frame with all identical pixels
         if (length <= 2) {
+            if (changedArea != null) {
+                changedArea.setBounds(0, 0, 0, 0);
+            }
             return false;
         }
 
-        UncachedImageInputStream in = new UncachedImageInputStream(
-                new InflaterInputStream(new ByteArrayInputStream(inDat, off, length)));
+        int n = inflate(inDat, off, length, maxFrameLength(width, height, 1));
+        byte[] in = inflated;
+        int pos = 0;
 
-        int offset = 0;
-        int scanlineStride = width;
-        int upsideDown = (height - 1) * scanlineStride + offset;
         // Decode each scanline
-        int verticalOffset = 0;
+        int minX = width, minY = height, maxX = 0, maxY = 0;
         boolean isKeyFrame = true;
         try {
             int y = 0;
-            int xy = upsideDown;
+            int lineStart = (height - 1) * scanlineStride + offset;
+            int xy = lineStart;
             loop:
             while (true) {
-                int opcode = in.readUnsignedByte();
+                if (pos + 2 > n) {
+                    throw new EOFException();
+                }
+                int opcode = in[pos++] & 0xff;
                 if (opcode == 0) {
-                    opcode = in.readUnsignedByte();
+                    opcode = in[pos++] & 0xff;
                     switch (opcode) {
                         case 0x0000: // end of line
                             y++;
-                            xy = (height - 1 - y) * scanlineStride + offset;
+                            xy = lineStart = (height - 1 - y) * scanlineStride + offset;
                             break;
                         case 0x0001: // end of bitmap
                             break loop;
                         case 0x0002: // delta skip
                             isKeyFrame = false;
-                            int dx = in.readUnsignedByte();
-                            int dy = in.readUnsignedByte();
+                            if (pos + 2 > n) {
+                                throw new EOFException();
+                            }
+                            int dx = in[pos++] & 0xff;
+                            int dy = in[pos++] & 0xff;
                             y += dy;
+                            lineStart -= dy * scanlineStride;
                             int end = xy + dx - dy * scanlineStride;
                             if (prevDat != outDat) {
                                 System.arraycopy(prevDat, xy, outDat, xy, end - xy);
@@ -265,19 +304,37 @@ public class TechSmithCodecCore extends AbstractVideoCodecCore {
                             xy = end;
                             break;
                         default: // literal run
-                            in.readFully(outDat, xy, opcode);
-                            xy += opcode;
+                            if (pos + opcode + (opcode & 1) > n) {
+                                throw new EOFException();
+                            }
+                            System.arraycopy(in, pos, outDat, xy, opcode);
+                            pos += opcode;
                             if ((opcode & 1) == 1) {
-                                int pad = in.readByte() & 0xff;
+                                int pad = in[pos++] & 0xff;
                                 if (pad != 0) {
                                     throw new IOException("Illegal pad byte, pad=0x" + Integer.toHexString(pad));
                                 }
                             }
+                            if (changedArea != null) {
+                                int x = xy - lineStart;
+                                minX = min(minX, x);
+                                maxX = max(maxX, x + opcode);
+                                minY = min(minY, height - 1 - y);
+                                maxY = max(maxY, height - y);
+                            }
+                            xy += opcode;
                             break;
                     }
                 } else {
                     // repetition
-                    byte v = in.readByte();
+                    byte v = in[pos++];
+                    if (changedArea != null) {
+                        int x = xy - lineStart;
+                        minX = min(minX, x);
+                        maxX = max(maxX, x + opcode);
+                        minY = min(minY, height - 1 - y);
+                        maxY = max(maxY, height - y);
+                    }
                     for (int end = xy + opcode; xy < end; xy++) {
                         outDat[xy] = v;
                     }
@@ -285,16 +342,18 @@ public class TechSmithCodecCore extends AbstractVideoCodecCore {
 
             }
         } catch (ArrayIndexOutOfBoundsException t) {
-            t.printStackTrace();
+            IOException e = new IOException("Corrupt frame");
+            e.initCause(t);
+            throw e;
         }
-        in.close();
+        setChangedArea(changedArea, minX, minY, maxX, maxY);
         return isKeyFrame;
     }
 
-    /** Decodes to 24-bit direct color. 
+    /** Decodes to 24-bit direct color.
      * Returns true if a key-frame was decoded.
-     * 
-     * 
+     *
+     *
      * @param inDat
      * @param off
      * @param length
@@ -306,47 +365,109 @@ public class TechSmithCodecCore extends AbstractVideoCodecCore {
      * @param height
      * @param onlyDecodeIfKeyframe
      * @return True if a key-frame was decoded.
-     * @throws IOException 
+     * @throws IOException
      */
     public boolean decode8(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, boolean onlyDecodeIfKeyframe) throws IOException {
+        return decode8(inDat, off, length, outDat, prevDat, width, height, 0, width, null);
+    }
+
+    /** Decodes 8-bit palettised data to 24-bit direct color directly into
+     * the data array of a raster. The palette lookup is done while decoding.
+     * Returns true if a key-frame was decoded.
+     *
+     * @see #decode8(byte[], int, int, byte[], byte[], int, int, int, int, java.awt.Rectangle)
+     */
+    public boolean decode8(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, int offset, int scanlineStride, Rectangle changedArea) throws IOException {
+        return decodeToInt(8, inDat, off, length, outDat, prevDat, width, height, offset, scanlineStride, changedArea);
+    }
+
+    /** Decodes to 24-bit RGB.
+     * Returns true if a key-frame was decoded.
+     */
+    public boolean decode24(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, boolean onlyDecodeIfKeyframe) throws IOException {
+        return decode24(inDat, off, length, outDat, prevDat, width, height, 0, width, null);
+    }
+
+    /** Decodes to 24-bit RGB directly into the data array of a raster.
+     * Returns true if a key-frame was decoded.
+     *
+     * @see #decode8(byte[], int, int, byte[], byte[], int, int, int, int, java.awt.Rectangle)
+     */
+    public boolean decode24(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, int offset, int scanlineStride, Rectangle changedArea) throws IOException {
+        return decodeToInt(24, inDat, off, length, outDat, prevDat, width, height, offset, scanlineStride, changedArea);
+    }
+
+    /** Decodes from 16-bit to 24-bit RGB.
+     * Returns true if a key-frame was decoded.
+     */
+    public boolean decode16(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, boolean onlyDecodeIfKeyframe) throws IOException {
         // Handle delta frame with all identical pixels
         if (length <= 2) {
+            if (outDat!=prevDat) {
+                System.arraycopy(prevDat,0,outDat,0,width*height);
+            }
             return false;
         }
-        if (temp2 == null || temp2.length < 255) {
-            temp2 = new byte[255];
+        return decode16(inDat, off, length, outDat, prevDat, width, height, 0, width, null);
+    }
+
+    /** Decodes from 16-bit to 24-bit RGB directly into the data array of a
+     * raster.
+     * Returns true if a key-frame was decoded.
+     *
+     * @see #decode8(byte[], int, int, byte[], byte[], int, int, int, int, java.awt.Rectangle)
+     */
+    public boolean decode16(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, int offset, int scanlineStride, Rectangle changedArea) throws IOException {
+        return decodeToInt(16, inDat, off, length, outDat, prevDat, width, height, offset, scanlineStride, changedArea);
+    }
+
+    /** Decodes 8-bit, 16-bit or 24-bit data to 24-bit RGB. */
+    private boolean decodeToInt(int depth, byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, int offset, int scanlineStride, Rectangle changedArea) throws IOException {
+        // Handle delta frame with all identical pixels
+        if (length <= 2) {
+            if (changedArea != null) {
+                changedArea.setBounds(0, 0, 0, 0);
+            }
+            return false;
         }
-        getPalette();
+        int[] pal = depth == 8 ? getPalette() : null;
+        int bytesPerPixel = depth == 8 ? 1 : depth == 16 ? 2 : 3;
 
-        UncachedImageInputStream in = new UncachedImageInputStream(
-                new InflaterInputStream(new ByteArrayInputStream(inDat, off, length)));
+        int n = inflate(inDat, off, length, maxFrameLength(width, height, bytesPerPixel));
+        byte[] in = inflated;
+        int pos = 0;
 
-        int offset = 0;
-        int scanlineStride = width;
-        int upsideDown = (height - 1) * scanlineStride + offset;
         // Decode each scanline
-        int verticalOffset = 0;
+        int minX = width, minY = height, maxX = 0, maxY = 0;
         boolean isKeyFrame = true;
         try {
             int y = 0;
-            int xy = upsideDown;
+            int lineStart = (height - 1) * scanlineStride + offset;
+            int xy = lineStart;
             loop:
             while (true) {
-                int opcode = in.readUnsignedByte();
+                if (pos + 2 > n) {
+                    throw new EOFException();
+                }
+                int opcode = in[pos++] & 0xff;
                 if (opcode == 0) {
-                    opcode = in.readUnsignedByte();
+                    opcode = in[pos++] & 0xff;
                     switch (opcode) {
                         case 0x0000: // end of line
                             y++;
-                            xy = (height - 1 - y) * scanlineStride + offset;
+                            xy = lineStart = (height - 1 - y) * scanlineStride + offset;
                             break;
                         case 0x0001: // end of bitmap
                             break loop;
                         case 0x0002: { // delta skip
                             isKeyFrame = false;
-                            int dx = in.readUnsignedByte();
-                            int dy = in.readUnsignedByte();
+                            if (pos + 2 > n) {
+                                throw new EOFException();
+                            }
+                            int dx = in[pos++] & 0xff;
+                            int dy = in[pos++] & 0xff;
                             y += dy;
+                            lineStart -= dy * scanlineStride;
                             int end = xy + dx - dy * scanlineStride;
                             if (prevDat != outDat) {
                                 System.arraycopy(prevDat, xy, outDat, xy, end - xy);
@@ -355,90 +476,70 @@ public class TechSmithCodecCore extends AbstractVideoCodecCore {
                             break;
                         }
                         default: { // literal run
-                            in.readFully(temp2, 0, opcode);
-                            for (int i = 0; i < opcode; i++) {
-                                outDat[xy + i] = palette[temp2[i] & 0xff];
+                            // Only 8-bit literal runs are padded to an even length
+                            int pad = depth == 8 ? opcode & 1 : 0;
+                            if (pos + opcode * bytesPerPixel + pad > n) {
+                                throw new EOFException();
                             }
-                            xy += opcode;
-                            if ((opcode & 1) == 1) {
-                                int pad = in.readByte() & 0xff;
-                                if (pad != 0) {
-                                    throw new IOException("Illegal pad byte, pad=0x" + Integer.toHexString(pad));
-                                }
+                            if (changedArea != null) {
+                                int x = xy - lineStart;
+                                minX = min(minX, x);
+                                maxX = max(maxX, x + opcode);
+                                minY = min(minY, height - 1 - y);
+                                maxY = max(maxY, height - y);
+                            }
+                            int end = xy + opcode;
+                            switch (depth) {
+                                case 8:
+                                    for (; xy < end; xy++) {
+                                        outDat[xy] = pal[in[pos++] & 0xff];
+                                    }
+                                    if (pad == 1) {
+                                        int padByte = in[pos++] & 0xff;
+                                        if (padByte != 0) {
+                                            throw new IOException("Illegal pad byte, pad=0x" + Integer.toHexString(padByte));
+                                        }
+                                    }
+                                    break;
+                                case 16:
+                                    for (; xy < end; xy++, pos += 2) {
+                                        outDat[xy] = rgb555to24((in[pos] & 0xff) | ((in[pos + 1] & 0xff) << 8));
+                                    }
+                                    break;
+                                default:
+                                    for (; xy < end; xy++, pos += 3) {
+                                        outDat[xy] = (in[pos] & 0xff) | ((in[pos + 1] & 0xff) << 8) | ((in[pos + 2] & 0xff) << 16);
+                                    }
+                                    break;
                             }
                             break;
                         }
                     }
                 } else {
                     // repetition
-                    int v = palette[in.readUnsignedByte()];
-                    for (int end = xy + opcode; xy < end; xy++) {
-                        outDat[xy] = v;
+                    if (pos + bytesPerPixel > n) {
+                        throw new EOFException();
                     }
-                }
-
-            }
-        } catch (ArrayIndexOutOfBoundsException t) {
-            t.printStackTrace();
-        }
-        in.close();
-        return isKeyFrame;
-    }
-
-    /** Decodes to 24-bit RGB. 
-     * Returns true if a key-frame was decoded.
-     */
-    public boolean decode24(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, boolean onlyDecodeIfKeyframe) throws IOException {
-        // Handle delta frame with all identical pixels
-        if (length <= 2) {
-            return false;
-        }
-
-        UncachedImageInputStream in = new UncachedImageInputStream(
-                new InflaterInputStream(new ByteArrayInputStream(inDat, off, length)));
-
-        int offset = 0;
-        int scanlineStride = width;
-        int upsideDown = (height - 1) * scanlineStride + offset;
-        // Decode each scanline
-        int verticalOffset = 0;
-        boolean isKeyFrame = true;
-        try {
-            int y = 0;
-            int xy = upsideDown;
-            loop:
-            while (true) {
-                int opcode = in.readUnsignedByte();
-                if (opcode == 0) {
-                    opcode = in.readUnsignedByte();
-                    switch (opcode) {
-                        case 0x0000: // end of line
-                            y++;
-                            xy = (height - 1 - y) * scanlineStride + offset;
+                    int v;
+                    switch (depth) {
+                        case 8:
+                            v = pal[in[pos] & 0xff];
                             break;
-                        case 0x0001: // end of bitmap
-                            break loop;
-                        case 0x0002: {// delta skip
-                            isKeyFrame = false;
-                            int dx = in.readUnsignedByte();
-                            int dy = in.readUnsignedByte();
-                            y += dy;
-                            int end = xy + dx - dy * scanlineStride;
-                            if (prevDat != outDat) {
-                                System.arraycopy(prevDat, xy, outDat, xy, end - xy);
-                            }
-                            xy = end;
+                        case 16:
+                            v = rgb555to24((in[pos] & 0xff) | ((in[pos + 1] & 0xff) << 8));
                             break;
-                        }
-                        default: {// literal run
-                            readInts24LE(in, outDat, xy, opcode);
-                            xy += opcode;
+                        default:
+                            v = (in[pos] & 0xff) | ((in[pos + 1] & 0xff) << 8) | ((in[pos + 2] & 0xff) << 16);
                             break;
-                        }
                     }
-                } else {
-                    // repetition
-                    int v = readInt24LE(in);
+                    pos += bytesPerPixel;
+                    if (changedArea != null) {
+                        int x = xy - lineStart;
+                        minX = min(minX, x);
+                        maxX = max(maxX, x + opcode);
+                        minY = min(minY, height - 1 - y);
+                        maxY = max(maxY, height - y);
+                    }
                     for (int end = xy + opcode; xy < end; xy++) {
                         outDat[xy] = v;
                     }
@@ -446,79 +547,85 @@ public class TechSmithCodecCore extends AbstractVideoCodecCore {
 
             }
         } catch (ArrayIndexOutOfBoundsException t) {
-            t.printStackTrace();
+            IOException e = new IOException("Corrupt frame");
+            e.initCause(t);
+            throw e;
         }
-        in.close();
+        setChangedArea(changedArea, minX, minY, maxX, maxY);
         return isKeyFrame;
     }
-    /** Decodes from 16-bit to 24-bit RGB. 
-     * Returns true if a key-frame was decoded.
-     */
-    public boolean decode16(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, boolean onlyDecodeIfKeyframe) throws IOException {
-        // Handle delta frame with all identical pixels
-        if (length <= 2) {
-            if (outDat!=prevDat) {
-                System.arraycopy(prevDat,0,outDat,0,width*height);
+
+    /** Converts a 16-bit RGB 555 value to 24-bit RGB. */
+    private static int rgb555to24(int v) {
+        return ((v & (0x1f << 10)) << 9) | ((v & (0x1c << 10)) << 4) // red
+                | ((v & (0x1f << 5)) << 6) | ((v & (0x1c << 5)) << 1) // green
+                | ((v & (0x1f << 0)) << 3) | ((v & (0x1c << 0)) >> 2); // blue
+    }
+
+    private static void setChangedArea(Rectangle changedArea, int minX, int minY, int maxX, int maxY) {
+        if (changedArea != null) {
+            if (minX < maxX && minY < maxY) {
+                changedArea.setBounds(minX, minY, maxX - minX, maxY - minY);
+            } else {
+                changedArea.setBounds(0, 0, 0, 0);
             }
-            return false;
         }
+    }
 
-        UncachedImageInputStream in = new UncachedImageInputStream(
-                new InflaterInputStream(new ByteArrayInputStream(inDat, off, length)), ByteOrder.LITTLE_ENDIAN);
+    /** Returns the largest number of bytes, which a valid frame can inflate
+     * to. In the worst case each pixel is a run of its own, and each
+     * scanline ends with an op-code. */
+    private static int maxFrameLength(int width, int height, int bytesPerPixel) {
+        return (int) min(Integer.MAX_VALUE - 8,
+                (long) width * height * (bytesPerPixel + 2) + 2L * height + 4);
+    }
 
-        int offset = 0;
-        int scanlineStride = width;
-        int upsideDown = (height - 1) * scanlineStride + offset;
-        // Decode each scanline
-        int verticalOffset = 0;
-        boolean isKeyFrame = true;
+    /** Inflates a frame into the {@code inflated} array.
+     * Each frame is an independent zlib stream.
+     *
+     * @param maxLength The largest number of bytes of a valid frame.
+     * @return The number of inflated bytes.
+     * @throws IOException if the frame inflates to more than maxLength
+     * bytes.
+     */
+    private int inflate(byte[] inDat, int off, int length, int maxLength) throws IOException {
+        if (inflater == null) {
+            inflater = new Inflater();
+        } else {
+            inflater.reset();
+        }
+        inflater.setInput(inDat, off, length);
+        if (inflated == null) {
+            inflated = new byte[(int) min(maxLength, max(4096, length * 4L))];
+        }
+        int n = 0;
         try {
-            int y = 0;
-            int xy = upsideDown;
-            loop:
             while (true) {
-                int opcode = in.readUnsignedByte();
-                if (opcode == 0) {
-                    opcode = in.readUnsignedByte();
-                    switch (opcode) {
-                        case 0x0000: // end of line
-                            y++;
-                            xy = (height - 1 - y) * scanlineStride + offset;
-                            break;
-                        case 0x0001: // end of bitmap
-                            break loop;
-                        case 0x0002: {// delta skip
-                            isKeyFrame = false;
-                            int dx = in.readUnsignedByte();
-                            int dy = in.readUnsignedByte();
-                            y += dy;
-                            int end = xy + dx - dy * scanlineStride;
-                            if (prevDat != outDat) {
-                                System.arraycopy(prevDat, xy, outDat, xy, end - xy);
-                            }
-                            xy = end;
-                            break;
-                        }
-                        default: {// literal run
-                            readRGBs555to24(in, outDat, xy, opcode);
-                            xy += opcode;
-                            break;
-                        }
+                int limit = min(inflated.length, maxLength);
+                if (n == limit) {
+                    if (inflater.finished()) {
+                        break;
                     }
-                } else {
-                    // repetition
-                    int v = readRGB555to24(in);
-                    for (int end = xy + opcode; xy < end; xy++) {
-                        outDat[xy] = v;
+                    if (n == maxLength) {
+                        throw new IOException("Frame is larger than " + maxLength + " bytes");
                     }
+                    byte[] b = new byte[(int) min(maxLength, inflated.length * 2L)];
+                    System.arraycopy(inflated, 0, b, 0, n);
+                    inflated = b;
+                    limit = b.length;
+                }
+                int count = inflater.inflate(inflated, n, limit - n);
+                n += count;
+                if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
                 }
-
             }
-        } catch (ArrayIndexOutOfBoundsException t) {
-            t.printStackTrace();
+        } catch (DataFormatException e) {
+            IOException ex = new IOException("Illegal zlib data");
+            ex.initCause(e);
+            throw ex;
         }
-        in.close();
-        return isKeyFrame;
+        return n;
     }
 
     /** Encodes an 8-bit delta frame with indexed colors.
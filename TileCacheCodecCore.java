@@ -0,0 +1,406 @@
+/*
+ * @(#)TileCacheCodecCore.java
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import static java.lang.Math.*;
+
+/**
+ * {@code TileCacheCodecCore} encodes 24-bit screen frames as tiles with
+ * back-references into a long-term tile cache.
+ * <p>
+ * Screen content often returns to a state which has been encoded before,
+ * for example when the user switches between a few windows. The
+ * {@link TechSmithCodecCore} and the {@link ZMBVCodecCore} can only refer to
+ * the previous frame, and thus have to encode such a frame again. This
+ * encoder keeps a bounded least-recently-used cache of previously coded tiles,
+ * keyed by a hash of their pixels, and emits a reference to the cache instead
+ * of the pixels. The decoder keeps a matching cache.
+ * <p>
+ * This is not a standard AVI or QuickTime format. Encoder and decoder must
+ * process the same sequence of frames, starting with the first frame after
+ * {@link #reset}, because references can reach back to any previous frame.
+ * <p>
+ * <b>Data Format</b>
+ * <p>
+ * A frame is split into tiles of {@code tileWidth * tileHeight} pixels in
+ * row-major order. Tiles at the right and bottom edge may be smaller.
+ * The frame data is zlib-compressed. The uncompressed data starts with a
+ * flags byte, followed by one op-code per tile or run of tiles:
+ * <pre>
+ * byte 0     flags: bit 0 = cache reset, bit 1 = frame contains no skips
+ *
+ * 0x00 n               Skip n tiles (1..255). The tiles are copied from the
+ *                      previous frame.
+ * 0x01 slot            Reference. The tile is copied from the cache slot.
+ *                      slot is an unsigned 16-bit little-endian value.
+ * 0x02 slot pixel{n}   Literal. n 24-bit little-endian pixels follow. The tile
+ *                      is stored in the cache slot.
+ * </pre>
+ * An encoded frame costs three bytes per tile which is found in the cache.
+ * <p>
+ * The frames can not be stored in a {@code tscc} or {@code ZMBV} track,
+ * because players of these formats do not know the reference op-code. The
+ * {@link ScreenStreamEncoder} uses this class for the tile frames of its
+ * private stream.
+ *
+ * @version 1.1 2026-10-19 Rejects skips without a previous frame.
+ * <br>1.0 2026-10-19 Created.
+ */
+public class TileCacheCodecCore extends AbstractVideoCodecCore {
+
+    private final static int OP_SKIP = 0;
+    private final static int OP_REFERENCE = 1;
+    private final static int OP_LITERAL = 2;
+    private final static int FLAG_CACHE_RESET = 1;
+    private final static int FLAG_NO_SKIPS = 2;
+    private int tileWidth;
+    private int tileHeight;
+    private int capacity;
+    /** Encoder: maps tile hashes to cache slots in least-recently-used order. */
+    private LinkedHashMap<Long, Integer> slotsByHash;
+    /** Encoder and decoder: the pixels of the tiles in each cache slot. */
+    private int[][] slotPixels;
+    /** Encoder and decoder: the width and height of the tile in each slot. */
+    private short[] slotWidths, slotHeights;
+    /** Encoder: the number of slots which are in use. */
+    private int slotCount;
+    /** Encoder: whether the next frame starts with an empty cache. */
+    private boolean isCacheReset;
+    private ByteBufferImageOutputStream temp = new ByteBufferImageOutputStream(ByteOrder.LITTLE_ENDIAN);
+    private Inflater inflater;
+    private byte[] inflated;
+    private long referenceCount, literalCount, skipCount;
+
+    /** Creates a core with 16 x 16 pixel tiles and a cache of 4096 tiles. */
+    public TileCacheCodecCore() {
+        this(16, 16, 4096);
+    }
+
+    /** Creates a new core.
+     *
+     * @param tileWidth The width of a tile.
+     * @param tileHeight The height of a tile.
+     * @param capacity The maximal number of tiles in the cache, 1..65536.
+     */
+    public TileCacheCodecCore(int tileWidth, int tileHeight, int capacity) {
+        if (tileWidth < 1 || tileHeight < 1 || capacity < 1 || capacity > 65536) {
+            throw new IllegalArgumentException("Illegal tile size or capacity: " + tileWidth + "x" + tileHeight + ", " + capacity);
+        }
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.capacity = capacity;
+        reset();
+    }
+
+    /** Clears the cache. The next encoded frame tells the decoder to clear
+     * its cache as well. */
+    public void reset() {
+        slotsByHash = new LinkedHashMap<Long, Integer>(capacity * 4 / 3 + 1, 0.75f, true);
+        slotPixels = new int[capacity][];
+        slotWidths = new short[capacity];
+        slotHeights = new short[capacity];
+        slotCount = 0;
+        isCacheReset = true;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Returns the number of tiles which have been encoded or decoded as
+     * references into the cache. */
+    public long getReferenceCount() {
+        return referenceCount;
+    }
+
+    /** Returns the number of tiles which have been encoded or decoded as
+     * literal pixels. */
+    public long getLiteralCount() {
+        return literalCount;
+    }
+
+    /** Returns the number of tiles which have been skipped, because they
+     * were identical to the previous frame. */
+    public long getSkipCount() {
+        return skipCount;
+    }
+
+    /** Encodes a 24-bit frame.
+     *
+     * @param out The output stream.
+     * @param data The image data.
+     * @param prev The image data of the previous frame, or null if tiles must
+     * not be skipped.
+     * @param width The width of the image in data elements.
+     * @param height The height of the image in data elements.
+     * @param offset The offset to the first pixel in the data array.
+     * @param scanlineStride The number to add to offset to get to the next scanline.
+     * @return True if the frame can be decoded without the previous frame.
+     */
+    public boolean encode24(OutputStream out, int[] data, int[] prev, int width, int height, int offset, int scanlineStride)
+            throws IOException {
+        temp.clear();
+        temp.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+        temp.write((isCacheReset ? FLAG_CACHE_RESET : 0) | (prev == null ? FLAG_NO_SKIPS : 0));
+        isCacheReset = false;
+
+        int skipRun = 0;
+        for (int ty = 0; ty < height; ty += tileHeight) {
+            int th = min(tileHeight, height - ty);
+            for (int tx = 0; tx < width; tx += tileWidth) {
+                int tw = min(tileWidth, width - tx);
+                int xy = offset + ty * scanlineStride + tx;
+
+                if (prev != null && isSameTile(data, prev, xy, tw, th, scanlineStride)) {
+                    skipRun++;
+                    if (skipRun == 255) {
+                        temp.write(OP_SKIP);
+                        temp.write(skipRun);
+                        skipRun = 0;
+                    }
+                    skipCount++;
+                    continue;
+                }
+                if (skipRun > 0) {
+                    temp.write(OP_SKIP);
+                    temp.write(skipRun);
+                    skipRun = 0;
+                }
+
+                long hash = hashTile(data, xy, tw, th, scanlineStride);
+                Integer slot = slotsByHash.get(hash);
+                if (slot != null && isCachedTile(slot, data, xy, tw, th, scanlineStride)) {
+                    temp.write(OP_REFERENCE);
+                    temp.writeShort(slot);
+                    referenceCount++;
+                } else {
+                    if (slot != null) {
+                        // Hash collision: the slot is overwritten with the new tile
+                        slotsByHash.remove(hash);
+                    } else {
+                        slot = allocateSlot();
+                    }
+                    storeTile(slot, data, xy, tw, th, scanlineStride);
+                    slotsByHash.put(hash, slot);
+                    temp.write(OP_LITERAL);
+                    temp.writeShort(slot);
+                    for (int y = 0; y < th; y++) {
+                        writeInts24LE(temp, data, xy + y * scanlineStride, tw);
+                    }
+                    literalCount++;
+                }
+            }
+        }
+        if (skipRun > 0) {
+            temp.write(OP_SKIP);
+            temp.write(skipRun);
+        }
+
+        DeflaterOutputStream defl = new DeflaterOutputStream(out);
+        temp.toOutputStream(defl);
+        defl.finish();
+        return prev == null;
+    }
+
+    /** Returns a free slot, or evicts the least recently used tile. */
+    private int allocateSlot() {
+        if (slotCount < capacity) {
+            return slotCount++;
+        }
+        Iterator<Map.Entry<Long, Integer>> i = slotsByHash.entrySet().iterator();
+        int slot = i.next().getValue();
+        i.remove();
+        return slot;
+    }
+
+    private void storeTile(int slot, int[] data, int xy, int tw, int th, int scanlineStride) {
+        int[] pixels = slotPixels[slot];
+        if (pixels == null) {
+            pixels = slotPixels[slot] = new int[tileWidth * tileHeight];
+        }
+        for (int y = 0; y < th; y++) {
+            System.arraycopy(data, xy + y * scanlineStride, pixels, y * tw, tw);
+        }
+        slotWidths[slot] = (short) tw;
+        slotHeights[slot] = (short) th;
+    }
+
+    private boolean isCachedTile(int slot, int[] data, int xy, int tw, int th, int scanlineStride) {
+        if (slotWidths[slot] != tw || slotHeights[slot] != th) {
+            return false;
+        }
+        int[] pixels = slotPixels[slot];
+        for (int y = 0, i = 0; y < th; y++) {
+            for (int x = xy + y * scanlineStride, xmax = x + tw; x < xmax; x++, i++) {
+                if (((data[x] ^ pixels[i]) & 0xffffff) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSameTile(int[] data, int[] prev, int xy, int tw, int th, int scanlineStride) {
+        for (int y = 0; y < th; y++) {
+            for (int x = xy + y * scanlineStride, xmax = x + tw; x < xmax; x++) {
+                if (((data[x] ^ prev[x]) & 0xffffff) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Computes a 64-bit FNV-1a hash over the 24-bit pixels of a tile. */
+    private static long hashTile(int[] data, int xy, int tw, int th, int scanlineStride) {
+        long h = 0xcbf29ce484222325L ^ (tw << 16 | th);
+        for (int y = 0; y < th; y++) {
+            for (int x = xy + y * scanlineStride, xmax = x + tw; x < xmax; x++) {
+                h = (h ^ (data[x] & 0xffffff)) * 0x100000001b3L;
+            }
+        }
+        return h;
+    }
+
+    /** Decodes a 24-bit frame.
+     *
+     * @param inDat The encoded data.
+     * @param off The offset of the encoded data.
+     * @param length The length of the encoded data.
+     * @param outDat The decoded pixels.
+     * @param prevDat The pixels decoded in the previous frame. This can be the
+     * same array as {@code outDat}. If this is null, frames which skip tiles
+     * are rejected as corrupt.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @return True if the frame did not depend on the previous frame.
+     */
+    public boolean decode24(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height)
+            throws IOException {
+        int maxLength = 1 + ((width + tileWidth - 1) / tileWidth) * ((height + tileHeight - 1) / tileHeight) * 3 + width * height * 3;
+        if (inflated == null || inflated.length < maxLength) {
+            inflated = new byte[maxLength];
+        }
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        inflater.reset();
+        inflater.setInput(inDat, off, length);
+        int n = 0;
+        try {
+            while (!inflater.finished() && n < inflated.length) {
+                int count = inflater.inflate(inflated, n, inflated.length - n);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += count;
+            }
+        } catch (DataFormatException e) {
+            IOException ex = new IOException("Illegal tile data");
+            ex.initCause(e);
+            throw ex;
+        }
+        if (n < 1) {
+            throw new IOException("Empty tile data");
+        }
+
+        byte[] b = inflated;
+        int i = 0;
+        int flags = b[i++] & 0xff;
+        if ((flags & FLAG_CACHE_RESET) != 0) {
+            reset();
+            isCacheReset = false;
+        }
+        int skipRun = 0;
+        try {
+            for (int ty = 0; ty < height; ty += tileHeight) {
+                int th = min(tileHeight, height - ty);
+                for (int tx = 0; tx < width; tx += tileWidth) {
+                    int tw = min(tileWidth, width - tx);
+                    int xy = ty * width + tx;
+
+                    if (skipRun == 0) {
+                        if (i >= n) {
+                            throw new IOException("Truncated tile data");
+                        }
+                        if (b[i] == OP_SKIP) {
+                            skipRun = b[i + 1] & 0xff;
+                            i += 2;
+                            if (skipRun == 0) {
+                                throw new IOException("Illegal skip count 0");
+                            }
+                            if (prevDat == null) {
+                                throw new IOException("Skip without previous frame");
+                            }
+                        }
+                    }
+                    if (skipRun > 0) {
+                        if (prevDat != outDat) {
+                            for (int y = 0; y < th; y++) {
+                                System.arraycopy(prevDat, xy + y * width, outDat, xy + y * width, tw);
+                            }
+                        }
+                        skipRun--;
+                        skipCount++;
+                        continue;
+                    }
+
+                    int op = b[i];
+                    int slot = (b[i + 1] & 0xff) | ((b[i + 2] & 0xff) << 8);
+                    i += 3;
+                    if (slot >= capacity) {
+                        throw new IOException("Illegal cache slot " + slot);
+                    }
+                    if (op == OP_REFERENCE) {
+                        int[] pixels = slotPixels[slot];
+                        if (pixels == null || slotWidths[slot] != tw || slotHeights[slot] != th) {
+                            throw new IOException("Illegal reference to cache slot " + slot);
+                        }
+                        for (int y = 0; y < th; y++) {
+                            System.arraycopy(pixels, y * tw, outDat, xy + y * width, tw);
+                        }
+                        referenceCount++;
+                    } else if (op == OP_LITERAL) {
+                        int[] pixels = slotPixels[slot];
+                        if (pixels == null) {
+                            pixels = slotPixels[slot] = new int[tileWidth * tileHeight];
+                        }
+                        for (int p = 0, pmax = tw * th; p < pmax; p++, i += 3) {
+                            pixels[p] = (b[i] & 0xff) | ((b[i + 1] & 0xff) << 8) | ((b[i + 2] & 0xff) << 16);
+                        }
+                        slotWidths[slot] = (short) tw;
+                        slotHeights[slot] = (short) th;
+                        for (int y = 0; y < th; y++) {
+                            System.arraycopy(pixels, y * tw, outDat, xy + y * width, tw);
+                        }
+                        literalCount++;
+                    } else {
+                        throw new IOException("Illegal op-code 0x" + Integer.toHexString(op & 0xff));
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            IOException ex = new IOException("Truncated tile data");
+            ex.initCause(e);
+            throw ex;
+        }
+        return (flags & FLAG_NO_SKIPS) != 0;
+    }
+}
@@ -1,9 +1,9 @@
 /*
- * @(#)UncachedImageInputStream.java 
- * 
+ * @(#)UncachedImageInputStream.java
+ *
  * Copyright (c) 2011 Werner Randelshofer, Immensee, Switzerland.
  * All rights reserved.
- * 
+ *
  * You may not use, copy or modify this file, except in compliance with the
  * license agreement you entered into with Werner Randelshofer.
  * For details see accompanying license terms.
@@ -12,46 +12,215 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
 
 /**
  * An implementation of {@code ImageInputStream} that gets its input from a
- * regular {@code InputStream}. No caching is used and thus backward seeking is 
- * not supported.
+ * regular {@code InputStream}. No file cache is used and thus backward seeking
+ * is only supported within a bounded window.
+ * <p>
+ * The stream reads ahead from the input stream into a buffer, so that small
+ * reads do not cause a call on the input stream each. Seeking forward within
+ * the buffer does not touch the input stream. The buffer retains a bounded
+ * number of bytes before the furthest position which has been read from the
+ * input stream, to which the stream can seek back. Seeking forward by more
+ * than the read-ahead window skips the input stream and empties the backward
+ * seek window.
+ * <p>
+ * Optionally, a background thread prefetches data from the input stream
+ * while the stream is being read. This is useful if the input stream is a
+ * socket or a pipe. Closing a prefetching stream also closes the input
+ * stream, because the prefetch thread may be blocked in a read on it.
  *
  * @author Werner Randelshofer
  * @version $Id: UncachedImageInputStream.java 134 2011-12-02 16:23:00Z werner $
  */
 public class UncachedImageInputStream extends ImageInputStreamImpl2 {
 
+    /** The default size of the read-ahead window. */
+    public final static int DEFAULT_WINDOW = 16 * 1024;
+    /** The default number of bytes to which the stream can seek back. */
+    public final static int DEFAULT_BACKWARD_LIMIT = 16 * 1024;
+    /** The number of blocks which the prefetch thread can fill ahead. */
+    private final static int PREFETCH_BLOCKS = 4;
     private InputStream in;
+    /** The buffer holds the bytes of the stream positions from
+     * {@code bufStart} to {@code bufStart + bufLen - 1}. */
+    private byte[] buf;
+    private long bufStart;
+    private int bufLen;
+    /** The number of bytes before the stream position which are retained. */
+    private int backwardLimit;
+
+    /** A block of data which has been read by the prefetch thread. */
+    private static class Block {
+
+        byte[] data;
+        /** The number of bytes in data, or -1 at EOF. */
+        int length;
+        /** The exception of the prefetch thread, if it failed. */
+        IOException error;
+    }
+    /** Blocks which have been filled by the prefetch thread. Null if there
+     * is no prefetch thread. */
+    private ArrayBlockingQueue<Block> filled;
+    /** Blocks which can be filled by the prefetch thread. */
+    private ArrayBlockingQueue<Block> free;
+    private Thread prefetcher;
+    /** The block which is currently consumed and the read position in it. */
+    private Block current;
+    private int currentPos;
 
     public UncachedImageInputStream(InputStream in) {
         this(in, ByteOrder.BIG_ENDIAN);
     }
     public UncachedImageInputStream(InputStream in, ByteOrder bo) {
+        this(in, bo, DEFAULT_WINDOW, DEFAULT_BACKWARD_LIMIT, false);
+    }
+
+    /**
+     * Creates a new stream.
+     *
+     * @param in The input stream.
+     * @param bo The byte order.
+     * @param window The number of bytes which are read ahead.
+     * @param backwardLimit The number of bytes to which the stream can seek
+     * back. The limit is measured from the furthest position which has been
+     * read from the input stream, not from the current position. After a
+     * seek back, the stream can seek back by fewer bytes.
+     * @param prefetch True if a background thread shall read ahead.
+     */
+    public UncachedImageInputStream(InputStream in, ByteOrder bo, int window, int backwardLimit, boolean prefetch) {
+        if (window < 1 || backwardLimit < 0) {
+            throw new IllegalArgumentException("window=" + window + " backwardLimit=" + backwardLimit);
+        }
         this.in = in;
         this.byteOrder=bo;
+        this.backwardLimit = backwardLimit;
+        this.buf = new byte[window + backwardLimit];
+        if (prefetch) {
+            startPrefetcher(window);
+        }
+    }
+
+    /** Starts the prefetch thread. The thread fills blocks of a quarter
+     * of the window size. */
+    private void startPrefetcher(int window) {
+        int blockSize = Math.max(1, window / PREFETCH_BLOCKS);
+        filled = new ArrayBlockingQueue<Block>(PREFETCH_BLOCKS + 2);
+        free = new ArrayBlockingQueue<Block>(PREFETCH_BLOCKS + 2);
+        for (int i = 0; i < PREFETCH_BLOCKS; i++) {
+            Block b = new Block();
+            b.data = new byte[blockSize];
+            free.add(b);
+        }
+        prefetcher = new Thread(new Runnable() {
+
+            public void run() {
+                try {
+                    for (;;) {
+                        Block b = free.take();
+                        try {
+                            b.length = in.read(b.data, 0, b.data.length);
+                        } catch (IOException e) {
+                            // this is also thrown when close() has closed
+                            // the input stream
+                            b.length = -1;
+                            b.error = e;
+                        }
+                        filled.put(b);
+                        if (b.length == -1) {
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // the stream has been closed
+                }
+            }
+        }, "UncachedImageInputStream prefetch");
+        prefetcher.setDaemon(true);
+        prefetcher.start();
+    }
+
+    /**
+     * Reads more data from the input stream into the buffer. Discards bytes
+     * before the backward seek window, if the buffer is full.
+     *
+     * @return The number of bytes, or -1 on EOF.
+     */
+    private int fill() throws IOException {
+        if (bufLen == buf.length) {
+            int keep = (int) Math.min(backwardLimit, streamPos - bufStart);
+            int drop = (int) (streamPos - bufStart) - keep;
+            System.arraycopy(buf, drop, buf, 0, bufLen - drop);
+            bufStart += drop;
+            bufLen -= drop;
+        }
+        int count;
+        if (filled == null) {
+            count = in.read(buf, bufLen, buf.length - bufLen);
+        } else {
+            if (current == null) {
+                try {
+                    current = filled.take();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                currentPos = 0;
+            }
+            if (current.length == -1) {
+                if (current.error != null) {
+                    throw current.error;
+                }
+                return -1;
+            }
+            count = Math.min(current.length - currentPos, buf.length - bufLen);
+            System.arraycopy(current.data, currentPos, buf, bufLen, count);
+            currentPos += count;
+            if (currentPos == current.length) {
+                free.add(current);
+                current = null;
+            }
+        }
+        if (count > 0) {
+            bufLen += count;
+        }
+        return count;
     }
 
     @Override
     public int read() throws IOException {
-        int b = in.read();
-        if (b >= 0) {
-            streamPos++;
+        while (streamPos >= bufStart + bufLen) {
+            if (fill() == -1) {
+                return -1;
+            }
         }
-        return b;
+        return buf[(int) (streamPos++ - bufStart)] & 0xff;
     }
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
-        int count = in.read(b, off, len);
-        if (count > 0) {
-            streamPos += count;
+        if (len == 0) {
+            return 0;
         }
+        while (streamPos >= bufStart + bufLen) {
+            if (fill() == -1) {
+                return -1;
+            }
+        }
+        int count = (int) Math.min(len, bufStart + bufLen - streamPos);
+        System.arraycopy(buf, (int) (streamPos - bufStart), b, off, count);
+        streamPos += count;
         return count;
     }
 
+    /**
+     * Seeks to the specified position. The position must not be before
+     * the backward seek window. Seeks within the buffer do not access
+     * the input stream.
+     */
     @Override
     public void seek(long pos) throws IOException {
         checkClosed();
@@ -60,20 +229,72 @@ public class UncachedImageInputStream extends ImageInputStreamImpl2 {
         if (pos < flushedPos) {
             throw new IndexOutOfBoundsException("pos < flushedPos!");
         }
-        if (pos < streamPos) {
-            throw new IndexOutOfBoundsException("pos < streamPos!");
+        if (pos < bufStart) {
+            throw new IndexOutOfBoundsException("pos < backward seek limit!");
         }
 
         this.bitOffset = 0;
 
-        while (streamPos < pos) {
-            long skipped = in.skip(pos - streamPos);
-            if (skipped < 0) {
-                throw new EOFException("EOF reached while trying to seek to " + pos);
+        if (pos <= bufStart + bufLen) {
+            streamPos = pos;
+            return;
+        }
+
+        if (pos - (bufStart + bufLen) <= buf.length - backwardLimit) {
+            // Read the bytes into the buffer, so that the backward seek
+            // window is preserved
+            while (bufStart + bufLen < pos) {
+                streamPos = bufStart + bufLen;
+                if (fill() == -1) {
+                    throw new EOFException("EOF reached while trying to seek to " + pos);
+                }
             }
-            streamPos += skipped;
+            streamPos = pos;
+            return;
         }
 
+        // Skip the bytes which are not in the buffer
+        bufStart += bufLen;
+        bufLen = 0;
+        while (bufStart + bufLen < pos) {
+            if (filled == null) {
+                long skipped = in.skip(pos - bufStart);
+                if (skipped <= 0) {
+                    // skip returns 0 at EOF and for streams which can not skip
+                    skipped = in.read() == -1 ? -1 : 1;
+                }
+                if (skipped < 0) {
+                    throw new EOFException("EOF reached while trying to seek to " + pos);
+                }
+                bufStart += skipped;
+            } else {
+                if (fill() == -1) {
+                    throw new EOFException("EOF reached while trying to seek to " + pos);
+                }
+                if (bufStart + bufLen < pos) {
+                    bufStart += bufLen;
+                    bufLen = 0;
+                }
+            }
+        }
+        streamPos = pos;
+    }
 
+    /**
+     * Closes the stream. Without prefetching, the input stream is not closed.
+     * <p>
+     * With prefetching, the prefetch thread is stopped and the input stream
+     * is closed. Interrupting the thread is not sufficient, because a read
+     * on a socket or a pipe does not respond to interrupts. Closing the input
+     * stream makes the pending read fail.
+     */
+    @Override
+    public void close() throws IOException {
+        super.close();
+        if (prefetcher != null) {
+            prefetcher.interrupt();
+            prefetcher = null;
+            in.close();
+        }
     }
 }
@@ -16,6 +16,7 @@ import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
 import java.awt.image.IndexColorModel;
 import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
@@ -28,6 +29,10 @@ import static java.lang.Math.*;
  * This codec currently only supports decoding from the file format into
  * a {@code BufferedImage}. Encoding support may be added in the future.
  * <p>
+ * The decoded images share their pixels with the double buffer of the codec.
+ * An image is valid until the codec has decoded the next but one frame.
+ * Copy the image, if it is needed for longer.
+ * <p>
  * For details seee {@link ZMBVCodecCore}.
  * </p>
  *
@@ -39,6 +44,9 @@ public class ZMBVCodec extends AbstractVideoCodec {
     private ZMBVCodecCore state;
     private Object oldPixels;
     private Object newPixels;
+    /** Rasters backed by {@code oldPixels} and {@code newPixels}. */
+    private WritableRaster oldRaster;
+    private WritableRaster newRaster;
 
     public ZMBVCodec() {
         super(new Format[]{
@@ -81,67 +89,77 @@ public class ZMBVCodec extends AbstractVideoCodec {
         newPixels = newPixelHolder[0];
         oldPixels = oldPixelHolder[0];
 
-        MyBufferedImage img = null;
-        if (out.data instanceof MyBufferedImage) {
-            img = (MyBufferedImage) out.data;
-        }
+        ColorModel cm;
         switch (depth) {
             case 8: {
-                int imgType = BufferedImage.TYPE_BYTE_INDEXED; // FIXME - Don't hardcode this value
-                if (img == null || img.getWidth() != width || img.getHeight() != height || img.getType() != imgType) {
-                    int[] cmap = new int[256];
-                    IndexColorModel icm = new IndexColorModel(8, 256, cmap, 0, false, -1, DataBuffer.TYPE_BYTE);
-                    img = new MyBufferedImage(width, height, imgType, icm);
-                } else {
-                    MyBufferedImage oldImg = img;
-                    img = new MyBufferedImage(oldImg.getColorModel(), oldImg.getRaster(), oldImg.isAlphaPremultiplied(), null);
-                }
                 int[] cmap = state.getPalette();
-                IndexColorModel icm = new IndexColorModel(8, 256, cmap, 0, false, -1, DataBuffer.TYPE_BYTE);
-                img.setColorModel(icm);
-                byte[] pixels = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
-                System.arraycopy((byte[]) newPixels, 0, pixels, 0, width * height);
-            }
-            break;
-            case 15: {
-                int imgType = BufferedImage.TYPE_USHORT_555_RGB; // FIXME - Don't hardcode this value
-                if (img == null || img.getWidth() != width || img.getHeight() != height || img.getType() != imgType) {
-                    DirectColorModel cm = new DirectColorModel(15, 0x1f << 10, 0x1f << 5, 0x1f << 0);
-                    img = new MyBufferedImage(cm, Raster.createWritableRaster(cm.createCompatibleSampleModel(width, height), new Point(0, 0)), false, new Hashtable());
-                } else {
-                    MyBufferedImage oldImg = img;
-                    img = new MyBufferedImage(oldImg.getColorModel(), oldImg.getRaster(), oldImg.isAlphaPremultiplied(), null);
-                }
-                short[] pixels = ((DataBufferUShort) img.getRaster().getDataBuffer()).getData();
-                System.arraycopy((short[]) newPixels, 0, pixels, 0, width * height);
-            }
-            break;
-            case 16: {
-                int imgType = BufferedImage.TYPE_USHORT_565_RGB; // FIXME - Don't hardcode this value
-                if (img == null || img.getWidth() != width || img.getHeight() != height || img.getType() != imgType) {
-                    DirectColorModel cm = new DirectColorModel(15, 0x1f << 11, 0x3f << 5, 0x1f << 0);
-                    img = new MyBufferedImage(cm, Raster.createWritableRaster(cm.createCompatibleSampleModel(width, height), new Point(0, 0)), false, new Hashtable());
-                } else {
-                    MyBufferedImage oldImg = img;
-                    img = new MyBufferedImage(oldImg.getColorModel(), oldImg.getRaster(), oldImg.isAlphaPremultiplied(), null);
-                }
-                short[] pixels = ((DataBufferUShort) img.getRaster().getDataBuffer()).getData();
-                System.arraycopy((short[]) newPixels, 0, pixels, 0, width * height);
+                cm = new IndexColorModel(8, 256, cmap, 0, false, -1, DataBuffer.TYPE_BYTE);
             }
             break;
+            case 15:
+                cm = new DirectColorModel(15, 0x1f << 10, 0x1f << 5, 0x1f << 0);
+                break;
+            case 16:
+                cm = new DirectColorModel(16, 0x1f << 11, 0x3f << 5, 0x1f << 0);
+                break;
+            case 24:
             case 32:
+                cm = new DirectColorModel(24, 0xff0000, 0xff00, 0xff);
+                break;
             default:
                 throw new UnsupportedOperationException("Unsupported depth:" + depth);
         }
 
-        Object swap=oldPixels;
-        oldPixels=newPixels; newPixels=swap;
+        // The rasters are backed by the pixel arrays of the codec core.
+        // They are swapped together with the pixel arrays, so that no pixels
+        // need to be copied.
+        if (!isBackedBy(newRaster, newPixels, width, height)) {
+            newRaster = createRaster(newPixels, cm, width, height);
+        }
+        MyBufferedImage img = new MyBufferedImage(cm, newRaster, false, null);
+
+        Object swap = oldPixels;
+        oldPixels = newPixels;
+        newPixels = swap;
+        WritableRaster swapRaster = oldRaster;
+        oldRaster = newRaster;
+        newRaster = swapRaster;
         out.setFlag(BufferFlag.KEYFRAME, isKeyframe);
 
         out.data = img;
         return CODEC_OK;
     }
 
+    /** Returns true if the raster has the specified size and is backed by
+     * the specified pixel array. */
+    private static boolean isBackedBy(WritableRaster raster, Object pixels, int width, int height) {
+        if (raster == null || raster.getWidth() != width || raster.getHeight() != height) {
+            return false;
+        }
+        DataBuffer db = raster.getDataBuffer();
+        if (db instanceof DataBufferByte) {
+            return ((DataBufferByte) db).getData() == pixels;
+        } else if (db instanceof DataBufferUShort) {
+            return ((DataBufferUShort) db).getData() == pixels;
+        } else if (db instanceof DataBufferInt) {
+            return ((DataBufferInt) db).getData() == pixels;
+        }
+        return false;
+    }
+
+    /** Creates a raster which is backed by the specified pixel array. */
+    private static WritableRaster createRaster(Object pixels, ColorModel cm, int width, int height) {
+        DataBuffer db;
+        if (pixels instanceof byte[]) {
+            db = new DataBufferByte((byte[]) pixels, width * height);
+        } else if (pixels instanceof short[]) {
+            db = new DataBufferUShort((short[]) pixels, width * height);
+        } else {
+            db = new DataBufferInt((int[]) pixels, width * height);
+        }
+        return Raster.createWritableRaster(cm.createCompatibleSampleModel(width, height), db, new Point(0, 0));
+    }
+
     private static class MyBufferedImage extends BufferedImage {
 
         private ColorModel colorModel;
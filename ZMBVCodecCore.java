@@ -9,11 +9,10 @@
  * For details see accompanying license terms.
  */
 
-//import com.jcraft.jzlib.InflaterInputStream;
-import java.util.zip.InflaterInputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.nio.ByteOrder;
-import javax.imageio.stream.ImageInputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 import static java.lang.Math.*;
 
 /**
@@ -61,8 +60,8 @@ import static java.lang.Math.*;
  * 8  32 bits/pixel
  * </pre>
  * 
- * <p>Presently, only modes 4 (8 bpp), 5 (15 bpp), 6 (16 bpp) and 8 (32 bpp) are
- * supported.</p>
+ * <p>Presently, only modes 4 (8 bpp), 5 (15 bpp), 6 (16 bpp), 7 (24 bpp) and
+ * 8 (32 bpp) are supported.</p>
  * 
  * <p>If the compression type is 1, the remainder of the data chunk is compressed
  * using the standard zlib package. Decompress the data before proceeding with 
@@ -111,13 +110,16 @@ import static java.lang.Math.*;
  * >http://wiki.multimedia.cx/index.php?title=ZMBV</a>
  * </p>
  * 
- * <p>Note: We use the JZLib library for decoding compressed input streams,
- * because the {@code javax.zip.InflaterInputStream} sometimes fails to decode
- * the data.</p>
+ * <p>Note: The codec drives a {@code java.util.zip.Inflater} directly and
+ * inflates each frame into a reusable byte array. Block headers and XOR
+ * residuals are then parsed by array indexing.</p>
  * 
  * *
  * @author Werner Randelshofer
- * @version 1.0 2011-08-29 Created.
+ * @version 1.3 2026-10-19 Rejects key frames with a zero block size.
+ * <br>1.2 2026-10-19 Adds support for 24 bpp.
+ * <br>1.1 2026-10-19 Inflates frames into a byte array.
+ * <br>1.0 2011-08-29 Created.
  */
 public class ZMBVCodecCore {
 
@@ -150,89 +152,43 @@ public class ZMBVCodecCore {
     private int compressionType;
     private int videoFormat;
     private int blockWidth, blockHeight;
-    private InflaterInputStream inflaterInputStream;
-    private AppendableByteArrayInputStream byteArrayInputStream;
+    /** The inflater is reset on key frames and fed with the data of each
+     * frame. Delta frames continue the zlib stream of the previous frame. */
+    private Inflater inflater;
+    /** Holds the inflated data of the current frame. */
+    private byte[] inflated;
+    /** Number of valid bytes in {@code inflated}. */
+    private int inflatedLength;
     private int[] palette;
-    private byte[] blockDataBuf;
-    private byte[] blockHeaderBuf;
 
-    /** Decodes to 32-bit RGB. 
+    /** Decodes to 32-bit RGB.
      * Returns true if a key-frame was decoded.
      */
     public boolean decode(byte[] inDat, int off, int length, int[] outDat, int[] prevDat, int width, int height, boolean onlyDecodeIfKeyframe) {
         boolean isKeyframe = false;
         try {
-            ImageInputStream in = new ByteArrayImageInputStream(inDat, off, length, ByteOrder.LITTLE_ENDIAN);
-
-            int flags = in.readUnsignedByte();
-            isKeyframe = (flags & 1) != 0;
-
-            if (onlyDecodeIfKeyframe && !isKeyframe) {
-                System.out.println("ZMBVCodec cannot decode delta without preceeding keyframe.");
-                return false;
-            }
-
-            if (isKeyframe) {
-                // => Key frame 
-                //System.out.println("ZMBVCode Keyframe w,h=" + width + "," + height);
-                majorVersion = in.readUnsignedByte();
-                minorVersion = in.readUnsignedByte();
-                compressionType = in.readUnsignedByte();
-                videoFormat = in.readUnsignedByte();
-                blockWidth = in.readUnsignedByte();
-                blockHeight = in.readUnsignedByte();
-            }
-            if (majorVersion != 0 || minorVersion != 1) {
-                System.err.println("unsupported version " + majorVersion + "." + minorVersion);
-                return isKeyframe;
-            }
-
-
-            switch (compressionType) {
-                case COMPRESSION_ZLIB:
-
-                    if (!isKeyframe && inflaterInputStream != null) {
-                        // => streams are present.
-                        //    Append new data.
-                        AppendableByteArrayInputStream bais = byteArrayInputStream;
-                        bais.appendBuffer(inDat, (int) in.getStreamPosition() + off, (int) (length - in.getStreamPosition()), true);
-                    } else {
-                        // => Keyframe or no Inflater Stream present. Create new one, and ensure
-                        //    that we can append new data to it later on.
-                        if (byteArrayInputStream != null) {
-                            byteArrayInputStream.setBuffer(inDat, (int) in.getStreamPosition() + off, (int) (length - in.getStreamPosition()));
-                        } else {
-                            byteArrayInputStream = new AppendableByteArrayInputStream(inDat.clone(), (int) in.getStreamPosition() + off, (int) (length - in.getStreamPosition()));
-                        }
-                        if (inflaterInputStream != null) {
-                            inflaterInputStream.close();
-                        }
-                        inflaterInputStream = new InflaterInputStream(byteArrayInputStream);
-                    }
-                    in = new UncachedImageInputStream(inflaterInputStream, ByteOrder.LITTLE_ENDIAN);
-                    break;
-                case COMPRESSION_NONE:
-                    System.out.println(" NO COMPRESSION");
-                    return isKeyframe;
-                default:
-                    System.err.println("unsupported compression type " + compressionType);
-                    return isKeyframe;
-
+            isKeyframe = length > 0 && (inDat[off] & 1) != 0;
+            int flags = inflateFrame(inDat, off, length, width, height, onlyDecodeIfKeyframe);
+            if (flags < 0) {
+                return flags == -1 ? false : isKeyframe;
             }
 
             switch (videoFormat) {
                 case VIDEOMODE_8_BIT_PALETTIZED:
-                    decode8to32(in, outDat, prevDat, flags, width, height);
+                    decode8to32(inflated, outDat, prevDat, flags, width, height);
                     break;
 
                 case VIDEOMODE_15_BIT_BGR:
-                    decode15to32(in, outDat, prevDat, flags, width, height);
+                    decode15to32(inflated, outDat, prevDat, flags, width, height);
                     break;
                 case VIDEOMODE_16_BIT_BGR:
-                    decode16to32(in, outDat, prevDat, flags, width, height);
+                    decode16to32(inflated, outDat, prevDat, flags, width, height);
+                    break;
+                case VIDEOMODE_24_BIT_BGR:
+                    decode24to32(inflated, outDat, prevDat, flags, width, height);
                     break;
                 case VIDEOMODE_32_BIT_BGR:
-                    decode32to32(in, outDat, prevDat, flags, width, height);
+                    decode32to32(inflated, outDat, prevDat, flags, width, height);
                     break;
 
                 default:
@@ -246,85 +202,22 @@ public class ZMBVCodecCore {
         return isKeyframe;
     }
 
-    /** Decodes to 8-bit palettised. 
+    /** Decodes to 8-bit palettised.
      * Returns true if a key-frame was decoded.
      */
     public boolean decode(byte[] inDat, int off, int length, byte[] outDat, byte[] prevDat, int width, int height, boolean onlyDecodeIfKeyframe) {
         boolean isKeyframe = false;
         try {
-            ImageInputStream in = new ByteArrayImageInputStream(inDat, off, length, ByteOrder.LITTLE_ENDIAN);
-
-            int flags = in.readUnsignedByte();
-            isKeyframe = (flags & 1) != 0;
-
-            if (onlyDecodeIfKeyframe && !isKeyframe) {
-                System.out.println("ZMBVCodec cannot decode delta without preceeding keyframe.");
-                return false;
-            }
-
-            if (isKeyframe) {
-                // => Key frame 
-                //System.out.println("ZMBVCode Keyframe w,h=" + width + "," + height);
-                majorVersion = in.readUnsignedByte();
-                minorVersion = in.readUnsignedByte();
-                compressionType = in.readUnsignedByte();
-                videoFormat = in.readUnsignedByte();
-                blockWidth = in.readUnsignedByte();
-                blockHeight = in.readUnsignedByte();
-            }
-            if (majorVersion != 0 || minorVersion != 1) {
-                System.err.println("unsupported version " + majorVersion + "." + minorVersion);
-                return isKeyframe;
-            }
-
-
-            switch (compressionType) {
-                case COMPRESSION_ZLIB:
-
-                    if (!isKeyframe && inflaterInputStream != null) {
-                        // => streams are present.
-                        //    Append new data.
-                        AppendableByteArrayInputStream bais = byteArrayInputStream;
-                        bais.appendBuffer(inDat, (int) in.getStreamPosition() + off, (int) (length - in.getStreamPosition()), true);
-                    } else {
-                        // => Keyframe or no Inflater Stream present. Create new one, and ensure
-                        //    that we can append new data to it later on.
-                        if (byteArrayInputStream != null) {
-                            byteArrayInputStream.setBuffer(inDat, (int) in.getStreamPosition() + off, (int) (length - in.getStreamPosition()));
-                        } else {
-                            byteArrayInputStream = new AppendableByteArrayInputStream(inDat.clone(), (int) in.getStreamPosition() + off, (int) (length - in.getStreamPosition()));
-                        }
-                        if (inflaterInputStream != null) {
-                            inflaterInputStream.close();
-                        }
-                        inflaterInputStream = new InflaterInputStream(byteArrayInputStream);
-                    }
-                    in = new UncachedImageInputStream(inflaterInputStream, ByteOrder.LITTLE_ENDIAN);
-                    break;
-                case COMPRESSION_NONE:
-                    System.out.println(" NO COMPRESSION");
-                    return isKeyframe;
-                default:
-                    System.err.println("unsupported compression type " + compressionType);
-                    return isKeyframe;
-
+            isKeyframe = length > 0 && (inDat[off] & 1) != 0;
+            int flags = inflateFrame(inDat, off, length, width, height, onlyDecodeIfKeyframe);
+            if (flags < 0) {
+                return flags == -1 ? false : isKeyframe;
             }
 
             switch (videoFormat) {
                 case VIDEOMODE_8_BIT_PALETTIZED:
-                    decode8to8(in, outDat, prevDat, flags, width, height);
+                    decode8to8(inflated, outDat, prevDat, flags, width, height);
                     break;
-                /*
-                case VIDEOMODE_15_BIT_BGR:
-                decode15BitBGR(in, outDat, prevDat, flags, width, height);
-                break;
-                case VIDEOMODE_16_BIT_BGR:
-                decode16BitBGR(in, outDat, prevDat, flags, width, height);
-                break;
-                case VIDEOMODE_32_BIT_BGR:
-                decode32BitBGR(in, outDat, prevDat, flags, width, height);
-                break;
-                 * */
                 default:
                     throw new UnsupportedOperationException("Unsupported video format " + videoFormat);
             }
@@ -336,7 +229,7 @@ public class ZMBVCodecCore {
         return isKeyframe;
     }
 
-    /** Decodes to 8-bit, 15-bit, 16-bit or 32-bit RGB depending on input data. 
+    /** Decodes to 8-bit, 15-bit, 16-bit or 32-bit RGB depending on input data.
      * Returns the number of decoded bits.
      * Returns a negative number if keyframe.
      * Returns 0 in case of failure.
@@ -345,64 +238,12 @@ public class ZMBVCodecCore {
         boolean isKeyframe = false;
         int depth = 0;
         try {
-            ImageInputStream in = new ByteArrayImageInputStream(inDat, off, length, ByteOrder.LITTLE_ENDIAN);
-
-            int flags = in.readUnsignedByte();
-            isKeyframe = (flags & 1) != 0;
-
-            if (onlyDecodeIfKeyframe && !isKeyframe) {
-                System.err.println("ZMBVCodec cannot decode delta without preceeding keyframe.");
+            isKeyframe = length > 0 && (inDat[off] & 1) != 0;
+            int flags = inflateFrame(inDat, off, length, width, height, onlyDecodeIfKeyframe);
+            if (flags < 0) {
                 return 0;
             }
 
-            if (isKeyframe) {
-                // => Key frame 
-                //System.out.println("ZMBVCode Keyframe w,h=" + width + "," + height);
-                majorVersion = in.readUnsignedByte();
-                minorVersion = in.readUnsignedByte();
-                compressionType = in.readUnsignedByte();
-                videoFormat = in.readUnsignedByte();
-                blockWidth = in.readUnsignedByte();
-                blockHeight = in.readUnsignedByte();
-            }
-            if (majorVersion != 0 || minorVersion != 1) {
-                System.err.println("unsupported version " + majorVersion + "." + minorVersion);
-                return 0;
-            }
-
-
-            switch (compressionType) {
-                case COMPRESSION_ZLIB:
-
-                    if (!isKeyframe && inflaterInputStream != null) {
-                        // => streams are present.
-                        //    Append new data.
-                        AppendableByteArrayInputStream bais = byteArrayInputStream;
-                        bais.appendBuffer(inDat, (int) in.getStreamPosition() + off, (int) (length - in.getStreamPosition()), true);
-                    } else {
-                        // => Keyframe or no Inflater Stream present. Create new one, and ensure
-                        //    that we can append new data to it later on.
-                        if (byteArrayInputStream != null) {
-                            byteArrayInputStream.setBuffer(inDat, (int) in.getStreamPosition() + off, (int) (length - in.getStreamPosition()));
-                        } else {
-                            byteArrayInputStream = new AppendableByteArrayInputStream(inDat.clone(), (int) in.getStreamPosition() + off, (int) (length - in.getStreamPosition()));
-                        }
-                        if (inflaterInputStream != null) {
-                            inflaterInputStream.close();
-                        }
-                        inflaterInputStream = new InflaterInputStream(byteArrayInputStream);
-                    }
-                    in = new UncachedImageInputStream(inflaterInputStream, ByteOrder.LITTLE_ENDIAN);
-                    break;
-                case COMPRESSION_NONE:
-                    System.err.println(" NO COMPRESSION");
-                    return 0;
-                default:
-                    System.err.println("unsupported compression type " + compressionType);
-                    return 0;
-
-            }
-
             switch (videoFormat) {
                 case VIDEOMODE_8_BIT_PALETTIZED:
                     depth = 8;
@@ -412,7 +253,7 @@ public class ZMBVCodecCore {
                     if (!(prevDatHolder[0] instanceof byte[])) {
                         prevDatHolder[0] = new byte[width * height];
                     }
-                    decode8to8(in, (byte[]) outDatHolder[0], (byte[]) prevDatHolder[0], flags, width, height);
+                    decode8to8(inflated, (byte[]) outDatHolder[0], (byte[]) prevDatHolder[0], flags, width, height);
                     break;
 
                 case VIDEOMODE_15_BIT_BGR:
@@ -423,7 +264,7 @@ public class ZMBVCodecCore {
                     if (!(prevDatHolder[0] instanceof short[])) {
                         prevDatHolder[0] = new short[width * height];
                     }
-                    decode15to15(in, (short[]) outDatHolder[0], (short[]) prevDatHolder[0], flags, width, height);
+                    decode15to15(inflated, (short[]) outDatHolder[0], (short[]) prevDatHolder[0], flags, width, height);
                     break;
                 case VIDEOMODE_16_BIT_BGR:
                     depth = 16;
@@ -433,17 +274,27 @@ public class ZMBVCodecCore {
                     if (!(prevDatHolder[0] instanceof short[])) {
                         prevDatHolder[0] = new short[width * height];
                     }
-                    decode16to16(in, (short[]) outDatHolder[0], (short[]) prevDatHolder[0], flags, width, height);
+                    decode16to16(inflated, (short[]) outDatHolder[0], (short[]) prevDatHolder[0], flags, width, height);
+                    break;
+                case VIDEOMODE_24_BIT_BGR:
+                    depth = 24;
+                    if (!(outDatHolder[0] instanceof int[])) {
+                        outDatHolder[0] = new int[width * height];
+                    }
+                    if (!(prevDatHolder[0] instanceof int[])) {
+                        prevDatHolder[0] = new int[width * height];
+                    }
+                    decode24to32(inflated, (int[]) outDatHolder[0], (int[]) prevDatHolder[0], flags, width, height);
                     break;
                 case VIDEOMODE_32_BIT_BGR:
                     depth = 32;
                     if (!(outDatHolder[0] instanceof int[])) {
-                        outDatHolder[0] = new short[width * height];
+                        outDatHolder[0] = new int[width * height];
                     }
                     if (!(prevDatHolder[0] instanceof int[])) {
-                        prevDatHolder[0] = new short[width * height];
+                        prevDatHolder[0] = new int[width * height];
                     }
-                    decode32to32(in, (int[]) outDatHolder[0], (int[]) prevDatHolder[0], flags, width, height);
+                    decode32to32(inflated, (int[]) outDatHolder[0], (int[]) prevDatHolder[0], flags, width, height);
                     break;
 
                 default:
@@ -457,44 +308,139 @@ public class ZMBVCodecCore {
         return isKeyframe ? -depth : depth;
     }
 
-    private void decode8to32(ImageInputStream in, int[] outDat, int[] prevDat, int flags, int width, int height) throws IOException {
+    /** Reads the frame header and inflates the frame data into
+     * {@code inflated}.
+     * <p>
+     * The inflater is driven directly. Since the inflated data of a frame is
+     * held in an array, the decoders can parse block headers and XOR
+     * residuals with plain array indexing.
+     *
+     * @return The flags of the frame. Returns -1 if a delta frame was skipped
+     * because {@code onlyDecodeIfKeyframe} is true. Returns -2 if the frame
+     * can not be decoded.
+     */
+    private int inflateFrame(byte[] inDat, int off, int length, int width, int height, boolean onlyDecodeIfKeyframe) throws IOException {
+        if (length < 1) {
+            throw new EOFException();
+        }
+        int pos = off;
+        int flags = inDat[pos++] & 0xff;
+        boolean isKeyframe = (flags & 1) != 0;
+
+        if (onlyDecodeIfKeyframe && !isKeyframe) {
+            System.err.println("ZMBVCodec cannot decode delta without preceeding keyframe.");
+            return -1;
+        }
+
+        if (isKeyframe) {
+            // => Key frame
+            if (length < 7) {
+                throw new EOFException();
+            }
+            majorVersion = inDat[pos++] & 0xff;
+            minorVersion = inDat[pos++] & 0xff;
+            compressionType = inDat[pos++] & 0xff;
+            videoFormat = inDat[pos++] & 0xff;
+            blockWidth = inDat[pos++] & 0xff;
+            blockHeight = inDat[pos++] & 0xff;
+        }
+        if (majorVersion != 0 || minorVersion != 1) {
+            System.err.println("unsupported version " + majorVersion + "." + minorVersion);
+            return -2;
+        }
+        if (blockWidth == 0 || blockHeight == 0) {
+            // The block size divides the frame size in all decoders
+            throw new IOException("Illegal block size " + blockWidth + "x" + blockHeight);
+        }
+
+        switch (compressionType) {
+            case COMPRESSION_ZLIB:
+                if (inflater == null) {
+                    inflater = new Inflater();
+                } else if (isKeyframe) {
+                    // => Key frames start a new zlib stream.
+                    inflater.reset();
+                }
+                break;
+            case COMPRESSION_NONE:
+                System.err.println(" NO COMPRESSION");
+                return -2;
+            default:
+                System.err.println("unsupported compression type " + compressionType);
+                return -2;
+        }
+
+        // The largest frame is a palette change followed by block headers and
+        // XOR blocks for all pixels at 32 bits per pixel.
+        int nbx = (width + blockWidth - 1) / blockWidth;
+        int nby = (height + blockHeight - 1) / blockHeight;
+        int maxLength = 768 + ((nbx * nby * 2 + 3) & ~3) + width * height * 4;
+        if (inflated == null || inflated.length < maxLength) {
+            inflated = new byte[maxLength];
+        }
+
+        inflater.setInput(inDat, pos, off + length - pos);
+        int n = 0;
+        try {
+            while (n < inflated.length) {
+                int count = inflater.inflate(inflated, n, inflated.length - n);
+                if (count == 0) {
+                    if (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()) {
+                        break;
+                    }
+                }
+                n += count;
+            }
+        } catch (DataFormatException e) {
+            IOException ex = new IOException("Illegal zlib data");
+            ex.initCause(e);
+            throw ex;
+        }
+        inflatedLength = n;
+        return flags;
+    }
+
+    /** Throws an EOFException if the inflated data of the current frame has
+     * less than {@code pos + count} bytes. */
+    private void ensureAvailable(int pos, int count) throws EOFException {
+        if (pos + count > inflatedLength) {
+            throw new EOFException();
+        }
+    }
+
+    private void decode8to32(byte[] in, int[] outDat, int[] prevDat, int flags, int width, int height) throws IOException {
         boolean isKeyframe = (flags & 1) != 0;
         boolean isPaletteChange = (flags & 2) != 0;
 
-        // palette each entry contains a 32-bit entry constisting of: 
+        // palette each entry contains a 32-bit entry constisting of:
         // {palette index, red, green, blue}.
         if (palette == null) {
             palette = new int[256];
         }
-        int blockSize = blockWidth * blockHeight;
-
-        if (blockDataBuf == null || blockDataBuf.length < max(3, blockSize)) {
-            blockDataBuf = new byte[max(3, blockSize)];
-        }
 
-        byte[] buf = blockDataBuf;
+        int pos = 0;
         if (isKeyframe) {
-            // => Key frame. 
+            // => Key frame.
 
-            // Read palette 
-            for (int i = 0; i < 256; i++) {
-                in.readFully(buf, 0, 3);
-                palette[i] = ((buf[2] & 0xff)) | ((buf[1] & 0xff) << 8) | ((buf[0] & 0xff) << 16) | (i << 24);
+            // Read palette
+            ensureAvailable(pos, 768 + width * height);
+            for (int i = 0; i < 256; i++, pos += 3) {
+                palette[i] = ((in[pos + 2] & 0xff)) | ((in[pos + 1] & 0xff) << 8) | ((in[pos] & 0xff) << 16) | (i << 24);
             }
 
             // Process raw pixels
             for (int i = 0, n = width * height; i < n; i++) {
-                outDat[i] = palette[in.readUnsignedByte()];
+                outDat[i] = palette[in[pos++] & 0xff];
             }
 
         } else {
-            // => Delta frame. 
+            // => Delta frame.
 
             // Optionally update palette
             if (isPaletteChange) {
-                for (int i = 0; i < 256; i++) {
-                    in.readFully(buf, 0, 3);
-                    palette[i] ^= ((buf[2] & 0xff)) | ((buf[1] & 0xff) << 8) | ((buf[0] & 0xff) << 16);
+                ensureAvailable(pos, 768);
+                for (int i = 0; i < 256; i++, pos += 3) {
+                    palette[i] ^= ((in[pos + 2] & 0xff)) | ((in[pos + 1] & 0xff) << 8) | ((in[pos] & 0xff) << 16);
                 }
             }
 
@@ -502,20 +448,17 @@ public class ZMBVCodecCore {
             int nbx = (width + blockWidth - 1) / blockWidth;
             int nby = (height + blockHeight - 1) / blockHeight;
             int blockHeaderSize = ((nbx * nby * 2 + 3) & ~3);
-            if (blockHeaderBuf == null || blockHeaderBuf.length < blockHeaderSize) {
-                blockHeaderBuf = new byte[blockHeaderSize];
-            }
-            byte[] blocks = blockHeaderBuf;
-            in.readFully(blocks, 0, blockHeaderSize);
+            ensureAvailable(pos, blockHeaderSize);
+            int block = pos;
+            pos += blockHeaderSize;
 
             // Process block data
-            int block = 0;
             for (int by = 0; by < height; by += blockHeight) {
                 int bh2 = min(height - by, blockHeight);
                 for (int bx = 0; bx < width; bx += blockWidth) {
                     int bw2 = min(width - bx, blockWidth);
-                    int a = blocks[block++];
-                    int b = blocks[block++];
+                    int a = in[block++];
+                    int b = in[block++];
                     int dx = a >> 1;
                     int dy = b >> 1;
                     int flag = a & 1;
@@ -543,16 +486,15 @@ public class ZMBVCodecCore {
 
                         }
                     } else {
-                        // => XOR block with data read from stream
-                        in.readFully(buf, 0, bw2 * bh2);
-                        int iblock = 0;
+                        // => XOR block with data from the inflated frame
+                        ensureAvailable(pos, bw2 * bh2);
 
                         for (int y = 0; y < bh2; y++) {
                             int py = by + y + dy;
                             int iout = bx + (by + y) * width;
                             for (int x = 0; x < bw2; x++) {
                                 int px = bx + x + dx;
-                                int paletteIndex = buf[iblock++] & 0xff;
+                                int paletteIndex = in[pos++] & 0xff;
                                 if (0 <= py && py < height && 0 <= px && px < width) {
                                     paletteIndex ^= prevDat[px + py * width] >>> 24;
                                 }
@@ -568,44 +510,37 @@ public class ZMBVCodecCore {
         }
     }
 
-    private void decode8to8(ImageInputStream in, byte[] outDat, byte[] prevDat, int flags, int width, int height) throws IOException {
+    private void decode8to8(byte[] in, byte[] outDat, byte[] prevDat, int flags, int width, int height) throws IOException {
         boolean isKeyframe = (flags & 1) != 0;
         boolean isPaletteChange = (flags & 2) != 0;
 
-        // palette each entry contains a 32-bit entry constisting of: 
+        // palette each entry contains a 32-bit entry constisting of:
         // {palette index, red, green, blue}.
         if (palette == null) {
             palette = new int[256];
         }
-        int blockSize = blockWidth * blockHeight;
-
-        if (blockDataBuf == null || blockDataBuf.length < max(3, blockSize)) {
-            blockDataBuf = new byte[max(3, blockSize)];
-        }
 
-        byte[] buf = blockDataBuf;
+        int pos = 0;
         if (isKeyframe) {
-            // => Key frame. 
+            // => Key frame.
 
-            // Read palette 
-            for (int i = 0; i < 256; i++) {
-                in.readFully(buf, 0, 3);
-                palette[i] = ((buf[2] & 0xff)) | ((buf[1] & 0xff) << 8) | ((buf[0] & 0xff) << 16) | (i << 24);
+            // Read palette
+            ensureAvailable(pos, 768 + width * height);
+            for (int i = 0; i < 256; i++, pos += 3) {
+                palette[i] = ((in[pos + 2] & 0xff)) | ((in[pos + 1] & 0xff) << 8) | ((in[pos] & 0xff) << 16) | (i << 24);
             }
 
             // Process raw pixels
-            for (int i = 0, n = width * height; i < n; i++) {
-                outDat[i] = in.readByte();
-            }
+            System.arraycopy(in, pos, outDat, 0, width * height);
 
         } else {
-            // => Delta frame. 
+            // => Delta frame.
 
             // Optionally update palette
             if (isPaletteChange) {
-                for (int i = 0; i < 256; i++) {
-                    in.readFully(buf, 0, 3);
-                    palette[i] ^= ((buf[2] & 0xff)) | ((buf[1] & 0xff) << 8) | ((buf[0] & 0xff) << 16);
+                ensureAvailable(pos, 768);
+                for (int i = 0; i < 256; i++, pos += 3) {
+                    palette[i] ^= ((in[pos + 2] & 0xff)) | ((in[pos + 1] & 0xff) << 8) | ((in[pos] & 0xff) << 16);
                 }
             }
 
@@ -613,20 +548,17 @@ public class ZMBVCodecCore {
             int nbx = (width + blockWidth - 1) / blockWidth;
             int nby = (height + blockHeight - 1) / blockHeight;
             int blockHeaderSize = ((nbx * nby * 2 + 3) & ~3);
-            if (blockHeaderBuf == null || blockHeaderBuf.length < blockHeaderSize) {
-                blockHeaderBuf = new byte[blockHeaderSize];
-            }
-            byte[] blocks = blockHeaderBuf;
-            in.readFully(blocks, 0, blockHeaderSize);
+            ensureAvailable(pos, blockHeaderSize);
+            int block = pos;
+            pos += blockHeaderSize;
 
             // Process block data
-            int block = 0;
             for (int by = 0; by < height; by += blockHeight) {
                 int bh2 = min(height - by, blockHeight);
                 for (int bx = 0; bx < width; bx += blockWidth) {
                     int bw2 = min(width - bx, blockWidth);
-                    int a = blocks[block++];
-                    int b = blocks[block++];
+                    int a = in[block++];
+                    int b = in[block++];
                     int dx = a >> 1;
                     int dy = b >> 1;
                     int flag = a & 1;
@@ -654,16 +586,15 @@ public class ZMBVCodecCore {
 
                         }
                     } else {
-                        // => XOR block with data read from stream
-                        in.readFully(buf, 0, bw2 * bh2);
-                        int iblock = 0;
+                        // => XOR block with data from the inflated frame
+                        ensureAvailable(pos, bw2 * bh2);
 
                         for (int y = 0; y < bh2; y++) {
                             int py = by + y + dy;
                             int iout = bx + (by + y) * width;
                             for (int x = 0; x < bw2; x++) {
                                 int px = bx + x + dx;
-                                byte paletteIndex = buf[iblock++];
+                                byte paletteIndex = in[pos++];
                                 if (0 <= py && py < height && 0 <= px && px < width) {
                                     paletteIndex ^= prevDat[px + py * width];
                                 }
@@ -679,21 +610,17 @@ public class ZMBVCodecCore {
         }
     }
 
-    private void decode15to32(ImageInputStream in, int[] outDat, int[] prevDat, int flags, int width, int height) throws IOException {
+    private void decode15to32(byte[] in, int[] outDat, int[] prevDat, int flags, int width, int height) throws IOException {
         boolean isKeyframe = (flags & 1) != 0;
 
-        int blockSize = blockWidth * blockHeight;
-        if (blockDataBuf == null || blockDataBuf.length < max(3, blockSize * 2)) {
-            blockDataBuf = new byte[max(3, blockSize * 2)];
-        }
-
-        byte[] buf = blockDataBuf;
+        int pos = 0;
         if (isKeyframe) {
-            // => Key frame. 
+            // => Key frame.
 
             // Process raw pixels
-            for (int i = 0, n = width * height; i < n; i++) {
-                int bgr = in.readUnsignedShort();
+            ensureAvailable(pos, width * height * 2);
+            for (int i = 0, n = width * height; i < n; i++, pos += 2) {
+                int bgr = (in[pos] & 0xff) | ((in[pos + 1] & 0xff) << 8);
                 outDat[i] = ((bgr & (0x1f << 5)) << 6) | ((bgr & (0x1c << 5)) << 1)//green
                         | ((bgr & (0x1f << 10)) << 9) | ((bgr & (0x1c << 10)) << 4) // red
                         | ((bgr & (0x1f << 0)) << 3) | ((bgr & (0x1c << 0)) >>> 2) // blue
@@ -701,27 +628,23 @@ public class ZMBVCodecCore {
             }
 
         } else {
-            // => Delta frame. 
+            // => Delta frame.
 
             // Read block headers
             int nbx = (width + blockWidth - 1) / blockWidth;
             int nby = (height + blockHeight - 1) / blockHeight;
             int blockHeaderSize = ((nbx * nby * 2 + 3) & ~3);
-            //System.out.println("blockHeaderSize=" + blockHeaderSize + " blockSize x,y=" + blockWidth + "," + blockHeight);
-            if (blockHeaderBuf == null || blockHeaderBuf.length < blockHeaderSize) {
-                blockHeaderBuf = new byte[blockHeaderSize];
-            }
-            byte[] blocks = blockHeaderBuf;
-            in.readFully(blocks, 0, blockHeaderSize);
+            ensureAvailable(pos, blockHeaderSize);
+            int block = pos;
+            pos += blockHeaderSize;
 
             // Process block data
-            int block = 0;
             for (int by = 0; by < height; by += blockHeight) {
                 int bh2 = min(height - by, blockHeight);
                 for (int bx = 0; bx < width; bx += blockWidth) {
                     int bw2 = min(width - bx, blockWidth);
-                    int a = blocks[block++];
-                    int b = blocks[block++];
+                    int a = in[block++];
+                    int b = in[block++];
                     int dx = a >> 1;
                     int dy = b >> 1;
                     int flag = a & 1;
@@ -749,16 +672,15 @@ public class ZMBVCodecCore {
 
                         }
                     } else {
-                        // => XOR block with data read from stream
-                        in.readFully(buf, 0, bw2 * bh2 * 2);
-                        int iblock = 0;
+                        // => XOR block with data from the inflated frame
+                        ensureAvailable(pos, bw2 * bh2 * 2);
 
                         for (int y = 0; y < bh2; y++) {
                             int py = by + y + dy;
                             int iout = bx + (by + y) * width;
-                            for (int x = 0; x < bw2; x++) {
+                            for (int x = 0; x < bw2; x++, pos += 2) {
                                 int px = bx + x + dx;
-                                int bgr = ((buf[iblock++] & 0xff)) | ((buf[iblock++] & 0xff) << 8);
+                                int bgr = ((in[pos] & 0xff)) | ((in[pos + 1] & 0xff) << 8);
                                 int rgb = ((bgr & (0x1f << 5)) << 6) | ((bgr & (0x1c << 5)) << 1)//green
                                         | ((bgr & (0x1f << 10)) << 9) | ((bgr & (0x1c << 10)) << 4) // red
                                         | ((bgr & (0x1f << 0)) << 3) | ((bgr & (0x1c << 0)) >>> 2) // blue
@@ -776,46 +698,37 @@ public class ZMBVCodecCore {
         }
     }
 
-    private void decode15to15(ImageInputStream in, short[] outDat, short[] prevDat, int flags, int width, int height) throws IOException {
+    private void decode15to15(byte[] in, short[] outDat, short[] prevDat, int flags, int width, int height) throws IOException {
         boolean isKeyframe = (flags & 1) != 0;
 
-        int blockSize = blockWidth * blockHeight;
-        if (blockDataBuf == null || blockDataBuf.length < max(3, blockSize * 2)) {
-            blockDataBuf = new byte[max(3, blockSize * 2)];
-        }
-
-        byte[] buf = blockDataBuf;
+        int pos = 0;
         if (isKeyframe) {
-            // => Key frame. 
+            // => Key frame.
 
             // Process raw pixels
-            for (int i = 0, n = width * height; i < n; i++) {
-                int bgr = in.readUnsignedShort();
-                outDat[i] = (short) bgr;
+            ensureAvailable(pos, width * height * 2);
+            for (int i = 0, n = width * height; i < n; i++, pos += 2) {
+                outDat[i] = (short) ((in[pos] & 0xff) | ((in[pos + 1] & 0xff) << 8));
             }
 
         } else {
-            // => Delta frame. 
+            // => Delta frame.
 
             // Read block headers
             int nbx = (width + blockWidth - 1) / blockWidth;
             int nby = (height + blockHeight - 1) / blockHeight;
             int blockHeaderSize = ((nbx * nby * 2 + 3) & ~3);
-            //System.out.println("blockHeaderSize=" + blockHeaderSize + " blockSize x,y=" + blockWidth + "," + blockHeight);
-            if (blockHeaderBuf == null || blockHeaderBuf.length < blockHeaderSize) {
-                blockHeaderBuf = new byte[blockHeaderSize];
-            }
-            byte[] blocks = blockHeaderBuf;
-            in.readFully(blocks, 0, blockHeaderSize);
+            ensureAvailable(pos, blockHeaderSize);
+            int block = pos;
+            pos += blockHeaderSize;
 
             // Process block data
-            int block = 0;
             for (int by = 0; by < height; by += blockHeight) {
                 int bh2 = min(height - by, blockHeight);
                 for (int bx = 0; bx < width; bx += blockWidth) {
                     int bw2 = min(width - bx, blockWidth);
-                    int a = blocks[block++];
-                    int b = blocks[block++];
+                    int a = in[block++];
+                    int b = in[block++];
                     int dx = a >> 1;
                     int dy = b >> 1;
                     int flag = a & 1;
@@ -843,16 +756,15 @@ public class ZMBVCodecCore {
 
                         }
                     } else {
-                        // => XOR block with data read from stream
-                        in.readFully(buf, 0, bw2 * bh2 * 2);
-                        int iblock = 0;
+                        // => XOR block with data from the inflated frame
+                        ensureAvailable(pos, bw2 * bh2 * 2);
 
                         for (int y = 0; y < bh2; y++) {
                             int py = by + y + dy;
                             int iout = bx + (by + y) * width;
-                            for (int x = 0; x < bw2; x++) {
+                            for (int x = 0; x < bw2; x++, pos += 2) {
                                 int px = bx + x + dx;
-                                int bgr = ((buf[iblock++] & 0xff)) | ((buf[iblock++] & 0xff) << 8);
+                                int bgr = ((in[pos] & 0xff)) | ((in[pos + 1] & 0xff) << 8);
                                 if (0 <= py && py < height && 0 <= px && px < width) {
                                     bgr ^= prevDat[px + py * width];
                                 }
@@ -866,21 +778,17 @@ public class ZMBVCodecCore {
         }
     }
 
-    private void decode16to32(ImageInputStream in, int[] outDat, int[] prevDat, int flags, int width, int height) throws IOException {
+    private void decode16to32(byte[] in, int[] outDat, int[] prevDat, int flags, int width, int height) throws IOException {
         boolean isKeyframe = (flags & 1) != 0;
 
-        int blockSize = blockWidth * blockHeight;
-        if (blockDataBuf == null || blockDataBuf.length < max(3, blockSize * 2)) {
-            blockDataBuf = new byte[max(3, blockSize * 2)];
-        }
-
-        byte[] buf = blockDataBuf;
+        int pos = 0;
         if (isKeyframe) {
-            // => Key frame. 
+            // => Key frame.
 
             // Process raw pixels
-            for (int i = 0, n = width * height; i < n; i++) {
-                int bgr = in.readUnsignedShort();
+            ensureAvailable(pos, width * height * 2);
+            for (int i = 0, n = width * height; i < n; i++, pos += 2) {
+                int bgr = (in[pos] & 0xff) | ((in[pos + 1] & 0xff) << 8);
                 outDat[i] = ((bgr & (0x3f << 5)) << 5) | ((bgr & (0x30 << 5)) >> 1)//green
                         | ((bgr & (0x1f << 11)) << 8) | ((bgr & (0x1c << 11)) << 3) // red
                         | ((bgr & (0x1f << 0)) << 3) | ((bgr & (0x1c << 0)) >>> 2) // blue
@@ -888,26 +796,23 @@ public class ZMBVCodecCore {
             }
 
         } else {
-            // => Delta frame. 
+            // => Delta frame.
 
             // Read block headers
             int nbx = (width + blockWidth - 1) / blockWidth;
             int nby = (height + blockHeight - 1) / blockHeight;
             int blockHeaderSize = ((nbx * nby * 2 + 3) & ~3);
-            if (blockHeaderBuf == null || blockHeaderBuf.length < blockHeaderSize) {
-                blockHeaderBuf = new byte[blockHeaderSize];
-            }
-            byte[] blocks = blockHeaderBuf;
-            in.readFully(blocks, 0, blockHeaderSize);
+            ensureAvailable(pos, blockHeaderSize);
+            int block = pos;
+            pos += blockHeaderSize;
 
             // Process block data
-            int block = 0;
             for (int by = 0; by < height; by += blockHeight) {
                 int bh2 = min(height - by, blockHeight);
                 for (int bx = 0; bx < width; bx += blockWidth) {
                     int bw2 = min(width - bx, blockWidth);
-                    int a = blocks[block++];
-                    int b = blocks[block++];
+                    int a = in[block++];
+                    int b = in[block++];
                     int dx = a >> 1;
                     int dy = b >> 1;
                     int flag = a & 1;
@@ -929,16 +834,15 @@ public class ZMBVCodecCore {
 
                         }
                     } else {
-                        // => XOR block with data read from stream
-                        in.readFully(buf, 0, bw2 * bh2 * 2);
-                        int iblock = 0;
+                        // => XOR block with data from the inflated frame
+                        ensureAvailable(pos, bw2 * bh2 * 2);
 
                         for (int y = 0; y < bh2; y++) {
                             int py = by + y + dy;
                             int iout = bx + (by + y) * width;
-                            for (int x = 0; x < bw2; x++) {
+                            for (int x = 0; x < bw2; x++, pos += 2) {
                                 int px = bx + x + dx;
-                                int bgr = ((buf[iblock++] & 0xff)) | ((buf[iblock++] & 0xff) << 8);
+                                int bgr = ((in[pos] & 0xff)) | ((in[pos + 1] & 0xff) << 8);
                                 int rgb = ((bgr & (0x3f << 5)) << 5) | ((bgr & (0x30 << 5)) >> 1)//green
                                         | ((bgr & (0x1f << 11)) << 8) | ((bgr & (0x1c << 11)) << 3) // red
                                         | ((bgr & (0x1f << 0)) << 3) | ((bgr & (0x1c << 0)) >>> 2) // blue
@@ -946,7 +850,7 @@ public class ZMBVCodecCore {
                                 if (0 <= py && py < height && 0 <= px && px < width) {
                                     rgb ^= prevDat[px + py * width];
                                 }
-                                outDat[iout] = (short) bgr;
+                                outDat[iout] = rgb;
                                 iout++;
                             }
 
@@ -958,45 +862,37 @@ public class ZMBVCodecCore {
         }
     }
 
-    private void decode16to16(ImageInputStream in, short[] outDat, short[] prevDat, int flags, int width, int height) throws IOException {
+    private void decode16to16(byte[] in, short[] outDat, short[] prevDat, int flags, int width, int height) throws IOException {
         boolean isKeyframe = (flags & 1) != 0;
 
-        int blockSize = blockWidth * blockHeight;
-        if (blockDataBuf == null || blockDataBuf.length < max(3, blockSize * 2)) {
-            blockDataBuf = new byte[max(3, blockSize * 2)];
-        }
-
-        byte[] buf = blockDataBuf;
+        int pos = 0;
         if (isKeyframe) {
-            // => Key frame. 
+            // => Key frame.
 
             // Process raw pixels
-            for (int i = 0, n = width * height; i < n; i++) {
-                int bgr = in.readUnsignedShort();
-                outDat[i] = (short) bgr;
+            ensureAvailable(pos, width * height * 2);
+            for (int i = 0, n = width * height; i < n; i++, pos += 2) {
+                outDat[i] = (short) ((in[pos] & 0xff) | ((in[pos + 1] & 0xff) << 8));
             }
 
         } else {
-            // => Delta frame. 
+            // => Delta frame.
 
             // Read block headers
             int nbx = (width + blockWidth - 1) / blockWidth;
             int nby = (height + blockHeight - 1) / blockHeight;
             int blockHeaderSize = ((nbx * nby * 2 + 3) & ~3);
-            if (blockHeaderBuf == null || blockHeaderBuf.length < blockHeaderSize) {
-                blockHeaderBuf = new byte[blockHeaderSize];
-            }
-            byte[] blocks = blockHeaderBuf;
-            in.readFully(blocks, 0, blockHeaderSize);
+            ensureAvailable(pos, blockHeaderSize);
+            int block = pos;
+            pos += blockHeaderSize;
 
             // Process block data
-            int block = 0;
             for (int by = 0; by < height; by += blockHeight) {
                 int bh2 = min(height - by, blockHeight);
                 for (int bx = 0; bx < width; bx += blockWidth) {
                     int bw2 = min(width - bx, blockWidth);
-                    int a = blocks[block++];
-                    int b = blocks[block++];
+                    int a = in[block++];
+                    int b = in[block++];
                     int dx = a >> 1;
                     int dy = b >> 1;
                     int flag = a & 1;
@@ -1018,16 +914,15 @@ public class ZMBVCodecCore {
 
                         }
                     } else {
-                        // => XOR block with data read from stream
-                        in.readFully(buf, 0, bw2 * bh2 * 2);
-                        int iblock = 0;
+                        // => XOR block with data from the inflated frame
+                        ensureAvailable(pos, bw2 * bh2 * 2);
 
                         for (int y = 0; y < bh2; y++) {
                             int py = by + y + dy;
                             int iout = bx + (by + y) * width;
-                            for (int x = 0; x < bw2; x++) {
+                            for (int x = 0; x < bw2; x++, pos += 2) {
                                 int px = bx + x + dx;
-                                int bgr = ((buf[iblock++] & 0xff)) | ((buf[iblock++] & 0xff) << 8);
+                                int bgr = ((in[pos] & 0xff)) | ((in[pos + 1] & 0xff) << 8);
                                 if (0 <= py && py < height && 0 <= px && px < width) {
                                     bgr ^= prevDat[px + py * width];
                                 }
@@ -1043,49 +938,115 @@ public class ZMBVCodecCore {
         }
     }
 
-    private void decode32to32(ImageInputStream in, int[] outDat, int[] prevDat, int flags, int width, int height) throws IOException {
+    private void decode32to32(byte[] in, int[] outDat, int[] prevDat, int flags, int width, int height) throws IOException {
         boolean isKeyframe = (flags & 1) != 0;
 
-        int blockSize = blockWidth * blockHeight;
-        if (blockDataBuf == null || blockDataBuf.length < max(3, blockSize * 4)) {
-            blockDataBuf = new byte[max(3, blockSize * 4)];
+        int pos = 0;
+        if (isKeyframe) {
+            // => Key frame.
+
+            // Process raw pixels
+            ensureAvailable(pos, width * height * 4);
+            for (int i = 0, n = width * height; i < n; i++, pos += 4) {
+                outDat[i] = ((in[pos] & 0xff)) | ((in[pos + 1] & 0xff) << 8) | ((in[pos + 2] & 0xff) << 16) | ((in[pos + 3] & 0xff) << 24);
+            }
+
+        } else {
+            // => Delta frame.
+
+            // Read block headers
+            int nbx = (width + blockWidth - 1) / blockWidth;
+            int nby = (height + blockHeight - 1) / blockHeight;
+            int blockHeaderSize = ((nbx * nby * 2 + 3) & ~3);
+            ensureAvailable(pos, blockHeaderSize);
+            int block = pos;
+            pos += blockHeaderSize;
+
+            // Process block data
+            for (int by = 0; by < height; by += blockHeight) {
+                int bh2 = min(height - by, blockHeight);
+                for (int bx = 0; bx < width; bx += blockWidth) {
+                    int bw2 = min(width - bx, blockWidth);
+                    int a = in[block++];
+                    int b = in[block++];
+                    int dx = a >> 1;
+                    int dy = b >> 1;
+                    int flag = a & 1;
+
+                    if (flag == 0) {
+                        // => copy block from offset dx,dy from previous frame
+                        for (int y = 0; y < bh2; y++) {
+                            int py = by + y + dy;
+                            int iout = bx + (by + y) * width;
+                            for (int x = 0; x < bw2; x++) {
+                                int px = bx + x + dx;
+                                int rgb;
+                                if (0 <= py && py < height && 0 <= px && px < width) {
+                                    rgb = prevDat[px + py * width];
+                                } else {
+                                    rgb = 0;
+                                }
+                                outDat[iout] = rgb;
+                                iout++;
+                            }
+
+                        }
+                    } else {
+                        // => XOR block with data from the inflated frame
+                        ensureAvailable(pos, bw2 * bh2 * 4);
+
+                        for (int y = 0; y < bh2; y++) {
+                            int py = by + y + dy;
+                            int iout = bx + (by + y) * width;
+                            for (int x = 0; x < bw2; x++, pos += 4) {
+                                int px = bx + x + dx;
+                                int rgb = ((in[pos] & 0xff)) | ((in[pos + 1] & 0xff) << 8) | ((in[pos + 2] & 0xff) << 16) | ((in[pos + 3] & 0xff) << 24);
+                                if (0 <= py && py < height && 0 <= px && px < width) {
+                                    rgb ^= prevDat[px + py * width];
+                                }
+                                outDat[iout] = rgb;
+                                iout++;
+                            }
+
+
+                        }
+                    }
+                }
+            }
         }
+    }
 
-        byte[] buf = blockDataBuf;
+    private void decode24to32(byte[] in, int[] outDat, int[] prevDat, int flags, int width, int height) throws IOException {
+        boolean isKeyframe = (flags & 1) != 0;
+
+        int pos = 0;
         if (isKeyframe) {
-            // => Key frame. 
+            // => Key frame.
 
             // Process raw pixels
-            for (int i = 0, n = width * height; i < n; i++) {
-                int bgr = in.readInt();
-                outDat[i] = bgr;
-                /*((bgr & (0x3f << 5))<<5)| ((bgr & (0x30 << 5)) >>1)//green
-                |((bgr & (0x1f << 11)) << 8) | ((bgr & (0x1c << 11)) << 3) // red
-                |((bgr & (0x1f << 0)) << 3) | ((bgr & (0x1c << 0)) >>> 2) // blue
-                ; */
+            ensureAvailable(pos, width * height * 3);
+            for (int i = 0, n = width * height; i < n; i++, pos += 3) {
+                outDat[i] = ((in[pos] & 0xff)) | ((in[pos + 1] & 0xff) << 8) | ((in[pos + 2] & 0xff) << 16);
             }
 
         } else {
-            // => Delta frame. 
+            // => Delta frame.
 
             // Read block headers
             int nbx = (width + blockWidth - 1) / blockWidth;
             int nby = (height + blockHeight - 1) / blockHeight;
             int blockHeaderSize = ((nbx * nby * 2 + 3) & ~3);
-            if (blockHeaderBuf == null || blockHeaderBuf.length < blockHeaderSize) {
-                blockHeaderBuf = new byte[blockHeaderSize];
-            }
-            byte[] blocks = blockHeaderBuf;
-            in.readFully(blocks, 0, blockHeaderSize);
+            ensureAvailable(pos, blockHeaderSize);
+            int block = pos;
+            pos += blockHeaderSize;
 
             // Process block data
-            int block = 0;
             for (int by = 0; by < height; by += blockHeight) {
                 int bh2 = min(height - by, blockHeight);
                 for (int bx = 0; bx < width; bx += blockWidth) {
                     int bw2 = min(width - bx, blockWidth);
-                    int a = blocks[block++];
-                    int b = blocks[block++];
+                    int a = in[block++];
+                    int b = in[block++];
                     int dx = a >> 1;
                     int dy = b >> 1;
                     int flag = a & 1;
@@ -1109,22 +1070,15 @@ public class ZMBVCodecCore {
 
                         }
                     } else {
-                        // => XOR block with data read from stream
-                        in.readFully(buf, 0, bw2 * bh2 * 4);
-                        int iblock = 0;
+                        // => XOR block with data from the inflated frame
+                        ensureAvailable(pos, bw2 * bh2 * 3);
 
                         for (int y = 0; y < bh2; y++) {
                             int py = by + y + dy;
                             int iout = bx + (by + y) * width;
-                            for (int x = 0; x < bw2; x++) {
+                            for (int x = 0; x < bw2; x++, pos += 3) {
                                 int px = bx + x + dx;
-                                int bgr = ((buf[iblock] & 0xff)) | ((buf[iblock + 1] & 0xff) << 8) | ((buf[iblock + 2] & 0xff) << 16) | ((buf[iblock + 3] & 0xff) << 24);
-                                iblock += 4;
-                                int rgb = bgr;
-                                /*((bgr & (0x3f << 5))<<5)| ((bgr & (0x30 << 5)) >>1)//green
-                                |((bgr & (0x1f << 11)) << 8) | ((bgr & (0x1c << 11)) << 3) // red
-                                |((bgr & (0x1f << 0)) << 3) | ((bgr & (0x1c << 0)) >>> 2) // blue
-                                ; */
+                                int rgb = ((in[pos] & 0xff)) | ((in[pos + 1] & 0xff) << 8) | ((in[pos + 2] & 0xff) << 16);
                                 if (0 <= py && py < height && 0 <= px && px < width) {
                                     rgb ^= prevDat[px + py * width];
                                 }